@@ -74,4 +74,15 @@ public class ApiResponse<T> implements Serializable {
     public static <T> ApiResponse<T> fail(ResultCode resultCode, String message) {
         return fail(resultCode.getCode(), message);
     }
+
+    /**
+     * 失败，并附带说明失败原因的数据
+     */
+    public static <T> ApiResponse<T> fail(ResultCode resultCode, T data) {
+        return ApiResponse.<T>builder()
+                .code(resultCode.getCode())
+                .message(resultCode.getMessage())
+                .data(data)
+                .build();
+    }
 } 
\ No newline at end of file
@@ -18,6 +18,9 @@ public enum ResultCode {
     FORBIDDEN(403, "禁止访问"),
     NOT_FOUND(404, "资源不存在"),
     METHOD_NOT_ALLOWED(405, "请求方法不允许"),
+    CONFLICT(409, "资源状态冲突"),
+    UNSUPPORTED_MEDIA_TYPE(415, "不支持的请求格式"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁"),
     
     // 业务错误
     ORDER_NOT_FOUND(1001, "订单不存在"),
@@ -32,4 +35,16 @@ public enum ResultCode {
 
     private final int code;
     private final String message;
+
+    /**
+     * 按状态码查找，没有对应项时返回 null
+     */
+    public static ResultCode of(int code) {
+        for (ResultCode resultCode : values()) {
+            if (resultCode.code == code) {
+                return resultCode;
+            }
+        }
+        return null;
+    }
 } 
\ No newline at end of file
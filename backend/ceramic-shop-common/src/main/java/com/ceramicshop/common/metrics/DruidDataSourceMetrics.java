@@ -0,0 +1,67 @@
+package com.ceramicshop.common.metrics;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Druid 连接池指标
+ * 连接数、等待线程数按状态打标签导出为 ceramic.druid.connections，累计的创建、销毁、连接错误次数导出为计数器。
+ */
+public class DruidDataSourceMetrics implements MeterBinder {
+
+    private final Map<String, DruidDataSource> dataSources;
+
+    public DruidDataSourceMetrics(Map<String, DruidDataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Map.Entry<String, DruidDataSource> entry : dataSources.entrySet()) {
+            DruidDataSource dataSource = entry.getValue();
+            Tags tags = Tags.of("pool", entry.getKey());
+
+            connections(registry, dataSource, tags, "active", DruidDataSource::getActiveCount);
+            connections(registry, dataSource, tags, "idle", DruidDataSource::getPoolingCount);
+            connections(registry, dataSource, tags, "max", DruidDataSource::getMaxActive);
+            connections(registry, dataSource, tags, "min", DruidDataSource::getMinIdle);
+            Gauge.builder("ceramic.druid.wait.threads", dataSource, DruidDataSource::getWaitThreadCount)
+                    .description("等待获取连接的线程数")
+                    .tags(tags)
+                    .register(registry);
+
+            counter(registry, dataSource, tags, "ceramic.druid.connections.created", "创建的物理连接数",
+                    DruidDataSource::getCreateCount);
+            counter(registry, dataSource, tags, "ceramic.druid.connections.destroyed", "销毁的物理连接数",
+                    DruidDataSource::getDestroyCount);
+            counter(registry, dataSource, tags, "ceramic.druid.connections.errors", "物理连接错误次数",
+                    DruidDataSource::getConnectErrorCount);
+            counter(registry, dataSource, tags, "ceramic.druid.wait", "获取连接时因连接池为空而等待的次数",
+                    DruidDataSource::getNotEmptyWaitCount);
+        }
+    }
+
+    private static void connections(MeterRegistry registry, DruidDataSource dataSource, Tags tags, String state,
+                                    ToDoubleFunction<DruidDataSource> value) {
+        Gauge.builder("ceramic.druid.connections", dataSource, value)
+                .description("连接池连接数")
+                .tags(tags)
+                .tag("state", state)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, DruidDataSource dataSource, Tags tags, String name,
+                                String description, ToDoubleFunction<DruidDataSource> value) {
+        FunctionCounter.builder(name, dataSource, value)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
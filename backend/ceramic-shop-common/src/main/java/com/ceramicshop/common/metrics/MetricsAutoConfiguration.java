@@ -0,0 +1,50 @@
+package com.ceramicshop.common.metrics;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 指标自动配置
+ * 注册仓储调用计时切面和 Druid 连接池指标；HTTP 接口耗时使用 Spring Boot 自带的 http.server.requests。
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@AutoConfigureAfter(CompositeMeterRegistryAutoConfiguration.class)
+public class MetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnClass(Aspect.class)
+    @ConditionalOnProperty(prefix = "ceramic.metrics.repository", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RepositoryTimingAspect repositoryTimingAspect(MeterRegistry registry) {
+        return new RepositoryTimingAspect(registry);
+    }
+
+    @Bean
+    @ConditionalOnClass(DruidDataSource.class)
+    public DruidDataSourceMetrics druidDataSourceMetrics(ObjectProvider<Map<String, DataSource>> dataSources) {
+        Map<String, DruidDataSource> druidDataSources = new LinkedHashMap<>();
+        Map<String, DataSource> candidates = dataSources.getIfAvailable();
+        if (candidates != null) {
+            candidates.forEach((name, dataSource) -> {
+                if (dataSource instanceof DruidDataSource) {
+                    druidDataSources.put(name, (DruidDataSource) dataSource);
+                }
+            });
+        }
+        return new DruidDataSourceMetrics(druidDataSources);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ceramicshop.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 仓储与Mapper调用计时
+ * 拦截领域仓储接口的实现方法和 MyBatis Mapper 方法，记录到 ceramic.repository.calls，按类名、方法名和异常类型区分；
+ * 带缓存的仓储与其委托的数据库实现分别计时。百分位直方图在各服务的 management.metrics 配置中开启。
+ * 成功调用的 Timer 按方法缓存，避免每次调用都查找注册表。
+ */
+@Aspect
+public class RepositoryTimingAspect {
+
+    static final String METRIC_NAME = "ceramic.repository.calls";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public RepositoryTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* com.ceramic..domain.repository.*Repository.*(..))"
+            + " || execution(* com.ceramicshop..domain.repository.*Repository.*(..))"
+            + " || execution(* com.ceramic..mapper.*Mapper.*(..))"
+            + " || execution(* com.ceramicshop..mapper.*Mapper.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = registry.config().clock().monotonicTime();
+        try {
+            Object result = joinPoint.proceed();
+            successTimers.computeIfAbsent(method, m -> timer(joinPoint, m, "none"))
+                    .record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(joinPoint, method, e.getClass().getSimpleName())
+                    .record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, Method method, String exception) {
+        // Mapper 是JDK代理，用声明方法的接口名而不是代理类名
+        Class<?> type = method.getDeclaringClass().isInterface()
+                ? method.getDeclaringClass()
+                : joinPoint.getTarget().getClass();
+        return Timer.builder(METRIC_NAME)
+                .description("仓储与Mapper调用耗时")
+                .tag("class", type.getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ceramicshop.common.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 认证自动配置
+ * 配置了 ceramic.jwt.keys 的服务自动获得令牌编解码器、认证过滤器和 CurrentUser 参数解析。
+ * 配置项存在但为空（如环境变量未设置）或密钥短于32字节时启动失败，不会退回任何默认密钥。
+ * 过滤器排在 Spring Security 过滤器链（默认顺序 -100）之前，安全配置可以直接读取 CurrentUser。
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "ceramic.jwt", name = "keys")
+public class AuthenticationAutoConfiguration implements WebMvcConfigurer {
+
+    /** 认证过滤器顺序，需早于 Spring Security */
+    public static final int FILTER_ORDER = -110;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtCodec jwtCodec(@Value("${ceramic.jwt.keys}") String keys,
+                             @Value("${ceramic.jwt.active-key-id}") String activeKeyId) {
+        if (keys.trim().isEmpty()) {
+            throw new IllegalStateException("未配置JWT密钥，请设置 ceramic.jwt.keys（环境变量 CERAMIC_JWT_KEYS）");
+        }
+        return new JwtCodec(JwtCodec.parseSecrets(keys), activeKeyId);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilter(
+            JwtCodec jwtCodec,
+            @Value("${ceramic.jwt.cache.maximum-size:10000}") long cacheMaximumSize) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new JwtAuthenticationFilter(jwtCodec, cacheMaximumSize));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+}
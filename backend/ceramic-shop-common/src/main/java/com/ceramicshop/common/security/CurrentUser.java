@@ -0,0 +1,46 @@
+package com.ceramicshop.common.security;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 当前请求的登录用户
+ * 由 JwtAuthenticationFilter 验证令牌后放入请求属性，控制器方法声明该类型的参数即可获得；
+ * 同一令牌的后续请求复用缓存中的同一个实例。
+ */
+public final class CurrentUser {
+
+    /** 请求属性名 */
+    public static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+
+    private final Long userId;
+    private final long expiresAt;
+
+    public CurrentUser(Long userId, long expiresAt) {
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * 取出请求中已认证的用户，未登录时返回 null
+     */
+    public static CurrentUser from(HttpServletRequest request) {
+        Object attribute = request.getAttribute(REQUEST_ATTRIBUTE);
+        return attribute instanceof CurrentUser ? (CurrentUser) attribute : null;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * 令牌过期时间，epoch秒
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CurrentUser{userId=" + userId + "}";
+    }
+}
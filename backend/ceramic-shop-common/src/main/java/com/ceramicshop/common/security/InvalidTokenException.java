@@ -0,0 +1,15 @@
+package com.ceramicshop.common.security;
+
+/**
+ * JWT格式错误、签名不匹配或已过期
+ */
+public class InvalidTokenException extends IllegalArgumentException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
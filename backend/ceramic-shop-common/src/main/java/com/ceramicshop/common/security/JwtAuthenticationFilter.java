@@ -0,0 +1,96 @@
+package com.ceramicshop.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT认证过滤器
+ * 每个请求只解析一次 Authorization 头，验证通过后把 CurrentUser 放入请求属性，
+ * 无令牌或令牌无效时不设置，由各服务的安全配置或 CurrentUser 参数决定是否拒绝。
+ * 验证通过的令牌按签名段缓存，签名段本身是整段令牌的HMAC摘要，命中后再比较完整令牌，
+ * 缓存项在令牌过期时失效。验证过程不访问数据库或其他服务。
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtCodec jwtCodec;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtAuthenticationFilter(JwtCodec jwtCodec, long cacheMaximumSize) {
+        this.jwtCodec = jwtCodec;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.user.getExpiresAt() * 1000 - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (StringUtils.hasText(header) && header.startsWith(BEARER_PREFIX)) {
+            try {
+                request.setAttribute(CurrentUser.REQUEST_ATTRIBUTE, authenticate(header.substring(BEARER_PREFIX.length())));
+            } catch (InvalidTokenException e) {
+                logger.debug("JWT认证失败: " + e.getMessage());
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 先查缓存，未命中时验证签名并缓存结果
+     */
+    CurrentUser authenticate(String token) {
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken cached = verifiedTokens.getIfPresent(signature);
+        if (cached != null && cached.token.equals(token)) {
+            if (System.currentTimeMillis() / 1000 >= cached.user.getExpiresAt()) {
+                verifiedTokens.invalidate(signature);
+                throw new InvalidTokenException("令牌已过期");
+            }
+            return cached.user;
+        }
+        JwtClaims claims = jwtCodec.verify(token);
+        CurrentUser user = new CurrentUser(claims.getUserId(), claims.getExpiresAt());
+        verifiedTokens.put(signature, new VerifiedToken(token, user));
+        return user;
+    }
+
+    private static final class VerifiedToken {
+        private final String token;
+        private final CurrentUser user;
+
+        private VerifiedToken(String token, CurrentUser user) {
+            this.token = token;
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ceramicshop.common.security;
+
+/**
+ * 已验证JWT中的声明
+ */
+public final class JwtClaims {
+
+    private final Long userId;
+    private final String keyId;
+    private final long issuedAt;
+    private final long expiresAt;
+
+    public JwtClaims(Long userId, String keyId, long issuedAt, long expiresAt) {
+        this.userId = userId;
+        this.keyId = keyId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * 签发时间，epoch秒
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * 过期时间，epoch秒
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long nowEpochSecond) {
+        return nowEpochSecond >= expiresAt;
+    }
+}
@@ -0,0 +1,212 @@
+package com.ceramicshop.common.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HS256 JWT 签发与验证
+ * 密钥按 kid 管理：用 activeKeyId 对应的密钥签发，验证时按令牌头部的 kid 选择密钥，
+ * 轮换时先加入新密钥并切换 activeKeyId，旧密钥保留到其签发的令牌全部过期后再移除。
+ * 每个密钥在每个线程上缓存一个已初始化的 Mac，验证过程不访问数据库或网络。
+ */
+public class JwtCodec {
+
+    private static final String ALGORITHM = "HS256";
+    private static final String HMAC = "HmacSHA256";
+    /** HS256 密钥至少 256 位 */
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SigningKey> keys;
+    private final String activeKeyId;
+    private final String activeHeader;
+    private final Clock clock;
+
+    public JwtCodec(Map<String, String> secrets, String activeKeyId) {
+        this(secrets, activeKeyId, Clock.systemUTC());
+    }
+
+    public JwtCodec(Map<String, String> secrets, String activeKeyId, Clock clock) {
+        if (secrets == null || secrets.isEmpty()) {
+            throw new IllegalArgumentException("至少需要配置一个JWT密钥");
+        }
+        Map<String, SigningKey> signingKeys = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : secrets.entrySet()) {
+            byte[] secret = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            if (secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("JWT密钥 " + entry.getKey() + " 长度不能少于" + MIN_SECRET_BYTES + "字节");
+            }
+            signingKeys.put(entry.getKey(), new SigningKey(secret));
+        }
+        if (!signingKeys.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("签发用的JWT密钥不存在: " + activeKeyId);
+        }
+        this.keys = Collections.unmodifiableMap(signingKeys);
+        this.activeKeyId = activeKeyId;
+        this.activeHeader = encodeJson(header(activeKeyId));
+        this.clock = clock;
+    }
+
+    /**
+     * 解析 "kid=secret,kid=secret" 形式的密钥配置
+     */
+    public static Map<String, String> parseSecrets(String value) {
+        Map<String, String> secrets = new LinkedHashMap<>();
+        if (value == null) {
+            return secrets;
+        }
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            if (separator <= 0 || separator == trimmed.length() - 1) {
+                throw new IllegalArgumentException("JWT密钥配置格式应为 kid=secret");
+            }
+            secrets.put(trimmed.substring(0, separator).trim(), trimmed.substring(separator + 1).trim());
+        }
+        return secrets;
+    }
+
+    /**
+     * 为用户签发令牌
+     */
+    public String issue(Long userId, Duration ttl) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("无效的用户ID");
+        }
+        long now = clock.instant().getEpochSecond();
+        ObjectNode payload = MAPPER.createObjectNode();
+        payload.put("sub", String.valueOf(userId));
+        payload.put("uid", userId);
+        payload.put("iat", now);
+        payload.put("exp", now + ttl.getSeconds());
+
+        String signingInput = activeHeader + "." + encodeJson(payload);
+        return signingInput + "." + ENCODER.encodeToString(keys.get(activeKeyId).sign(signingInput));
+    }
+
+    /**
+     * 验证签名和有效期并返回声明
+     *
+     * @throws InvalidTokenException 令牌无效或已过期
+     */
+    public JwtClaims verify(String token) {
+        if (token == null) {
+            throw new InvalidTokenException("令牌为空");
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new InvalidTokenException("令牌格式错误");
+        }
+
+        JsonNode header = decodeJson(token.substring(0, firstDot));
+        if (!ALGORITHM.equals(header.path("alg").asText())) {
+            throw new InvalidTokenException("不支持的签名算法");
+        }
+        String keyId = header.path("kid").asText();
+        SigningKey key = keys.get(keyId);
+        if (key == null) {
+            throw new InvalidTokenException("未知的密钥: " + keyId);
+        }
+
+        byte[] signature = decode(token.substring(secondDot + 1));
+        byte[] expected = key.sign(token.substring(0, secondDot));
+        if (!MessageDigest.isEqual(expected, signature)) {
+            throw new InvalidTokenException("令牌签名不匹配");
+        }
+
+        JsonNode payload = decodeJson(token.substring(firstDot + 1, secondDot));
+        JsonNode uid = payload.path("uid");
+        JsonNode exp = payload.path("exp");
+        if (!uid.canConvertToLong() || uid.asLong() <= 0 || !exp.canConvertToLong()) {
+            throw new InvalidTokenException("令牌缺少必要的声明");
+        }
+        JwtClaims claims = new JwtClaims(uid.asLong(), keyId, payload.path("iat").asLong(), exp.asLong());
+        if (claims.isExpired(clock.instant().getEpochSecond())) {
+            throw new InvalidTokenException("令牌已过期");
+        }
+        return claims;
+    }
+
+    private static ObjectNode header(String keyId) {
+        ObjectNode header = MAPPER.createObjectNode();
+        header.put("alg", ALGORITHM);
+        header.put("typ", "JWT");
+        header.put("kid", keyId);
+        return header;
+    }
+
+    private static String encodeJson(JsonNode node) {
+        try {
+            return ENCODER.encodeToString(MAPPER.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException("JWT序列化失败", e);
+        }
+    }
+
+    private static JsonNode decodeJson(String segment) {
+        try {
+            JsonNode node = MAPPER.readTree(decode(segment));
+            if (node == null || !node.isObject()) {
+                throw new InvalidTokenException("令牌格式错误");
+            }
+            return node;
+        } catch (IOException e) {
+            throw new InvalidTokenException("令牌格式错误", e);
+        }
+    }
+
+    private static byte[] decode(String segment) {
+        try {
+            return DECODER.decode(segment);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("令牌格式错误", e);
+        }
+    }
+
+    /**
+     * 单个密钥，Mac 不是线程安全的，按线程缓存
+     */
+    private static final class SigningKey {
+        private final ThreadLocal<Mac> mac;
+
+        private SigningKey(byte[] secret) {
+            SecretKeySpec keySpec = new SecretKeySpec(secret, HMAC);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(HMAC);
+                    instance.init(keySpec);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HMAC初始化失败", e);
+                }
+            });
+            // 启动时就暴露算法不可用等问题
+            mac.get();
+        }
+
+        private byte[] sign(String signingInput) {
+            return mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ceramicshop.common.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内请求耗时分解
+ * 被采样的请求在处理线程上记录一棵计时区间树，结束后输出到慢请求日志。
+ * 没有进行中的追踪时 {@link #span(String)} 只读一次 ThreadLocal 并返回空区间，可以直接放在热点路径上。
+ * 只记录当前线程内的调用，交给其他线程的工作不会出现在树中。
+ *
+ * <pre>
+ * try (RequestTrace.Span ignored = RequestTrace.span("OrderRepository.save")) {
+ *     orderRepository.save(order);
+ * }
+ * </pre>
+ */
+public final class RequestTrace {
+
+    /**
+     * 单个请求最多记录的区间数，超出的区间不再记录，只计数
+     */
+    static final int MAX_SPANS = 256;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final Span root;
+    private Span current;
+    private int spanCount = 1;
+    private int droppedCount;
+
+    private RequestTrace(String name) {
+        this.root = new Span(this, null, name);
+        this.current = root;
+    }
+
+    /**
+     * 在当前区间下开始一个子区间，用 try-with-resources 关闭
+     */
+    public static Span span(String name) {
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? Span.NOOP : trace.open(name);
+    }
+
+    /**
+     * 当前线程是否有进行中的追踪，区间名需要拼接时先判断
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * 在当前线程开始追踪，已有进行中的追踪时返回 null
+     */
+    static RequestTrace begin(String name) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        RequestTrace trace = new RequestTrace(name);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * 结束追踪并解除与当前线程的绑定，未关闭的区间按当前时间结束
+     *
+     * @return 根区间耗时，纳秒
+     */
+    long end() {
+        CURRENT.remove();
+        long now = System.nanoTime();
+        for (Span span = current; span != null; span = span.parent) {
+            if (span.durationNanos < 0) {
+                span.durationNanos = now - span.startNanos;
+            }
+        }
+        current = null;
+        return root.durationNanos;
+    }
+
+    /**
+     * 按缩进输出区间树，每行为区间名和耗时
+     */
+    String render() {
+        StringBuilder builder = new StringBuilder(256);
+        render(builder, root, 0);
+        if (droppedCount > 0) {
+            builder.append("... 另有").append(droppedCount).append("个区间超出上限未记录\n");
+        }
+        return builder.toString();
+    }
+
+    private void render(StringBuilder builder, Span span, int depth) {
+        appendLine(builder, depth, span.name, 1, span.durationNanos);
+        if (span.children == null) {
+            return;
+        }
+        // 连续的同名叶子区间（如循环中的同一条SQL）合并为一行，显示次数和总耗时
+        List<Span> children = span.children;
+        for (int i = 0; i < children.size(); ) {
+            Span child = children.get(i);
+            int j = i + 1;
+            long totalNanos = child.durationNanos;
+            while (child.children == null && j < children.size()
+                    && children.get(j).children == null && children.get(j).name.equals(child.name)) {
+                totalNanos += children.get(j).durationNanos;
+                j++;
+            }
+            if (j - i > 1) {
+                appendLine(builder, depth + 1, child.name, j - i, totalNanos);
+            } else {
+                render(builder, child, depth + 1);
+            }
+            i = j;
+        }
+    }
+
+    private static void appendLine(StringBuilder builder, int depth, String name, int count, long durationNanos) {
+        for (int i = 0; i < depth; i++) {
+            builder.append("  ");
+        }
+        builder.append(name);
+        if (count > 1) {
+            builder.append(" x").append(count);
+        }
+        builder.append(' ')
+                .append(String.format("%.1f", durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1)))
+                .append("ms\n");
+    }
+
+    private Span open(String name) {
+        if (current == null) {
+            return Span.NOOP;
+        }
+        if (spanCount >= MAX_SPANS) {
+            droppedCount++;
+            return Span.NOOP;
+        }
+        spanCount++;
+        Span span = new Span(this, current, name);
+        current.addChild(span);
+        current = span;
+        return span;
+    }
+
+    private void close(Span span) {
+        if (span.durationNanos >= 0) {
+            return;
+        }
+        span.durationNanos = System.nanoTime() - span.startNanos;
+        // 正常情况下关闭的就是当前区间；嵌套关闭顺序错乱时回到它的父区间
+        if (current != null) {
+            current = span.parent;
+        }
+    }
+
+    /**
+     * 计时区间，关闭时记录耗时
+     */
+    public static final class Span implements AutoCloseable {
+
+        private static final Span NOOP = new Span(null, null, null);
+
+        private final RequestTrace trace;
+        private final Span parent;
+        private final String name;
+        private final long startNanos;
+        private long durationNanos = -1;
+        private List<Span> children;
+
+        private Span(RequestTrace trace, Span parent, String name) {
+            this.trace = trace;
+            this.parent = parent;
+            this.name = name;
+            this.startNanos = trace == null ? 0 : System.nanoTime();
+        }
+
+        private void addChild(Span child) {
+            if (children == null) {
+                children = new ArrayList<>(4);
+            }
+            children.add(child);
+        }
+
+        @Override
+        public void close() {
+            if (trace != null) {
+                trace.close(this);
+            }
+        }
+    }
+}
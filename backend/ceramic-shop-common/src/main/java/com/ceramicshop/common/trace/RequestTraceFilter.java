@@ -0,0 +1,59 @@
+package com.ceramicshop.common.trace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求追踪过滤器
+ * 按采样率为请求开启 {@link RequestTrace}，根区间覆盖认证、参数解析、业务处理和响应写出；
+ * 耗时超过阈值的请求以 WARN 输出区间树，其余被采样的请求在 DEBUG 级别输出。
+ * 未被采样的请求只多生成一个随机数。
+ */
+@Slf4j
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public RequestTraceFilter(double sampleRate, Duration slowThreshold) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("请求追踪采样率必须在0到1之间");
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate == 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestTrace trace = RequestTrace.begin(request.getMethod() + " " + request.getRequestURI());
+        if (trace == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedNanos = trace.end();
+            if (elapsedNanos >= slowThresholdNanos) {
+                log.warn("慢请求 {} {} 耗时{}ms，状态{}，耗时分布:\n{}", request.getMethod(), request.getRequestURI(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), response.getStatus(), trace.render());
+            } else if (log.isDebugEnabled()) {
+                log.debug("请求耗时分布:\n{}", trace.render());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ceramicshop.common.trace;
+
+import org.apache.ibatis.plugin.Interceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 请求追踪自动配置
+ * 配置 ceramic.trace.enabled=true 的服务注册追踪过滤器和 MyBatis 语句计时插件；未开启时业务代码中的区间都是空操作。
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "ceramic.trace", name = "enabled", havingValue = "true")
+public class TraceAutoConfiguration {
+
+    /** 追踪过滤器顺序，早于认证过滤器，使根区间包含认证耗时 */
+    public static final int FILTER_ORDER = -120;
+
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> requestTraceFilter(
+            @Value("${ceramic.trace.sample-rate:0.01}") double sampleRate,
+            @Value("${ceramic.trace.slow-threshold:500ms}") Duration slowThreshold) {
+        FilterRegistrationBean<RequestTraceFilter> registration =
+                new FilterRegistrationBean<>(new RequestTraceFilter(sampleRate, slowThreshold));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnClass(Interceptor.class)
+    public SqlTimingInterceptor sqlTimingInterceptor() {
+        return new SqlTimingInterceptor();
+    }
+}
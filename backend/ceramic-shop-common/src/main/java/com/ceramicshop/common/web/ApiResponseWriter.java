@@ -0,0 +1,118 @@
+package com.ceramicshop.common.web;
+
+import com.ceramicshop.common.dto.ResultCode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ApiResponse 信封的流式写出
+ * 直接用 JsonGenerator 写出 {code, message, data}，不经过中间对象；
+ * 每个 ResultCode 带默认消息且无数据的响应体在启动时编码好，错误路径直接复用同一份字节。
+ */
+public class ApiResponseWriter {
+
+    private final JsonFactory jsonFactory;
+    private final Map<ResultCode, byte[]> defaultBodies;
+
+    public ApiResponseWriter(ObjectMapper objectMapper) {
+        // 使用带 codec 的工厂，data 中的任意对象都按应用的 Jackson 配置序列化
+        this.jsonFactory = objectMapper.getFactory();
+        Map<ResultCode, byte[]> bodies = new EnumMap<>(ResultCode.class);
+        for (ResultCode resultCode : ResultCode.values()) {
+            bodies.put(resultCode, encode(resultCode.getCode(), resultCode.getMessage(), null));
+        }
+        this.defaultBodies = Collections.unmodifiableMap(bodies);
+    }
+
+    /**
+     * 写出 data 字段的内容
+     */
+    @FunctionalInterface
+    public interface DataWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * 使用默认消息、不带数据的响应体，返回共享的预编码字节，调用方不能修改
+     */
+    public byte[] body(ResultCode resultCode) {
+        return defaultBodies.get(resultCode);
+    }
+
+    /**
+     * 不带数据的响应体，消息与默认消息相同时复用预编码字节
+     */
+    public byte[] body(ResultCode resultCode, String message) {
+        if (message == null || message.equals(resultCode.getMessage())) {
+            return body(resultCode);
+        }
+        return encode(resultCode.getCode(), message, null);
+    }
+
+    /**
+     * 带数据的响应体
+     */
+    public byte[] body(int code, String message, DataWriter data) {
+        return encode(code, message, data);
+    }
+
+    /**
+     * 包装成JSON响应
+     */
+    public ResponseEntity<byte[]> toResponse(HttpStatus status, byte[] body) {
+        return toResponse(status, null, body);
+    }
+
+    /**
+     * 包装成JSON响应，并带上额外的响应头
+     */
+    public ResponseEntity<byte[]> toResponse(HttpStatus status, HttpHeaders headers, byte[] body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON);
+        if (headers != null) {
+            builder.headers(headers);
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * 在过滤器或安全组件中直接写出响应
+     */
+    public void write(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private byte[] encode(int code, String message, DataWriter data) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(256)) {
+            try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+                generator.writeStartObject();
+                generator.writeNumberField("code", code);
+                generator.writeStringField("message", message);
+                generator.writeFieldName("data");
+                if (data == null) {
+                    generator.writeNull();
+                } else {
+                    data.write(generator);
+                }
+                generator.writeEndObject();
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("响应序列化失败", e);
+        }
+    }
+}
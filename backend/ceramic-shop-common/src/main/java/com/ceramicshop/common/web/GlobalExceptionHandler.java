@@ -0,0 +1,171 @@
+package com.ceramicshop.common.web;
+
+import com.ceramicshop.common.dto.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.ServletRequestBindingException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 全局异常处理器
+ * 各服务共用，统一返回 ApiResponse 格式的响应体；优先级最低，服务自己的处理器可以覆盖个别异常。
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class GlobalExceptionHandler {
+
+    private final ApiResponseWriter writer;
+
+    public GlobalExceptionHandler(ApiResponseWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 处理请求参数校验异常，data 为字段到错误信息的映射
+     */
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<byte[]> handleBindException(BindException ex) {
+        byte[] body = writer.body(ResultCode.PARAM_ERROR.getCode(), "参数校验失败", generator -> {
+            Set<String> written = new HashSet<>();
+            generator.writeStartObject();
+            for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+                if (written.add(error.getField())) {
+                    generator.writeStringField(error.getField(), error.getDefaultMessage());
+                }
+            }
+            generator.writeEndObject();
+        });
+        return writer.toResponse(HttpStatus.BAD_REQUEST, body);
+    }
+
+    /**
+     * 处理约束违反异常，data 为参数路径到错误信息的映射
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<byte[]> handleConstraintViolation(ConstraintViolationException ex) {
+        byte[] body = writer.body(ResultCode.PARAM_ERROR.getCode(), "参数约束违反", generator -> {
+            Set<String> written = new HashSet<>();
+            generator.writeStartObject();
+            for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+                String path = violation.getPropertyPath().toString();
+                if (written.add(path)) {
+                    generator.writeStringField(path, violation.getMessage());
+                }
+            }
+            generator.writeEndObject();
+        });
+        return writer.toResponse(HttpStatus.BAD_REQUEST, body);
+    }
+
+    /**
+     * 处理参数类型不匹配异常
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        String message = String.format("参数'%s'的类型应该是%s", ex.getName(),
+                ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : "未知类型");
+        return writer.toResponse(HttpStatus.BAD_REQUEST, writer.body(ResultCode.PARAM_ERROR, message));
+    }
+
+    /**
+     * 处理缺少请求参数异常
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<byte[]> handleMissingParameter(MissingServletRequestParameterException ex) {
+        return writer.toResponse(HttpStatus.BAD_REQUEST,
+                writer.body(ResultCode.PARAM_ERROR, "缺少参数'" + ex.getParameterName() + "'"));
+    }
+
+    /**
+     * 处理请求体无法解析、缺少请求头等请求格式异常
+     */
+    @ExceptionHandler({HttpMessageNotReadableException.class, ServletRequestBindingException.class})
+    public ResponseEntity<byte[]> handleBadRequest(Exception ex) {
+        return writer.toResponse(HttpStatus.BAD_REQUEST, writer.body(ResultCode.PARAM_ERROR));
+    }
+
+    /**
+     * 处理请求方法不支持异常
+     */
+    @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
+    public ResponseEntity<byte[]> handleMethodNotSupported(HttpRequestMethodNotSupportedException ex) {
+        return writer.toResponse(HttpStatus.METHOD_NOT_ALLOWED, writer.body(ResultCode.METHOD_NOT_ALLOWED));
+    }
+
+    /**
+     * 处理请求格式不支持异常
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<byte[]> handleMediaTypeNotSupported(HttpMediaTypeNotSupportedException ex) {
+        return writer.toResponse(HttpStatus.UNSUPPORTED_MEDIA_TYPE, writer.body(ResultCode.UNSUPPORTED_MEDIA_TYPE));
+    }
+
+    /**
+     * 处理响应状态异常，如未登录、资源不存在；没有原因说明时使用预编码的默认响应体
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<byte[]> handleResponseStatusException(ResponseStatusException ex) {
+        HttpStatus status = ex.getStatus();
+        ResultCode resultCode = ResultCode.of(status.value());
+        byte[] body = resultCode != null
+                ? writer.body(resultCode, ex.getReason())
+                : writer.body(status.value(), ex.getReason() != null ? ex.getReason() : status.getReasonPhrase(), null);
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(ex.getResponseHeaders());
+        return writer.toResponse(status, headers, body);
+    }
+
+    /**
+     * 处理并发修改冲突，客户端可以刷新后重试
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<byte[]> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        log.warn("并发修改冲突: {}", ex.getMessage());
+        return writer.toResponse(HttpStatus.CONFLICT, writer.body(ResultCode.CONFLICT));
+    }
+
+    /**
+     * 处理业务逻辑异常
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<byte[]> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return writer.toResponse(HttpStatus.BAD_REQUEST, writer.body(ResultCode.PARAM_ERROR, ex.getMessage()));
+    }
+
+    /**
+     * 处理业务状态异常
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<byte[]> handleIllegalStateException(IllegalStateException ex) {
+        return writer.toResponse(HttpStatus.BAD_REQUEST, writer.body(ResultCode.PARAM_ERROR, ex.getMessage()));
+    }
+
+    /**
+     * 处理所有其他未捕获的异常
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleAllUncaughtException(Exception ex) {
+        log.error("未处理的异常", ex);
+        return writer.toResponse(HttpStatus.INTERNAL_SERVER_ERROR, writer.body(ResultCode.SYSTEM_ERROR));
+    }
+}
@@ -0,0 +1,31 @@
+package com.ceramicshop.common.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 统一响应自动配置
+ * 注册共用的响应写出器和全局异常处理器。
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AutoConfigureAfter(JacksonAutoConfiguration.class)
+public class WebResponseAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ApiResponseWriter apiResponseWriter(ObjectMapper objectMapper) {
+        return new ApiResponseWriter(objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GlobalExceptionHandler globalExceptionHandler(ApiResponseWriter apiResponseWriter) {
+        return new GlobalExceptionHandler(apiResponseWriter);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ceramicshop.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 认证自动配置启动校验测试
+ */
+class AuthenticationAutoConfigurationTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(AuthenticationAutoConfiguration.class))
+            .withPropertyValues("ceramic.jwt.active-key-id=k1");
+
+    @Test
+    void failsWhenKeysAreEmpty() {
+        runner.withPropertyValues("ceramic.jwt.keys=")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().hasRootCauseInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void failsWhenKeyIsShorterThan32Bytes() {
+        runner.withPropertyValues("ceramic.jwt.keys=k1=" + SECRET.substring(1))
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().hasRootCauseInstanceOf(IllegalArgumentException.class));
+    }
+
+    @Test
+    void createsCodecWhenKeyIsConfigured() {
+        runner.withPropertyValues("ceramic.jwt.keys=k1=" + SECRET)
+                .run(context -> assertThat(context).hasSingleBean(JwtCodec.class));
+    }
+
+    @Test
+    void staysOffWhenKeysAreNotDeclared() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(JwtCodec.class));
+    }
+}
@@ -0,0 +1,66 @@
+package com.ceramicshop.common.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌验证微基准：每次验证签名与过滤器按签名段命中缓存对比，另附签发耗时
+ * test-compile 后以测试类路径运行 main 方法，不随单元测试执行。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtCodec jwtCodec;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtCodec = new JwtCodec(Collections.singletonMap("k1", "benchmark-secret-0123456789-abcdefghij"), "k1");
+        filter = new JwtAuthenticationFilter(jwtCodec, 10_000);
+        token = jwtCodec.issue(42L, Duration.ofHours(2));
+        filter.authenticate(token);
+    }
+
+    @Benchmark
+    public JwtClaims verify() {
+        return jwtCodec.verify(token);
+    }
+
+    /**
+     * 过滤器的实际路径，令牌已在缓存中
+     */
+    @Benchmark
+    public CurrentUser authenticateCached() {
+        return filter.authenticate(token);
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtCodec.issue(42L, Duration.ofHours(2));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,8 +1,10 @@
 package com.ceramicshop.order.application;
 
+import com.ceramicshop.common.trace.RequestTrace;
 import com.ceramicshop.order.application.dto.AddressDTO;
 import com.ceramicshop.order.application.dto.OrderDTO;
 import com.ceramicshop.order.application.dto.OrderItemDTO;
+import com.ceramicshop.order.application.dto.OrderPageDTO;
 import com.ceramicshop.order.domain.model.Order;
 import com.ceramicshop.order.domain.model.OrderItem;
 import com.ceramicshop.order.domain.model.OrderStatus;
@@ -10,12 +12,16 @@ import com.ceramicshop.order.domain.model.ShippingAddress;
 import com.ceramicshop.order.domain.repository.OrderRepository;
 import com.ceramicshop.order.domain.service.OrderDomainService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -27,25 +33,41 @@ public class OrderApplicationService {
     private final OrderRepository orderRepository;
     private final OrderDomainService orderDomainService;
     private final ShippingAddressService shippingAddressService;
+    private final UserAddressClient userAddressClient;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxUpdateAttempts;
     
     @Autowired
     public OrderApplicationService(OrderRepository orderRepository, 
                                   OrderDomainService orderDomainService,
-                                  ShippingAddressService shippingAddressService) {
+                                  ShippingAddressService shippingAddressService,
+                                  UserAddressClient userAddressClient,
+                                  @Value("${ceramic.order.page.default-size:20}") int defaultPageSize,
+                                  @Value("${ceramic.order.page.max-size:100}") int maxPageSize,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${ceramic.order.concurrency.max-attempts:3}") int maxUpdateAttempts) {
         this.orderRepository = orderRepository;
         this.orderDomainService = orderDomainService;
         this.shippingAddressService = shippingAddressService;
+        this.userAddressClient = userAddressClient;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.transactionTemplate = transactionTemplate;
+        this.maxUpdateAttempts = Math.max(1, maxUpdateAttempts);
     }
     
     /**
      * 创建订单
+     * 地址解析在事务之外完成，只有订单落库（OrderRepository.save）才占用数据库事务；
+     * 各步骤记录为请求追踪区间，在慢请求日志中可以看到耗时分布
      * 
      * @param userId 用户ID
      * @param addressId 地址ID
      * @param orderItems 订单项列表
      * @return 订单DTO
      */
-    @Transactional
     public OrderDTO createOrder(Long userId, Long addressId, List<OrderItemDTO> orderItems) {
         // 验证参数
         if (userId == null) {
@@ -61,61 +83,43 @@ public class OrderApplicationService {
             throw new IllegalArgumentException("订单项不能为空");
         }
         
-        // 转换订单项
-        List<OrderItem> domainOrderItems = orderItems.stream()
-                .map(dto -> OrderItem.create(
-                        dto.getProductId(),
-                        dto.getProductName(),
-                        dto.getProductImage(),
-                        dto.getProductSpecs(),
-                        dto.getPrice() != null ? dto.getPrice() : dto.getUnitPrice(),
-                        dto.getQuantity()
-                ))
-                .collect(Collectors.toList());
-        
         // 获取用户地址并转换为ShippingAddress值对象
-        // 在实际项目中，这里应该调用用户服务获取地址信息
-        ShippingAddress shippingAddress = fetchShippingAddressFromAddressId(userId, addressId);
-        
-        // 创建订单
-        Order order = orderDomainService.createOrder(userId, shippingAddress, null, domainOrderItems);
+        ShippingAddress shippingAddress;
+        try (RequestTrace.Span ignored = RequestTrace.span("UserAddressClient.findShippingAddress")) {
+            shippingAddress = userAddressClient.findShippingAddress(userId, addressId)
+                    .orElseThrow(() -> new IllegalArgumentException("收货地址不存在"));
+        }
         
-        // 处理新订单业务逻辑
-        orderDomainService.processNewOrder(order);
+        Order order;
+        try (RequestTrace.Span ignored = RequestTrace.span("Order.create")) {
+            // 转换订单项
+            List<OrderItem> domainOrderItems = orderItems.stream()
+                    .map(dto -> OrderItem.create(
+                            dto.getProductId(),
+                            dto.getProductName(),
+                            dto.getProductImage(),
+                            dto.getProductSpecs(),
+                            dto.getPrice() != null ? dto.getPrice() : dto.getUnitPrice(),
+                            dto.getQuantity()
+                    ))
+                    .collect(Collectors.toList());
+            
+            // 创建订单
+            order = orderDomainService.createOrder(userId, shippingAddress, null, domainOrderItems);
+            
+            // 处理新订单业务逻辑
+            orderDomainService.processNewOrder(order);
+        }
         
-        // 保存订单
-        Order savedOrder = orderRepository.save(order);
+        // 保存订单，区间包含事务提交
+        Order savedOrder;
+        try (RequestTrace.Span ignored = RequestTrace.span("OrderRepository.save")) {
+            savedOrder = orderRepository.save(order);
+        }
         
         // 转换为DTO返回
-        return convertToDTO(savedOrder);
-    }
-    
-    /**
-     * 从用户服务获取收货地址信息
-     * 实际项目中，这里应该调用用户服务的API获取真实的地址信息
-     */
-    private ShippingAddress fetchShippingAddressFromAddressId(Long userId, Long addressId) {
-        // 在实际项目中，这里应该调用用户服务获取地址信息
-        // 这里模拟调用用户服务获取地址信息的过程
-        
-        try {
-            // 模拟API调用延迟
-            Thread.sleep(50);
-            
-            // 模拟从用户服务获取的地址信息
-            return ShippingAddress.builder()
-                    .receiverName("测试用户")
-                    .receiverPhone("13800138000")
-                    .province("广东省")
-                    .city("深圳市")
-                    .district("南山区")
-                    .detailAddress("科技园路1号")
-                    .createTime(LocalDateTime.now())
-                    .updateTime(LocalDateTime.now())
-                    .build();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("获取地址信息失败", e);
+        try (RequestTrace.Span ignored = RequestTrace.span("convertToDTO")) {
+            return convertToDTO(savedOrder);
         }
     }
     
@@ -164,6 +168,48 @@ public class OrderApplicationService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * 游标分页获取用户订单
+     * 
+     * @param userId 用户ID
+     * @param status 订单状态，为空时查询全部状态
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页条数，为空时使用默认值，超过上限时按上限处理
+     * @return 订单分页DTO
+     */
+    public OrderPageDTO getUserOrderPage(Long userId, OrderStatus status, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        
+        LocalDateTime afterCreateTime = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            OrderPageCursor pageCursor = OrderPageCursor.decode(cursor);
+            afterCreateTime = pageCursor.getCreateTime();
+            afterId = pageCursor.getId();
+        }
+        
+        // 多取一条用于判断是否还有下一页
+        List<Order> orders = orderRepository.findPageByUserId(userId, status, afterCreateTime, afterId, pageSize + 1);
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new OrderPageCursor(last.getCreateTime(), last.getId()).encode();
+        }
+        
+        return OrderPageDTO.builder()
+                .orders(orders.stream()
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
     /**
      * 支付订单
      * 
@@ -171,18 +217,8 @@ public class OrderApplicationService {
      * @param userId 用户ID (用于校验权限)
      * @return 订单DTO
      */
-    @Transactional
     public OrderDTO payOrder(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("订单不存在"));
-        
-        if (!order.getUserId().equals(userId)) {
-            throw new IllegalArgumentException("无权操作该订单");
-        }
-        
-        order.pay();
-        Order updatedOrder = orderRepository.update(order);
-        return convertToDTO(updatedOrder);
+        return changeOrder(orderId, userId, Order::pay);
     }
     
     /**
@@ -192,18 +228,26 @@ public class OrderApplicationService {
      * @param userId 用户ID (用于校验权限)
      * @return 订单DTO
      */
-    @Transactional
     public OrderDTO cancelOrder(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("订单不存在"));
-        
-        if (!order.getUserId().equals(userId)) {
-            throw new IllegalArgumentException("无权操作该订单");
+        return changeOrder(orderId, userId, Order::cancel);
+    }
+    
+    /**
+     * 关闭超时未支付的订单
+     * 加锁读取仍待支付且创建时间早于截止时间的订单，逐个执行取消后用一条更新语句保存
+     * 
+     * @param orderIds 候选订单ID，已支付或已取消的会被跳过
+     * @param createdBefore 创建时间截止
+     * @return 实际关闭的订单
+     */
+    @Transactional
+    public List<Order> closeUnpaidOrders(List<Long> orderIds, LocalDateTime createdBefore) {
+        List<Order> orders = orderRepository.lockByIdsAndStatus(orderIds, OrderStatus.PENDING_PAYMENT, createdBefore);
+        for (Order order : orders) {
+            order.cancel();
         }
-        
-        order.cancel();
-        Order updatedOrder = orderRepository.update(order);
-        return convertToDTO(updatedOrder);
+        orderRepository.closeAll(orders, OrderStatus.PENDING_PAYMENT);
+        return orders;
     }
     
     /**
@@ -212,14 +256,8 @@ public class OrderApplicationService {
      * @param orderId 订单ID
      * @return 订单DTO
      */
-    @Transactional
     public OrderDTO shipOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("订单不存在"));
-        
-        order.ship();
-        Order updatedOrder = orderRepository.update(order);
-        return convertToDTO(updatedOrder);
+        return changeOrder(orderId, null, Order::ship);
     }
     
     /**
@@ -229,18 +267,37 @@ public class OrderApplicationService {
      * @param userId 用户ID (用于校验权限)
      * @return 订单DTO
      */
-    @Transactional
     public OrderDTO completeOrder(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("订单不存在"));
-        
-        if (!order.getUserId().equals(userId)) {
-            throw new IllegalArgumentException("无权操作该订单");
+        return changeOrder(orderId, userId, Order::complete);
+    }
+    
+    /**
+     * 读取订单、执行状态变更并按版本号条件保存
+     * 保存时发现订单已被并发修改则整个事务回滚，重新读取后再试；重新读取后状态已不允许该操作时，
+     * 由领域模型抛出状态错误。重试次数用完仍冲突时抛出 OptimisticLockingFailureException，返回409。
+     * 
+     * @param userId 用户ID (用于校验权限)，为空时不校验
+     */
+    private OrderDTO changeOrder(Long orderId, Long userId, Consumer<Order> change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Order order = orderRepository.findById(orderId)
+                            .orElseThrow(() -> new IllegalArgumentException("订单不存在"));
+                    
+                    if (userId != null && !order.getUserId().equals(userId)) {
+                        throw new IllegalArgumentException("无权操作该订单");
+                    }
+                    
+                    change.accept(order);
+                    return convertToDTO(orderRepository.update(order));
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxUpdateAttempts) {
+                    throw e;
+                }
+            }
         }
-        
-        order.complete();
-        Order updatedOrder = orderRepository.update(order);
-        return convertToDTO(updatedOrder);
     }
     
     /**
@@ -0,0 +1,59 @@
+package com.ceramicshop.order.application;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 订单分页游标
+ * 以上一页最后一条订单的(创建时间, ID)作为续查位置，对外编码为不透明的URL安全字符串
+ */
+final class OrderPageCursor {
+    
+    private static final char SEPARATOR = '|';
+    
+    private final LocalDateTime createTime;
+    private final Long id;
+    
+    OrderPageCursor(LocalDateTime createTime, Long id) {
+        this.createTime = createTime;
+        this.id = id;
+    }
+    
+    LocalDateTime getCreateTime() {
+        return createTime;
+    }
+    
+    Long getId() {
+        return id;
+    }
+    
+    /**
+     * 编码为不透明的游标字符串
+     */
+    String encode() {
+        String raw = createTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解析游标字符串
+     * 
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    static OrderPageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new OrderPageCursor(
+                    LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ceramicshop.order.application;
+
+import com.ceramicshop.order.domain.model.ShippingAddress;
+
+import java.util.Optional;
+
+/**
+ * 用户收货地址查询客户端
+ * 下单时根据用户的地址ID解析出物流地址值对象
+ */
+public interface UserAddressClient {
+    
+    /**
+     * 查询用户的收货地址
+     * 
+     * @param userId 用户ID
+     * @param addressId 用户收货地址ID
+     * @return 物流地址值对象，地址不存在或不属于该用户时返回空
+     */
+    Optional<ShippingAddress> findShippingAddress(Long userId, Long addressId);
+}
@@ -0,0 +1,33 @@
+package com.ceramicshop.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 订单分页数据传输对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDTO {
+    
+    /**
+     * 当前页订单
+     */
+    private List<OrderDTO> orders;
+    
+    /**
+     * 下一页游标，没有更多数据时为空
+     */
+    private String nextCursor;
+    
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,56 @@
+package com.ceramicshop.order.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单领域事件
+ * 与订单状态变更在同一事务内写入发件箱，提交后由中继线程按写入顺序投递给订阅者。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDomainEvent {
+
+    /**
+     * 事件ID，即发件箱记录ID；同一订单的事件ID递增
+     */
+    private Long eventId;
+
+    private OrderEventType type;
+
+    private Long orderId;
+
+    private String orderNumber;
+
+    private Long userId;
+
+    /**
+     * 事件发生后的订单状态
+     */
+    private String status;
+
+    private BigDecimal paymentAmount;
+
+    private LocalDateTime occurredAt;
+
+    /**
+     * 订单商品及数量，创建和取消事件携带，供库存等订阅者使用
+     */
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ceramicshop.order.domain.event;
+
+/**
+ * 订单事件订阅者
+ * 投递至少一次：处理失败或进程在标记完成前退出时会重新投递，实现需要按 eventId 幂等。
+ * 同一订单的事件按发生顺序投递，前一个事件处理失败时不会投递其后续事件。
+ */
+public interface OrderEventSubscriber {
+
+    /**
+     * 是否关心该类型的事件
+     */
+    default boolean supports(OrderEventType type) {
+        return true;
+    }
+
+    /**
+     * 处理事件，抛出异常表示处理失败，稍后重试
+     */
+    void onEvent(OrderDomainEvent event);
+}
@@ -0,0 +1,17 @@
+package com.ceramicshop.order.domain.event;
+
+/**
+ * 订单领域事件类型
+ */
+public enum OrderEventType {
+    /** 已创建 */
+    ORDER_CREATED,
+    /** 已支付 */
+    ORDER_PAID,
+    /** 已发货 */
+    ORDER_SHIPPED,
+    /** 已完成 */
+    ORDER_COMPLETED,
+    /** 已取消 */
+    ORDER_CANCELLED
+}
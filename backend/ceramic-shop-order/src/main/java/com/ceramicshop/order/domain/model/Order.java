@@ -1,5 +1,6 @@
 package com.ceramicshop.order.domain.model;
 
+import com.ceramicshop.order.domain.event.OrderEventType;
 import lombok.AccessLevel;
 import lombok.Getter;
 
@@ -7,7 +8,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * 订单领域模型
@@ -34,6 +34,16 @@ public class Order {
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
     
+    /**
+     * 乐观锁版本号，每次更新加一
+     */
+    private Integer version;
+    
+    /**
+     * 最近一次保存或加载时的状态，更新时与版本号一起作为条件
+     */
+    private OrderStatus persistedStatus;
+    
     // 移除简单的收货人信息，改用值对象
     // private Long addressId;
     // private String recipientName;
@@ -46,19 +56,32 @@ public class Order {
     private List<OrderItem> orderItems;
     
     /**
-     * 包级私有构造方法，用于反射和工厂方法
+     * 尚未写入发件箱的状态变更事件
+     */
+    @Getter(AccessLevel.NONE)
+    private final List<OrderEventType> pendingEvents = new ArrayList<>();
+    
+    /**
+     * 包级私有构造方法，用于工厂方法
      */
     Order() {
         this.orderItems = new ArrayList<>();
         this.status = OrderStatus.PENDING_PAYMENT;
         this.createTime = LocalDateTime.now();
         this.updateTime = this.createTime;
+        this.version = 0;
     }
     
     /**
      * 创建新订单
+     * 
+     * @param orderNumber 由 OrderNumberGenerator 生成的订单编号
      */
-    public static Order create(Long userId, ShippingAddress shippingAddress, String remark, List<OrderItem> orderItems) {
+    public static Order create(String orderNumber, Long userId, ShippingAddress shippingAddress, String remark, List<OrderItem> orderItems) {
+        if (orderNumber == null || orderNumber.isEmpty()) {
+            throw new IllegalArgumentException("订单编号不能为空");
+        }
+        
         if (userId == null) {
             throw new IllegalArgumentException("用户ID不能为空");
         }
@@ -75,7 +98,7 @@ public class Order {
         order.userId = userId;
         order.shippingAddress = shippingAddress;
         order.remark = remark;
-        order.orderNumber = generateOrderNumber();
+        order.orderNumber = orderNumber;
         order.totalAmount = calculateTotalAmount(orderItems);
         order.paymentAmount = order.totalAmount;
         order.shippingFee = BigDecimal.ZERO;
@@ -91,6 +114,61 @@ public class Order {
             order.orderItems.add(item);
         });
         
+        order.pendingEvents.add(OrderEventType.ORDER_CREATED);
+        return order;
+    }
+    
+    /**
+     * 重建订单聚合（用于从持久化数据恢复）
+     */
+    public static Order rebuild(
+            Long id,
+            String orderNumber,
+            Long userId,
+            OrderStatus status,
+            BigDecimal totalAmount,
+            BigDecimal paymentAmount,
+            BigDecimal shippingFee,
+            BigDecimal discountAmount,
+            LocalDateTime payTime,
+            LocalDateTime shipTime,
+            LocalDateTime deliveryTime,
+            LocalDateTime completeTime,
+            LocalDateTime closeTime,
+            String shippingMethod,
+            String paymentMethod,
+            String remark,
+            LocalDateTime createTime,
+            LocalDateTime updateTime,
+            Integer version,
+            ShippingAddress shippingAddress,
+            List<OrderItem> orderItems
+    ) {
+        Order order = new Order();
+        order.id = id;
+        order.orderNumber = orderNumber;
+        order.userId = userId;
+        order.status = status;
+        order.totalAmount = totalAmount;
+        order.paymentAmount = paymentAmount;
+        order.shippingFee = shippingFee;
+        order.discountAmount = discountAmount;
+        order.payTime = payTime;
+        order.shipTime = shipTime;
+        order.deliveryTime = deliveryTime;
+        order.completeTime = completeTime;
+        order.closeTime = closeTime;
+        order.shippingMethod = shippingMethod;
+        order.paymentMethod = paymentMethod;
+        order.remark = remark;
+        order.createTime = createTime;
+        order.updateTime = updateTime;
+        order.version = version;
+        order.persistedStatus = status;
+        order.shippingAddress = shippingAddress;
+        if (orderItems != null) {
+            order.orderItems = orderItems;
+        }
         return order;
     }
     
@@ -105,6 +183,7 @@ public class Order {
         this.status = OrderStatus.PAID;
         this.payTime = LocalDateTime.now();
         this.updateTime = LocalDateTime.now();
+        this.pendingEvents.add(OrderEventType.ORDER_PAID);
     }
     
     /**
@@ -118,6 +197,7 @@ public class Order {
         this.status = OrderStatus.SHIPPED;
         this.shipTime = LocalDateTime.now();
         this.updateTime = LocalDateTime.now();
+        this.pendingEvents.add(OrderEventType.ORDER_SHIPPED);
     }
     
     /**
@@ -131,6 +211,7 @@ public class Order {
         this.status = OrderStatus.COMPLETED;
         this.completeTime = LocalDateTime.now();
         this.updateTime = LocalDateTime.now();
+        this.pendingEvents.add(OrderEventType.ORDER_COMPLETED);
     }
     
     /**
@@ -144,6 +225,24 @@ public class Order {
         this.status = OrderStatus.CANCELLED;
         this.closeTime = LocalDateTime.now();
         this.updateTime = LocalDateTime.now();
+        this.pendingEvents.add(OrderEventType.ORDER_CANCELLED);
+    }
+    
+    /**
+     * 取出并清空尚未写入发件箱的事件，由仓储在保存订单的同一事务内调用
+     */
+    public List<OrderEventType> pullPendingEvents() {
+        List<OrderEventType> events = new ArrayList<>(pendingEvents);
+        pendingEvents.clear();
+        return events;
+    }
+    
+    /**
+     * 保存成功后由仓储调用，记录新的版本号和已保存的状态
+     */
+    public void markPersisted(int version) {
+        this.version = version;
+        this.persistedStatus = this.status;
     }
     
     /**
@@ -171,14 +270,6 @@ public class Order {
         this.paymentMethod = paymentMethod;
     }
     
-    /**
-     * 生成订单编号
-     */
-    private static String generateOrderNumber() {
-        return "ORD" + System.currentTimeMillis() + 
-                UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-    }
-    
     /**
      * 计算订单总金额
      */
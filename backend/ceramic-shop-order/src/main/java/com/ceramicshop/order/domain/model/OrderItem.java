@@ -24,7 +24,7 @@ public class OrderItem {
     private LocalDateTime updateTime;
     
     /**
-     * 包级私有构造方法，用于反射和工厂方法
+     * 包级私有构造方法，用于工厂方法
      */
     OrderItem() {
         this.createTime = LocalDateTime.now();
@@ -66,6 +66,37 @@ public class OrderItem {
         return orderItem;
     }
     
+    /**
+     * 重建订单项（用于从持久化数据恢复）
+     */
+    public static OrderItem rebuild(
+            Long id,
+            Long orderId,
+            Long productId,
+            String productName,
+            String productImage,
+            String productSpecs,
+            BigDecimal price,
+            Integer quantity,
+            BigDecimal subtotal,
+            LocalDateTime createTime,
+            LocalDateTime updateTime
+    ) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.id = id;
+        orderItem.orderId = orderId;
+        orderItem.productId = productId;
+        orderItem.productName = productName;
+        orderItem.productImage = productImage;
+        orderItem.productSpecs = productSpecs;
+        orderItem.price = price;
+        orderItem.quantity = quantity;
+        orderItem.subtotal = subtotal;
+        orderItem.createTime = createTime;
+        orderItem.updateTime = updateTime;
+        return orderItem;
+    }
+    
     /**
      * 设置订单项ID
      */
@@ -3,8 +3,10 @@ package com.ceramicshop.order.domain.repository;
 import com.ceramicshop.order.domain.model.Order;
 import com.ceramicshop.order.domain.model.OrderStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 /**
  * 订单仓储接口
@@ -36,6 +38,38 @@ public interface OrderRepository {
      */
     List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
     
+    /**
+     * 按(创建时间, ID)游标分页查询用户订单，结果按创建时间、ID倒序
+     * 
+     * @param status 订单状态，为空时查询全部状态
+     * @param afterCreateTime 上一页最后一条的创建时间，为空时查询第一页
+     * @param afterId 上一页最后一条的订单ID
+     * @param limit 返回条数
+     */
+    List<Order> findPageByUserId(Long userId, OrderStatus status, LocalDateTime afterCreateTime, Long afterId, int limit);
+    
+    /**
+     * 按创建时间顺序分批扫描指定状态的订单ID
+     * 
+     * @param createdBefore 只扫描在此之前创建的订单，为空时不限
+     * @param consumer 依次接收订单ID和创建时间
+     */
+    void scanIdsByStatus(OrderStatus status, LocalDateTime createdBefore, int batchSize,
+                         BiConsumer<Long, LocalDateTime> consumer);
+    
+    /**
+     * 查询并锁定仍处于指定状态、在给定时间之前创建的订单，需在事务内调用
+     */
+    List<Order> lockByIdsAndStatus(List<Long> ids, OrderStatus status, LocalDateTime createdBefore);
+    
+    /**
+     * 用一条更新语句保存一批已在内存中关闭的订单
+     * 
+     * @param orders 已调用 cancel 的订单
+     * @param fromStatus 关闭前的状态
+     */
+    void closeAll(List<Order> orders, OrderStatus fromStatus);
+    
     /**
      * 更新订单
      */
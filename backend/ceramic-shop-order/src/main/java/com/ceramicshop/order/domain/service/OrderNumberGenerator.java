@@ -0,0 +1,12 @@
+package com.ceramicshop.order.domain.service;
+
+/**
+ * 订单编号生成器
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * 生成新的订单编号，全局唯一，同一节点上单调递增
+     */
+    String nextOrderNumber();
+}
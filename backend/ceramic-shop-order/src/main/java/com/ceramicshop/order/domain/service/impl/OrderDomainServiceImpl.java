@@ -4,6 +4,7 @@ import com.ceramicshop.order.domain.model.Order;
 import com.ceramicshop.order.domain.model.OrderItem;
 import com.ceramicshop.order.domain.model.ShippingAddress;
 import com.ceramicshop.order.domain.service.OrderDomainService;
+import com.ceramicshop.order.domain.service.OrderNumberGenerator;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,9 +15,15 @@ import java.util.List;
 @Service
 public class OrderDomainServiceImpl implements OrderDomainService {
     
+    private final OrderNumberGenerator orderNumberGenerator;
+    
+    public OrderDomainServiceImpl(OrderNumberGenerator orderNumberGenerator) {
+        this.orderNumberGenerator = orderNumberGenerator;
+    }
+    
     @Override
     public Order createOrder(Long userId, ShippingAddress shippingAddress, String remark, List<OrderItem> orderItems) {
-        return Order.create(userId, shippingAddress, remark, orderItems);
+        return Order.create(orderNumberGenerator.nextOrderNumber(), userId, shippingAddress, remark, orderItems);
     }
     
     @Override
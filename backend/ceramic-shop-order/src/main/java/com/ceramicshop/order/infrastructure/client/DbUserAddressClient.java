@@ -0,0 +1,49 @@
+package com.ceramicshop.order.infrastructure.client;
+
+import com.ceramicshop.order.application.UserAddressClient;
+import com.ceramicshop.order.domain.model.ShippingAddress;
+import com.ceramicshop.order.infrastructure.persistence.entity.UserAddressPO;
+import com.ceramicshop.order.infrastructure.persistence.mapper.UserAddressMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 基于用户地址表的收货地址查询客户端
+ * 每次下单按主键和用户ID查询一次，不做缓存，用户在用户服务中修改或删除的地址立即生效
+ */
+@Component
+@ConditionalOnProperty(name = "ceramic.order.address.client", havingValue = "db", matchIfMissing = true)
+public class DbUserAddressClient implements UserAddressClient {
+
+    private final UserAddressMapper userAddressMapper;
+
+    public DbUserAddressClient(UserAddressMapper userAddressMapper) {
+        this.userAddressMapper = userAddressMapper;
+    }
+
+    @Override
+    public Optional<ShippingAddress> findShippingAddress(Long userId, Long addressId) {
+        return Optional.ofNullable(userAddressMapper.selectByIdAndUserId(addressId, userId))
+                .map(this::toShippingAddress);
+    }
+
+    /**
+     * 将用户地址转换为物流地址值对象
+     */
+    private ShippingAddress toShippingAddress(UserAddressPO po) {
+        LocalDateTime now = LocalDateTime.now();
+        return ShippingAddress.builder()
+                .receiverName(po.getReceiverName())
+                .receiverPhone(po.getReceiverPhone())
+                .province(po.getProvince())
+                .city(po.getCity())
+                .district(po.getDistrict())
+                .detailAddress(po.getDetailAddress())
+                .createTime(now)
+                .updateTime(now)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ceramicshop.order.infrastructure.client;
+
+import com.ceramicshop.order.application.UserAddressClient;
+import com.ceramicshop.order.domain.model.ShippingAddress;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 收货地址查询客户端桩实现
+ * 不访问数据库，对任意地址ID返回固定的测试地址；通过 ceramic.order.address.client=stub 启用
+ */
+@Component
+@ConditionalOnProperty(name = "ceramic.order.address.client", havingValue = "stub")
+public class StubUserAddressClient implements UserAddressClient {
+
+    @Override
+    public Optional<ShippingAddress> findShippingAddress(Long userId, Long addressId) {
+        LocalDateTime now = LocalDateTime.now();
+        return Optional.of(ShippingAddress.builder()
+                .receiverName("测试用户")
+                .receiverPhone("13800138000")
+                .province("广东省")
+                .city("深圳市")
+                .district("南山区")
+                .detailAddress("科技园路1号")
+                .createTime(now)
+                .updateTime(now)
+                .build());
+    }
+}
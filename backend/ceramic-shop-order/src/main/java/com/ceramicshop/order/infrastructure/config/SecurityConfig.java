@@ -1,13 +1,18 @@
 package com.ceramicshop.order.infrastructure.config;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.ceramicshop.common.dto.ResultCode;
+import com.ceramicshop.common.security.CurrentUser;
+import com.ceramicshop.common.web.ApiResponseWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -16,29 +21,35 @@ import java.util.Arrays;
 
 /**
  * 订单模块安全配置
+ * 令牌由公共模块的认证过滤器在安全过滤器链之前验证，这里只检查请求中是否已有 CurrentUser。
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    @Autowired
-    private JwtAuthenticationFilter jwtAuthenticationFilter;
-
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ApiResponseWriter responseWriter,
+                                                   @Value("${server.port:8080}") int serverPort,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        // 管理端口只对内网开放，Prometheus 抓取不带令牌；与业务端口相同时不放行
+        RequestMatcher managementPortRequest = request ->
+                managementPort != serverPort && request.getLocalPort() == managementPort;
         http
             .cors().and()
             .csrf().disable()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             .and()
-            .authorizeRequests()
-                // 只有健康检查和Swagger接口可以公开访问
-                .antMatchers("/", "/health", "/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**").permitAll()
-                // 其他所有接口都需要认证
-                .anyRequest().authenticated()
+            .authorizeHttpRequests()
+                .requestMatchers(managementPortRequest).permitAll()
+                // 业务端口上只有健康检查和Swagger接口可以公开访问
+                .antMatchers("/", "/health", "/actuator/health", "/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**").permitAll()
+                // 其他所有接口都需要有效令牌
+                .anyRequest().access((authentication, context) ->
+                        new AuthorizationDecision(CurrentUser.from(context.getRequest()) != null))
             .and()
-            // 添加JWT过滤器，处理认证逻辑
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            // 未登录返回401而不是403，响应体使用预编码的统一格式
+            .exceptionHandling().authenticationEntryPoint((request, response, authException) ->
+                    responseWriter.write(response, HttpStatus.UNAUTHORIZED, responseWriter.body(ResultCode.UNAUTHORIZED)));
         
         return http.build();
     }
@@ -0,0 +1,91 @@
+package com.ceramicshop.order.infrastructure.id;
+
+import com.ceramicshop.order.domain.service.OrderNumberGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 雪花算法订单编号生成器
+ * 64位ID由 41位毫秒时间戳（自2024-01-01起）、10位节点ID、12位序列号组成，编号为 "ORD" 加19位补零的十进制ID，
+ * 定长保证字符串顺序与数值顺序一致。
+ * 时间戳和序列号合在一个 AtomicLong 里用CAS推进，无锁；同一毫秒序列号用完时进位到下一毫秒，
+ * 时钟回拨时沿用已发出的最大时间继续递增，回拨超过上限才拒绝生成，因此同一节点上始终单调递增。
+ * 不同实例必须配置不同的节点ID，没有默认值，未配置时启动失败；本地开发的 dev 配置固定为 0。
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    /** 2024-01-01T00:00:00Z */
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "ORD";
+    private static final int DIGITS = 19;
+
+    private final long nodeBits;
+    private final long maxBackwardMillis;
+    /** 最近一次发出的 时间戳 << SEQUENCE_BITS | 序列号 */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(@Value("${ceramic.order.number.node-id:#{null}}") Long nodeId,
+                                         @Value("${ceramic.order.number.max-clock-backward:5s}") Duration maxClockBackward) {
+        if (nodeId == null) {
+            throw new IllegalStateException("未配置订单编号节点ID，请为每个实例设置不同的 ceramic.order.number.node-id（环境变量 CERAMIC_ORDER_NODE_ID）");
+        }
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("订单编号节点ID必须在0到" + MAX_NODE_ID + "之间");
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.maxBackwardMillis = maxClockBackward.toMillis();
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return format(nextId());
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @throws IllegalStateException 时钟回拨超过允许的上限
+     */
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        while (true) {
+            long previous = last.get();
+            long previousTime = previous >>> SEQUENCE_BITS;
+            long next;
+            if (now > previousTime) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                if (previousTime - now > maxBackwardMillis) {
+                    throw new IllegalStateException("系统时钟回拨" + (previousTime - now) + "ms，暂停生成订单编号");
+                }
+                // 同一毫秒或时钟回拨：序列号加一，用完时自然进位到下一毫秒
+                next = previous + 1;
+            }
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 直接写入定长字符数组，不经过 StringBuilder 和 Long.toString
+     */
+    static String format(long id) {
+        char[] chars = new char[PREFIX.length() + DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + id % 10);
+            id /= 10;
+        }
+        return new String(chars);
+    }
+}
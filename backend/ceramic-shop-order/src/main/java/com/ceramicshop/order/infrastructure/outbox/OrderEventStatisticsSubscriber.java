@@ -0,0 +1,35 @@
+package com.ceramicshop.order.infrastructure.outbox;
+
+import com.ceramicshop.order.domain.event.OrderDomainEvent;
+import com.ceramicshop.order.domain.event.OrderEventSubscriber;
+import com.ceramicshop.order.domain.event.OrderEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 订单事件统计订阅者
+ * 按事件类型计数并导出为 ceramic.order.events 指标，供运营看板使用；重新投递的事件会被重复计数，数值只用于观察趋势。
+ */
+@Component
+public class OrderEventStatisticsSubscriber implements OrderEventSubscriber {
+
+    private final Map<OrderEventType, Counter> counters = new EnumMap<>(OrderEventType.class);
+
+    public OrderEventStatisticsSubscriber(MeterRegistry meterRegistry) {
+        for (OrderEventType type : OrderEventType.values()) {
+            counters.put(type, Counter.builder("ceramic.order.events")
+                    .description("已投递的订单事件数")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void onEvent(OrderDomainEvent event) {
+        counters.get(event.getType()).increment();
+    }
+}
@@ -0,0 +1,267 @@
+package com.ceramicshop.order.infrastructure.outbox;
+
+import com.ceramicshop.order.domain.event.OrderDomainEvent;
+import com.ceramicshop.order.domain.event.OrderEventSubscriber;
+import com.ceramicshop.order.infrastructure.persistence.entity.OrderOutboxPO;
+import com.ceramicshop.order.infrastructure.persistence.mapper.OrderOutboxMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 发件箱中继
+ * 单个后台线程按ID顺序批量读取待投递事件并同步调用订阅者，全部订阅者成功后标记为已投递。
+ * 投递至少一次；某个事件失败后，同一订单的后续事件在它成功或达到重试上限前都不会投递，
+ * 失败的事件从失败时刻起按指数退避重试，退避期间不会被查询出来，不占用批次。
+ * 读取事件时不加锁也不认领，开启中继的每个实例都会投递全部事件，因此默认关闭，只能在一个实例上显式开启。
+ */
+@Slf4j
+@Component
+public class OrderOutboxRelay implements MeterBinder {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofMinutes(5);
+
+    private final OrderOutboxMapper outboxMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OrderEventSubscriber> subscriberProvider;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private ScheduledExecutorService executor;
+    private List<OrderEventSubscriber> subscribers;
+
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong deadLetterCount = new AtomicLong();
+    private volatile long lastLagMillis;
+    private volatile int lastBatchSize;
+    private volatile long lastPollMillis;
+
+    public OrderOutboxRelay(OrderOutboxMapper outboxMapper,
+                            ObjectMapper objectMapper,
+                            ObjectProvider<OrderEventSubscriber> subscriberProvider,
+                            @Value("${ceramic.order.outbox.relay-enabled:false}") boolean enabled,
+                            @Value("${ceramic.order.outbox.poll-interval:500ms}") Duration pollInterval,
+                            @Value("${ceramic.order.outbox.batch-size:100}") int batchSize,
+                            @Value("${ceramic.order.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${ceramic.order.outbox.retention:7d}") Duration retention) {
+        if (batchSize <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("发件箱批量大小和重试上限必须大于0");
+        }
+        this.outboxMapper = outboxMapper;
+        this.objectMapper = objectMapper;
+        this.subscriberProvider = subscriberProvider;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+    }
+
+    /**
+     * 应用就绪后再查找订阅者并启动，订阅者可以依赖订单仓储而不形成循环依赖
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("订单发件箱中继未开启");
+            return;
+        }
+        subscribers = subscriberProvider.orderedStream().collect(Collectors.toList());
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = pollInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::drainQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        if (!retention.isZero()) {
+            executor.scheduleWithFixedDelay(this::purgeQuietly, 1, 60, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            // 等待正在进行的一批投递结束，未标记的事件在下次启动时重新投递
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 有新事件提交，尽快投递；多次唤醒合并为一次
+     */
+    public void wakeUp() {
+        if (executor != null && wakeUpPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    wakeUpPending.set(false);
+                    drainQuietly();
+                });
+            } catch (RuntimeException e) {
+                // 关闭过程中不再接受任务，事件留在发件箱里
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        outcomeCounter(registry, "delivered", deliveredCount);
+        outcomeCounter(registry, "failed", failedCount);
+        outcomeCounter(registry, "dead_letter", deadLetterCount);
+        Gauge.builder("ceramic.order.outbox.lag", this, relay -> relay.lastLagMillis)
+                .description("最近投递的事件从写入到投递完成的延迟")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("ceramic.order.outbox.batch.size", this, relay -> relay.lastBatchSize)
+                .description("最近一次读取的待投递事件数，等于批量大小时说明有积压")
+                .register(registry);
+        Gauge.builder("ceramic.order.outbox.poll.age", this, OrderOutboxRelay::pollAgeMillis)
+                .description("距上次读取发件箱的时间，持续增长说明中继已停止；未开启或尚未读取时为0")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private long pollAgeMillis() {
+        long last = lastPollMillis;
+        return last == 0 ? 0 : System.currentTimeMillis() - last;
+    }
+
+    private static void outcomeCounter(MeterRegistry registry, String outcome, AtomicLong count) {
+        FunctionCounter.builder("ceramic.order.outbox.events", count, AtomicLong::get)
+                .description("发件箱事件投递结果")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("订单发件箱投递失败，下个周期重试", e);
+        }
+    }
+
+    /**
+     * 连续投递直到没有待投递事件或本批没有任何进展
+     */
+    void drain() {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderOutboxPO> batch = outboxMapper.selectPending(maxAttempts, now, batchSize);
+            lastPollMillis = System.currentTimeMillis();
+            lastBatchSize = batch.size();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Set<Long> blockedOrders = new HashSet<>();
+            List<Long> published = new ArrayList<>(batch.size());
+            for (OrderOutboxPO outbox : batch) {
+                if (blockedOrders.contains(outbox.getOrderId())) {
+                    continue;
+                }
+                try {
+                    dispatch(outbox);
+                    published.add(outbox.getId());
+                    recordLag(Duration.between(outbox.getCreateTime(), LocalDateTime.now()).toMillis());
+                } catch (RuntimeException e) {
+                    blockedOrders.add(outbox.getOrderId());
+                    recordFailure(outbox, e);
+                }
+            }
+            if (!published.isEmpty()) {
+                outboxMapper.markPublished(published, LocalDateTime.now());
+                deliveredCount.addAndGet(published.size());
+            }
+            if (batch.size() < batchSize || published.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(OrderOutboxPO outbox) {
+        OrderDomainEvent event;
+        try {
+            event = objectMapper.readValue(outbox.getPayload(), OrderDomainEvent.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("订单事件反序列化失败", e);
+        }
+        event.setEventId(outbox.getId());
+        for (OrderEventSubscriber subscriber : subscribers) {
+            if (subscriber.supports(event.getType())) {
+                subscriber.onEvent(event);
+            }
+        }
+    }
+
+    private void recordFailure(OrderOutboxPO outbox, RuntimeException e) {
+        failedCount.incrementAndGet();
+        String message = String.valueOf(e.getMessage());
+        outboxMapper.markFailed(outbox.getId(),
+                message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                nextAttemptTime(outbox.getAttempts() + 1));
+        if (outbox.getAttempts() + 1 >= maxAttempts) {
+            deadLetterCount.incrementAndGet();
+            log.error("订单事件 {}({}) 已失败 {} 次，不再投递，订单 {} 的后续事件将继续投递",
+                    outbox.getId(), outbox.getEventType(), maxAttempts, outbox.getOrderId(), e);
+        } else {
+            log.warn("订单事件 {}({}) 投递失败，稍后重试: {}", outbox.getId(), outbox.getEventType(), message);
+        }
+    }
+
+    /**
+     * 从本次失败起按轮询间隔指数退避，以失败次数计
+     */
+    private LocalDateTime nextAttemptTime(int attempts) {
+        long backoffMillis = pollInterval.toMillis() << Math.min(attempts, 20);
+        return LocalDateTime.now().plus(Duration.ofMillis(Math.min(backoffMillis, MAX_RETRY_BACKOFF.toMillis())));
+    }
+
+    private void recordLag(long lagMillis) {
+        lastLagMillis = lagMillis;
+    }
+
+    private void purgeQuietly() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(retention);
+            int deleted;
+            do {
+                deleted = outboxMapper.deletePublishedBefore(before, PURGE_BATCH_SIZE);
+            } while (deleted == PURGE_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.error("清理已投递的订单事件失败", e);
+        }
+    }
+}
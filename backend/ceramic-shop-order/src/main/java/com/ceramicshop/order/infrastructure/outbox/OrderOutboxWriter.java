@@ -0,0 +1,92 @@
+package com.ceramicshop.order.infrastructure.outbox;
+
+import com.ceramicshop.order.domain.event.OrderDomainEvent;
+import com.ceramicshop.order.domain.event.OrderEventType;
+import com.ceramicshop.order.domain.model.Order;
+import com.ceramicshop.order.domain.model.OrderItem;
+import com.ceramicshop.order.infrastructure.persistence.entity.OrderOutboxPO;
+import com.ceramicshop.order.infrastructure.persistence.mapper.OrderOutboxMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 发件箱写入
+ * 在调用方的事务内把订单事件写入 order_outbox，事务提交后唤醒中继线程立即投递。
+ */
+@Component
+public class OrderOutboxWriter {
+
+    private final OrderOutboxMapper outboxMapper;
+    private final ObjectMapper objectMapper;
+    private final OrderOutboxRelay relay;
+
+    public OrderOutboxWriter(OrderOutboxMapper outboxMapper, ObjectMapper objectMapper, OrderOutboxRelay relay) {
+        this.outboxMapper = outboxMapper;
+        this.objectMapper = objectMapper;
+        this.relay = relay;
+    }
+
+    /**
+     * 写入订单尚未写出的事件
+     */
+    public void append(Order order) {
+        List<OrderEventType> types = order.pullPendingEvents();
+        if (types.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderEventType type : types) {
+            OrderOutboxPO outbox = new OrderOutboxPO();
+            outbox.setOrderId(order.getId());
+            outbox.setEventType(type.name());
+            outbox.setPayload(serialize(toEvent(order, type, now)));
+            outbox.setCreateTime(now);
+            outboxMapper.insert(outbox);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wakeUp();
+                }
+            });
+        } else {
+            relay.wakeUp();
+        }
+    }
+
+    private OrderDomainEvent toEvent(Order order, OrderEventType type, LocalDateTime occurredAt) {
+        List<OrderDomainEvent.Item> items = null;
+        if (type == OrderEventType.ORDER_CREATED || type == OrderEventType.ORDER_CANCELLED) {
+            items = new ArrayList<>(order.getOrderItems().size());
+            for (OrderItem item : order.getOrderItems()) {
+                items.add(new OrderDomainEvent.Item(item.getProductId(), item.getQuantity()));
+            }
+        }
+        return OrderDomainEvent.builder()
+                .type(type)
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .status(order.getStatus().name())
+                .paymentAmount(order.getPaymentAmount())
+                .occurredAt(occurredAt)
+                .items(items)
+                .build();
+    }
+
+    private String serialize(OrderDomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("订单事件序列化失败", e);
+        }
+    }
+}
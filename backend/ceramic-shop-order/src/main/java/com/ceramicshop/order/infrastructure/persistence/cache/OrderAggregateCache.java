@@ -0,0 +1,100 @@
+package com.ceramicshop.order.infrastructure.persistence.cache;
+
+import com.ceramicshop.order.infrastructure.persistence.entity.OrderItemPO;
+import com.ceramicshop.order.infrastructure.persistence.entity.OrderPO;
+import com.ceramicshop.order.infrastructure.persistence.entity.ShippingAddressPO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 订单聚合缓存
+ * 以订单ID为键缓存订单、订单项、物流地址三张表的快照，整个聚合一起失效；另有订单编号到ID的索引，编号不会变化。
+ * 缓存的是持久化对象快照，每次读取都重建新的领域对象，调用方修改领域对象不会影响缓存。
+ * 写操作在语句执行后和事务结束后各失效一次，避免并发读取在提交前把旧数据重新放回缓存。
+ * 缓存只在本实例内失效，其他实例的副本依赖TTL过期。
+ */
+@Component
+public class OrderAggregateCache implements MeterBinder {
+
+    private final Cache<Long, Snapshot> orders;
+    private final Cache<String, Long> orderIds;
+
+    public OrderAggregateCache(@Value("${ceramic.order.cache.ttl:10m}") Duration ttl,
+                               @Value("${ceramic.order.cache.maximum-size:10000}") long maximumSize) {
+        this.orders = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.orderIds = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 按订单ID读取快照，未命中时调用 loader 加载；订单不存在时返回 null 且不缓存
+     */
+    public Snapshot get(Long orderId, Function<Long, Snapshot> loader) {
+        return orders.get(orderId, loader);
+    }
+
+    /**
+     * 按订单编号查找订单ID，未命中时调用 loader 加载；订单不存在时返回 null 且不缓存。
+     * 只缓存编号到ID的映射，聚合本身仍经 {@link #get} 加载，不会绕过写操作的失效
+     */
+    public Long getOrderId(String orderNumber, Function<String, Long> loader) {
+        return orderIds.get(orderNumber, loader);
+    }
+
+    /**
+     * 失效订单聚合，在事务内调用时事务结束后再失效一次
+     */
+    public void evict(Long orderId) {
+        orders.invalidate(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    orders.invalidate(orderId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, orders, "order.aggregates");
+        CaffeineCacheMetrics.monitor(registry, orderIds, "order.orderNumbers");
+    }
+
+    /**
+     * 订单聚合的持久化快照，放入缓存后不再修改
+     */
+    @Getter
+    public static final class Snapshot {
+        private final OrderPO order;
+        private final List<OrderItemPO> items;
+        private final ShippingAddressPO address;
+
+        public Snapshot(OrderPO order, List<OrderItemPO> items, ShippingAddressPO address) {
+            this.order = order;
+            this.items = items == null ? Collections.emptyList() : Collections.unmodifiableList(items);
+            this.address = address;
+        }
+    }
+}
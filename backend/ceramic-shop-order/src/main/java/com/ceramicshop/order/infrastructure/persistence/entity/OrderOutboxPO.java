@@ -0,0 +1,57 @@
+package com.ceramicshop.order.infrastructure.persistence.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 订单事件发件箱持久化对象
+ */
+@Data
+public class OrderOutboxPO {
+
+    /**
+     * 记录ID，递增，决定投递顺序
+     */
+    private Long id;
+
+    /**
+     * 订单ID
+     */
+    private Long orderId;
+
+    /**
+     * 事件类型
+     */
+    private String eventType;
+
+    /**
+     * 事件内容JSON
+     */
+    private String payload;
+
+    /**
+     * 投递失败次数
+     */
+    private Integer attempts;
+
+    /**
+     * 最近一次投递失败原因
+     */
+    private String lastError;
+
+    /**
+     * 失败后的下次投递时间，为空表示立即投递
+     */
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 写入时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 投递完成时间，为空表示待投递
+     */
+    private LocalDateTime publishTime;
+}
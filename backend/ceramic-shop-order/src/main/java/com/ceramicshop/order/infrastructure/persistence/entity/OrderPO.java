@@ -100,4 +100,9 @@ public class OrderPO {
      * 更新时间
      */
     private LocalDateTime updateTime;
+    
+    /**
+     * 乐观锁版本号
+     */
+    private Integer version;
 } 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.ceramicshop.order.infrastructure.persistence.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户收货地址持久化对象（只读，数据归属用户服务的 t_user_address 表）
+ */
+@Data
+public class UserAddressPO {
+    
+    /**
+     * 地址ID
+     */
+    private Long id;
+    
+    /**
+     * 用户ID
+     */
+    private Long userId;
+    
+    /**
+     * 收货人姓名
+     */
+    private String receiverName;
+    
+    /**
+     * 收货人电话
+     */
+    private String receiverPhone;
+    
+    /**
+     * 省份
+     */
+    private String province;
+    
+    /**
+     * 城市
+     */
+    private String city;
+    
+    /**
+     * 区/县
+     */
+    private String district;
+    
+    /**
+     * 详细地址
+     */
+    private String detailAddress;
+    
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
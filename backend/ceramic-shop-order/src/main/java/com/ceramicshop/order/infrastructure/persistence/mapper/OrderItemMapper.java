@@ -1,6 +1,7 @@
 package com.ceramicshop.order.infrastructure.persistence.mapper;
 
 import com.ceramicshop.order.infrastructure.persistence.entity.OrderItemPO;
+import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
 
@@ -17,6 +18,14 @@ public interface OrderItemMapper {
      */
     int insert(OrderItemPO orderItem);
 
+    /**
+     * 用一条多行INSERT批量插入订单项，回填各自的ID
+     *
+     * @param orderItems 订单项列表，不能为空
+     * @return 影响行数
+     */
+    int insertBatch(@Param("orderItems") List<OrderItemPO> orderItems);
+
     /**
      * 根据ID查询订单项
      *
@@ -33,6 +42,14 @@ public interface OrderItemMapper {
      */
     List<OrderItemPO> selectByOrderId(Long orderId);
 
+    /**
+     * 根据订单ID列表批量查询订单项
+     *
+     * @param orderIds 订单ID列表
+     * @return 订单项列表
+     */
+    List<OrderItemPO> selectByOrderIds(@Param("orderIds") List<Long> orderIds);
+
     /**
      * 更新订单项
      *
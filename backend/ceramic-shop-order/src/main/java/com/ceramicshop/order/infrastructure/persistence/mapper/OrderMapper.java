@@ -3,6 +3,7 @@ package com.ceramicshop.order.infrastructure.persistence.mapper;
 import com.ceramicshop.order.infrastructure.persistence.entity.OrderPO;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -52,12 +53,71 @@ public interface OrderMapper {
     List<OrderPO> selectByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status);
 
     /**
-     * 更新订单
+     * 按(create_time, id)游标分页查询用户订单
      *
-     * @param order 订单对象
+     * @param userId 用户ID
+     * @param status 订单状态，为空时不过滤
+     * @param cursorCreateTime 上一页最后一条的创建时间，为空时从第一页开始
+     * @param cursorId 上一页最后一条的订单ID
+     * @param limit 返回条数
+     * @return 订单列表，按创建时间、ID倒序
+     */
+    List<OrderPO> selectPageByUserId(@Param("userId") Long userId,
+                                     @Param("status") String status,
+                                     @Param("cursorCreateTime") LocalDateTime cursorCreateTime,
+                                     @Param("cursorId") Long cursorId,
+                                     @Param("limit") int limit);
+
+    /**
+     * 按(create_time, id)游标顺序扫描指定状态的订单，只返回ID和创建时间
+     *
+     * @param status 订单状态
+     * @param createdBefore 创建时间上界（不含），为空时不限
+     * @param cursorCreateTime 上一批最后一条的创建时间，为空时从头开始
+     * @param cursorId 上一批最后一条的订单ID
+     * @param limit 返回条数
+     * @return 订单列表，按创建时间、ID正序
+     */
+    List<OrderPO> selectIdsByStatus(@Param("status") String status,
+                                    @Param("createdBefore") LocalDateTime createdBefore,
+                                    @Param("cursorCreateTime") LocalDateTime cursorCreateTime,
+                                    @Param("cursorId") Long cursorId,
+                                    @Param("limit") int limit);
+
+    /**
+     * 查询并锁定指定状态、在给定时间之前创建的订单
+     *
+     * @param ids 订单ID列表
+     * @param status 订单状态
+     * @param createdBefore 创建时间上限
+     * @return 订单列表
+     */
+    List<OrderPO> selectByIdsAndStatusForUpdate(@Param("ids") List<Long> ids,
+                                                @Param("status") String status,
+                                                @Param("createdBefore") LocalDateTime createdBefore);
+
+    /**
+     * 批量关闭订单，只更新仍处于原状态的订单，版本号加一
+     *
+     * @param ids 订单ID列表
+     * @param fromStatus 原状态
+     * @param toStatus 目标状态
+     * @param closeTime 关闭时间
      * @return 影响行数
      */
-    int update(OrderPO order);
+    int closeByIds(@Param("ids") List<Long> ids,
+                   @Param("fromStatus") String fromStatus,
+                   @Param("toStatus") String toStatus,
+                   @Param("closeTime") LocalDateTime closeTime);
+
+    /**
+     * 按版本号和原状态条件更新订单，成功后版本号加一
+     *
+     * @param order 订单对象，version 为读取时的版本号
+     * @param expectedStatus 读取时的状态
+     * @return 影响行数，为0表示订单已被并发修改
+     */
+    int update(@Param("order") OrderPO order, @Param("expectedStatus") String expectedStatus);
 
     /**
      * 删除订单
@@ -0,0 +1,63 @@
+package com.ceramicshop.order.infrastructure.persistence.mapper;
+
+import com.ceramicshop.order.infrastructure.persistence.entity.OrderOutboxPO;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单事件发件箱Mapper接口
+ */
+public interface OrderOutboxMapper {
+
+    /**
+     * 写入事件
+     *
+     * @param outbox 发件箱记录
+     * @return 影响行数
+     */
+    int insert(OrderOutboxPO outbox);
+
+    /**
+     * 按ID顺序查询已到投递时间且未超过重试上限的事件，同一订单有更早的事件未投递时不返回
+     *
+     * @param maxAttempts 失败次数上限，达到上限的事件不再查询
+     * @param now 当前时间，下次投递时间晚于它的事件不返回
+     * @param limit 返回条数
+     * @return 发件箱记录，按ID升序
+     */
+    List<OrderOutboxPO> selectPending(@Param("maxAttempts") int maxAttempts,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("limit") int limit);
+
+    /**
+     * 批量标记为已投递
+     *
+     * @param ids 记录ID
+     * @param publishTime 投递完成时间
+     * @return 影响行数
+     */
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishTime") LocalDateTime publishTime);
+
+    /**
+     * 记录一次投递失败
+     *
+     * @param id 记录ID
+     * @param lastError 失败原因
+     * @param nextAttemptTime 下次投递时间
+     * @return 影响行数
+     */
+    int markFailed(@Param("id") Long id,
+                   @Param("lastError") String lastError,
+                   @Param("nextAttemptTime") LocalDateTime nextAttemptTime);
+
+    /**
+     * 删除早于指定时间投递完成的记录
+     *
+     * @param before 投递完成时间上界
+     * @param limit 单次最多删除条数
+     * @return 影响行数
+     */
+    int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -3,7 +3,7 @@ package com.ceramicshop.order.infrastructure.persistence.mapper;
 import com.ceramicshop.order.infrastructure.persistence.entity.ShippingAddressPO;
 import org.apache.ibatis.annotations.Param;
 
-import java.util.Optional;
+import java.util.List;
 
 /**
  * 物流地址Mapper接口
@@ -30,6 +30,11 @@ public interface ShippingAddressMapper {
      */
     ShippingAddressPO selectByOrderId(Long orderId);
     
+    /**
+     * 根据订单ID列表批量查询物流地址
+     */
+    List<ShippingAddressPO> selectByOrderIds(@Param("orderIds") List<Long> orderIds);
+    
     /**
      * 根据ID删除物流地址
      */
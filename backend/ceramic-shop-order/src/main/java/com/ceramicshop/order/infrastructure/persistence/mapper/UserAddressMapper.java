@@ -0,0 +1,15 @@
+package com.ceramicshop.order.infrastructure.persistence.mapper;
+
+import com.ceramicshop.order.infrastructure.persistence.entity.UserAddressPO;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 用户收货地址Mapper接口（只读）
+ */
+public interface UserAddressMapper {
+    
+    /**
+     * 查询属于指定用户的收货地址，地址不存在或属于其他用户时返回 null
+     */
+    UserAddressPO selectByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+}
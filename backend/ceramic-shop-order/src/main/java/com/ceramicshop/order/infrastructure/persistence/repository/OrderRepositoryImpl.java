@@ -1,25 +1,31 @@
 package com.ceramicshop.order.infrastructure.persistence.repository;
 
+import com.ceramicshop.common.trace.RequestTrace;
 import com.ceramicshop.order.domain.model.Order;
 import com.ceramicshop.order.domain.model.OrderItem;
 import com.ceramicshop.order.domain.model.OrderStatus;
 import com.ceramicshop.order.domain.model.ShippingAddress;
 import com.ceramicshop.order.domain.repository.OrderRepository;
+import com.ceramicshop.order.infrastructure.outbox.OrderOutboxWriter;
+import com.ceramicshop.order.infrastructure.persistence.cache.OrderAggregateCache;
 import com.ceramicshop.order.infrastructure.persistence.mapper.OrderItemMapper;
 import com.ceramicshop.order.infrastructure.persistence.mapper.OrderMapper;
 import com.ceramicshop.order.infrastructure.persistence.mapper.ShippingAddressMapper;
 import com.ceramicshop.order.infrastructure.persistence.entity.OrderItemPO;
 import com.ceramicshop.order.infrastructure.persistence.entity.OrderPO;
 import com.ceramicshop.order.infrastructure.persistence.entity.ShippingAddressPO;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.lang.reflect.Constructor;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 /**
  * 订单仓储实现类
@@ -27,14 +33,25 @@ import java.util.Optional;
 @Repository
 public class OrderRepositoryImpl implements OrderRepository {
 
+    /**
+     * 单条多行INSERT的最大行数，避免超大订单超过 max_allowed_packet
+     */
+    private static final int ITEM_INSERT_CHUNK_SIZE = 500;
+
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
     private final ShippingAddressMapper shippingAddressMapper;
+    private final OrderOutboxWriter outboxWriter;
+    private final OrderAggregateCache orderCache;
 
-    public OrderRepositoryImpl(OrderMapper orderMapper, OrderItemMapper orderItemMapper, ShippingAddressMapper shippingAddressMapper) {
+    public OrderRepositoryImpl(OrderMapper orderMapper, OrderItemMapper orderItemMapper,
+                               ShippingAddressMapper shippingAddressMapper, OrderOutboxWriter outboxWriter,
+                               OrderAggregateCache orderCache) {
         this.orderMapper = orderMapper;
         this.orderItemMapper = orderItemMapper;
         this.shippingAddressMapper = shippingAddressMapper;
+        this.outboxWriter = outboxWriter;
+        this.orderCache = orderCache;
     }
 
     @Override
@@ -56,50 +73,59 @@ public class OrderRepositoryImpl implements OrderRepository {
             shippingAddressMapper.insert(addressPO);
         }
         
-        // 保存订单项
+        // 保存订单项，一条多行INSERT写入，往返次数与订单行数无关
+        List<OrderItemPO> itemPOs = new ArrayList<>(order.getOrderItems().size());
         for (OrderItem item : order.getOrderItems()) {
             OrderItemPO itemPO = toPO(item);
             itemPO.setOrderId(orderPO.getId());
-            orderItemMapper.insert(itemPO);
+            itemPOs.add(itemPO);
+        }
+        for (int from = 0; from < itemPOs.size(); from += ITEM_INSERT_CHUNK_SIZE) {
+            orderItemMapper.insertBatch(itemPOs.subList(from, Math.min(from + ITEM_INSERT_CHUNK_SIZE, itemPOs.size())));
+        }
+        
+        // 订单事件与订单在同一事务内写入发件箱
+        try (RequestTrace.Span ignored = RequestTrace.span("OrderOutboxWriter.append")) {
+            outboxWriter.append(order);
         }
+        order.markPersisted(orderPO.getVersion());
         
         return order;
     }
 
     @Override
     public Optional<Order> findById(Long id) {
-        // 查询订单
-        OrderPO orderPO = orderMapper.selectById(id);
-        if (orderPO == null) {
-            return Optional.empty();
-        }
-        
-        // 查询订单项
-        List<OrderItemPO> itemPOs = orderItemMapper.selectByOrderId(id);
-        
-        // 查询物流地址
-        ShippingAddressPO addressPO = shippingAddressMapper.selectByOrderId(id);
+        // 先查聚合缓存，未命中时从三张表加载
+        OrderAggregateCache.Snapshot snapshot = orderCache.get(id, orderId -> {
+            OrderPO orderPO = orderMapper.selectById(orderId);
+            return orderPO == null ? null : loadSnapshot(orderPO);
+        });
         
         // 转换为领域模型
-        return Optional.of(toDomain(orderPO, itemPOs, addressPO));
+        return Optional.ofNullable(snapshot).map(this::toDomain);
     }
 
     @Override
     public Optional<Order> findByOrderNumber(String orderNumber) {
-        // 查询订单
-        OrderPO orderPO = orderMapper.selectByOrderNumber(orderNumber);
-        if (orderPO == null) {
-            return Optional.empty();
-        }
-        
+        // 订单编号不会变化，缓存编号到ID的映射后走按ID的缓存
+        Long orderId = orderCache.getOrderId(orderNumber, number -> {
+            OrderPO orderPO = orderMapper.selectByOrderNumber(number);
+            return orderPO == null ? null : orderPO.getId();
+        });
+        return orderId == null ? Optional.empty() : findById(orderId);
+    }
+    
+    /**
+     * 加载订单项和物流地址，组成聚合快照
+     */
+    private OrderAggregateCache.Snapshot loadSnapshot(OrderPO orderPO) {
         // 查询订单项
         List<OrderItemPO> itemPOs = orderItemMapper.selectByOrderId(orderPO.getId());
         
         // 查询物流地址
         ShippingAddressPO addressPO = shippingAddressMapper.selectByOrderId(orderPO.getId());
         
-        // 转换为领域模型
-        return Optional.of(toDomain(orderPO, itemPOs, addressPO));
+        return new OrderAggregateCache.Snapshot(orderPO, itemPOs, addressPO);
     }
 
     @Override
@@ -110,15 +136,8 @@ public class OrderRepositoryImpl implements OrderRepository {
             return Collections.emptyList();
         }
         
-        // 转换为领域模型
-        List<Order> orders = new ArrayList<>(orderPOs.size());
-        for (OrderPO orderPO : orderPOs) {
-            List<OrderItemPO> itemPOs = orderItemMapper.selectByOrderId(orderPO.getId());
-            ShippingAddressPO addressPO = shippingAddressMapper.selectByOrderId(orderPO.getId());
-            orders.add(toDomain(orderPO, itemPOs, addressPO));
-        }
-        
-        return orders;
+        // 批量加载订单项和物流地址，并转换为领域模型
+        return toDomainList(orderPOs);
     }
 
     @Override
@@ -129,23 +148,88 @@ public class OrderRepositoryImpl implements OrderRepository {
             return Collections.emptyList();
         }
         
-        // 转换为领域模型
-        List<Order> orders = new ArrayList<>(orderPOs.size());
-        for (OrderPO orderPO : orderPOs) {
-            List<OrderItemPO> itemPOs = orderItemMapper.selectByOrderId(orderPO.getId());
-            ShippingAddressPO addressPO = shippingAddressMapper.selectByOrderId(orderPO.getId());
-            orders.add(toDomain(orderPO, itemPOs, addressPO));
+        // 批量加载订单项和物流地址，并转换为领域模型
+        return toDomainList(orderPOs);
+    }
+
+    @Override
+    public List<Order> findPageByUserId(Long userId, OrderStatus status, LocalDateTime afterCreateTime, Long afterId, int limit) {
+        List<OrderPO> orderPOs = orderMapper.selectPageByUserId(
+                userId, status != null ? status.name() : null, afterCreateTime, afterId, limit);
+        if (orderPOs == null || orderPOs.isEmpty()) {
+            return Collections.emptyList();
         }
         
-        return orders;
+        return toDomainList(orderPOs);
+    }
+
+    @Override
+    public void scanIdsByStatus(OrderStatus status, LocalDateTime createdBefore, int batchSize,
+                                BiConsumer<Long, LocalDateTime> consumer) {
+        LocalDateTime cursorCreateTime = null;
+        Long cursorId = null;
+        List<OrderPO> batch;
+        do {
+            batch = orderMapper.selectIdsByStatus(status.name(), createdBefore, cursorCreateTime, cursorId, batchSize);
+            for (OrderPO orderPO : batch) {
+                consumer.accept(orderPO.getId(), orderPO.getCreateTime());
+            }
+            if (!batch.isEmpty()) {
+                OrderPO last = batch.get(batch.size() - 1);
+                cursorCreateTime = last.getCreateTime();
+                cursorId = last.getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Override
+    public List<Order> lockByIdsAndStatus(List<Long> ids, OrderStatus status, LocalDateTime createdBefore) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<OrderPO> orderPOs = orderMapper.selectByIdsAndStatusForUpdate(ids, status.name(), createdBefore);
+        if (orderPOs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return toDomainList(orderPOs);
+    }
+
+    @Override
+    @Transactional
+    public void closeAll(List<Order> orders, OrderStatus fromStatus) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            ids.add(order.getId());
+        }
+        Order first = orders.get(0);
+        int updated = orderMapper.closeByIds(ids, fromStatus.name(), first.getStatus().name(), first.getCloseTime());
+        for (Long id : ids) {
+            orderCache.evict(id);
+        }
+        if (updated != orders.size()) {
+            // 调用方已加锁，行数不一致说明状态被并发修改，整批回滚
+            throw new IllegalStateException("批量关闭订单时状态已变化，预期" + orders.size() + "条，实际" + updated + "条");
+        }
+        for (Order order : orders) {
+            outboxWriter.append(order);
+            order.markPersisted(order.getVersion() + 1);
+        }
     }
 
     @Override
     @Transactional
     public Order update(Order order) {
-        // 转换为PO并更新
+        // 转换为PO，按读取时的版本号和状态条件更新
         OrderPO orderPO = toPO(order);
-        orderMapper.update(orderPO);
+        int updated = orderMapper.update(orderPO, order.getPersistedStatus().name());
+        // 冲突时缓存中的版本可能已过期，同样失效，重试时从数据库重新读取
+        orderCache.evict(order.getId());
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException("订单已被并发修改: " + order.getId());
+        }
         
         // 更新物流地址
         if (order.getShippingAddress() != null) {
@@ -164,12 +248,18 @@ public class OrderRepositoryImpl implements OrderRepository {
         
         // 更新订单项（如有需要）
         
+        // 状态变更事件与订单在同一事务内写入发件箱
+        outboxWriter.append(order);
+        order.markPersisted(order.getVersion() + 1);
+        
         return order;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
+        orderCache.evict(id);
+        
         // 删除订单项
         orderItemMapper.deleteByOrderId(id);
         
@@ -181,96 +271,100 @@ public class OrderRepositoryImpl implements OrderRepository {
     }
     
     /**
-     * 将订单PO转换为领域模型
+     * 批量将订单PO转换为领域模型
+     * 订单项和物流地址各用一条IN查询加载后在内存中按订单ID分组，避免逐条查询
      */
-    private Order toDomain(OrderPO po, List<OrderItemPO> itemPOs, ShippingAddressPO addressPO) {
-        try {
-            // 使用反射获取包级私有构造方法
-            Constructor<Order> constructor = Order.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            Order order = constructor.newInstance();
-            
-            // 设置基本字段
-            setFieldValue(order, "id", po.getId());
-            setFieldValue(order, "orderNumber", po.getOrderNumber());
-            setFieldValue(order, "userId", po.getUserId());
-            setFieldValue(order, "status", OrderStatus.valueOf(po.getStatus()));
-            setFieldValue(order, "totalAmount", po.getTotalAmount());
-            setFieldValue(order, "paymentAmount", po.getPaymentAmount());
-            setFieldValue(order, "shippingFee", po.getShippingFee());
-            setFieldValue(order, "discountAmount", po.getDiscountAmount());
-            setFieldValue(order, "shippingMethod", po.getShippingMethod());
-            setFieldValue(order, "paymentMethod", po.getPaymentMethod());
-            setFieldValue(order, "remark", po.getRemark());
-            setFieldValue(order, "createTime", po.getCreateTime());
-            setFieldValue(order, "updateTime", po.getUpdateTime());
-            setFieldValue(order, "payTime", po.getPayTime());
-            setFieldValue(order, "shipTime", po.getShipTime());
-            setFieldValue(order, "deliveryTime", po.getDeliveryTime());
-            setFieldValue(order, "completeTime", po.getCompleteTime());
-            setFieldValue(order, "closeTime", po.getCloseTime());
-            
-            // 设置物流地址值对象
-            if (addressPO != null) {
-                ShippingAddress address = toShippingAddressDomain(addressPO);
-                setFieldValue(order, "shippingAddress", address);
-            }
-            
-            // 设置订单项
-            List<OrderItem> items = new ArrayList<>();
-            if (itemPOs != null && !itemPOs.isEmpty()) {
-                for (OrderItemPO itemPO : itemPOs) {
-                    OrderItem item = toDomainOrderItem(itemPO);
-                    items.add(item);
-                }
-            }
-            setFieldValue(order, "orderItems", items);
-            
-            return order;
-        } catch (Exception e) {
-            throw new RuntimeException("转换订单领域模型失败", e);
+    private List<Order> toDomainList(List<OrderPO> orderPOs) {
+        List<Long> orderIds = new ArrayList<>(orderPOs.size());
+        for (OrderPO orderPO : orderPOs) {
+            orderIds.add(orderPO.getId());
         }
+        
+        // 按订单ID分组订单项
+        Map<Long, List<OrderItemPO>> itemsByOrderId = new HashMap<>(orderIds.size() * 2);
+        for (OrderItemPO itemPO : orderItemMapper.selectByOrderIds(orderIds)) {
+            itemsByOrderId.computeIfAbsent(itemPO.getOrderId(), k -> new ArrayList<>()).add(itemPO);
+        }
+        
+        // 按订单ID索引物流地址
+        Map<Long, ShippingAddressPO> addressByOrderId = new HashMap<>(orderIds.size() * 2);
+        for (ShippingAddressPO addressPO : shippingAddressMapper.selectByOrderIds(orderIds)) {
+            addressByOrderId.putIfAbsent(addressPO.getOrderId(), addressPO);
+        }
+        
+        List<Order> orders = new ArrayList<>(orderPOs.size());
+        for (OrderPO orderPO : orderPOs) {
+            orders.add(toDomain(orderPO,
+                    itemsByOrderId.getOrDefault(orderPO.getId(), Collections.emptyList()),
+                    addressByOrderId.get(orderPO.getId())));
+        }
+        return orders;
     }
     
     /**
-     * 将订单项PO转换为领域模型
+     * 将聚合快照转换为领域模型
      */
-    private OrderItem toDomainOrderItem(OrderItemPO po) {
-        try {
-            Constructor<OrderItem> constructor = OrderItem.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            OrderItem item = constructor.newInstance();
-            
-            // 设置基本字段
-            setFieldValue(item, "id", po.getId());
-            setFieldValue(item, "orderId", po.getOrderId());
-            setFieldValue(item, "productId", po.getProductId());
-            setFieldValue(item, "productName", po.getProductName());
-            setFieldValue(item, "productImage", po.getProductImage());
-            setFieldValue(item, "productSpecs", po.getProductSpecs());
-            setFieldValue(item, "price", po.getPrice());
-            setFieldValue(item, "quantity", po.getQuantity());
-            setFieldValue(item, "subtotal", po.getSubtotal());
-            setFieldValue(item, "createTime", po.getCreateTime());
-            setFieldValue(item, "updateTime", po.getUpdateTime());
-            
-            return item;
-        } catch (Exception e) {
-            throw new RuntimeException("转换订单项领域模型失败", e);
-        }
+    private Order toDomain(OrderAggregateCache.Snapshot snapshot) {
+        return toDomain(snapshot.getOrder(), snapshot.getItems(), snapshot.getAddress());
     }
     
     /**
-     * 使用反射设置对象字段值
+     * 将订单PO转换为领域模型
      */
-    private void setFieldValue(Object obj, String fieldName, Object value) {
-        try {
-            java.lang.reflect.Field field = obj.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            field.set(obj, value);
-        } catch (Exception e) {
-            throw new RuntimeException("设置" + fieldName + "字段失败", e);
+    private Order toDomain(OrderPO po, List<OrderItemPO> itemPOs, ShippingAddressPO addressPO) {
+        // 转换物流地址值对象
+        ShippingAddress address = addressPO != null ? toShippingAddressDomain(addressPO) : null;
+        
+        // 转换订单项
+        List<OrderItem> items = new ArrayList<>(itemPOs != null ? itemPOs.size() : 0);
+        if (itemPOs != null) {
+            for (OrderItemPO itemPO : itemPOs) {
+                items.add(toDomainOrderItem(itemPO));
+            }
         }
+        
+        return Order.rebuild(
+                po.getId(),
+                po.getOrderNumber(),
+                po.getUserId(),
+                OrderStatus.valueOf(po.getStatus()),
+                po.getTotalAmount(),
+                po.getPaymentAmount(),
+                po.getShippingFee(),
+                po.getDiscountAmount(),
+                po.getPayTime(),
+                po.getShipTime(),
+                po.getDeliveryTime(),
+                po.getCompleteTime(),
+                po.getCloseTime(),
+                po.getShippingMethod(),
+                po.getPaymentMethod(),
+                po.getRemark(),
+                po.getCreateTime(),
+                po.getUpdateTime(),
+                po.getVersion(),
+                address,
+                items
+        );
+    }
+    
+    /**
+     * 将订单项PO转换为领域模型
+     */
+    private OrderItem toDomainOrderItem(OrderItemPO po) {
+        return OrderItem.rebuild(
+                po.getId(),
+                po.getOrderId(),
+                po.getProductId(),
+                po.getProductName(),
+                po.getProductImage(),
+                po.getProductSpecs(),
+                po.getPrice(),
+                po.getQuantity(),
+                po.getSubtotal(),
+                po.getCreateTime(),
+                po.getUpdateTime()
+        );
     }
     
     /**
@@ -296,6 +390,7 @@ public class OrderRepositoryImpl implements OrderRepository {
         po.setRemark(order.getRemark());
         po.setCreateTime(order.getCreateTime());
         po.setUpdateTime(order.getUpdateTime());
+        po.setVersion(order.getVersion());
         return po;
     }
     
@@ -0,0 +1,193 @@
+package com.ceramicshop.order.infrastructure.timeout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分层时间轮
+ * 第0层每格一个刻度，第n层每格是第n-1层一整圈，超出当前层范围的任务放到上一层，上层按需创建。
+ * 加入、删除都是O(1)；时间推进到上层某格的起点时，把该格的任务重新放入下层，到期后一个刻度内触发，不会提前。
+ * 非线程安全，只能由一个线程访问。
+ */
+class TimingWheel {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level> levels = new ArrayList<>();
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private long currentTime;
+
+    TimingWheel(long tickMillis, int wheelSize, long startTime) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("时间轮刻度必须大于0，每层格数不能少于2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startTime - startTime % tickMillis;
+        levels.add(new Level(tickMillis));
+    }
+
+    /**
+     * 加入或重新设置任务的到期时间
+     *
+     * @return 已经到期时返回 false，调用方应立即处理
+     */
+    boolean schedule(long id, long deadline) {
+        remove(id);
+        // 按刻度向上取整，保证不会早于到期时间触发
+        long expiration = deadline + tickMillis - 1;
+        if (expiration < currentTime + tickMillis) {
+            return false;
+        }
+        Node node = new Node(id, deadline, expiration);
+        nodes.put(id, node);
+        place(node);
+        return true;
+    }
+
+    /**
+     * 删除任务，不存在时忽略
+     */
+    void remove(long id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            node.unlink();
+        }
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 推进到指定时间，期间到期的任务放入 expired
+     */
+    void advanceTo(long time, List<Node> expired) {
+        while (currentTime + tickMillis <= time) {
+            currentTime += tickMillis;
+            // 先从最高层开始下放，下放到的下层格子如果恰好在本刻度到期，随后一并处理
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                Level level = levels.get(i);
+                if (currentTime % level.tickMillis == 0) {
+                    Node node = level.buckets[level.index(currentTime)].drain();
+                    while (node != null) {
+                        Node next = node.next;
+                        node.next = null;
+                        node.prev = null;
+                        if (node.expiration < currentTime + tickMillis) {
+                            nodes.remove(node.id);
+                            expired.add(node);
+                        } else {
+                            place(node);
+                        }
+                        node = next;
+                    }
+                }
+            }
+        }
+    }
+
+    private void place(Node node) {
+        for (int i = 0; ; i++) {
+            Level level = i < levels.size() ? levels.get(i) : addLevel();
+            // 本层的起点是当前时间所在的格子，范围覆盖之后的 wheelSize - 1 格
+            long levelStart = currentTime - currentTime % level.tickMillis;
+            if (node.expiration < levelStart + level.tickMillis * wheelSize) {
+                level.buckets[level.index(node.expiration)].add(node);
+                return;
+            }
+        }
+    }
+
+    private Level addLevel() {
+        Level top = levels.get(levels.size() - 1);
+        if (top.tickMillis > Long.MAX_VALUE / wheelSize / 2) {
+            throw new IllegalArgumentException("到期时间超出时间轮范围");
+        }
+        Level level = new Level(top.tickMillis * wheelSize);
+        levels.add(level);
+        return level;
+    }
+
+    private final class Level {
+        private final long tickMillis;
+        private final Bucket[] buckets;
+
+        private Level(long tickMillis) {
+            this.tickMillis = tickMillis;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        private int index(long time) {
+            return (int) ((time / tickMillis) % wheelSize);
+        }
+    }
+
+    /**
+     * 双向链表，哨兵节点简化增删
+     */
+    private static final class Bucket {
+        private final Node head = new Node(0, 0, 0);
+
+        private Bucket() {
+            head.next = head;
+            head.prev = head;
+        }
+
+        private void add(Node node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+        }
+
+        /**
+         * 取出所有节点，返回以 null 结尾的单向链表
+         */
+        private Node drain() {
+            if (head.next == head) {
+                return null;
+            }
+            Node first = head.next;
+            head.prev.next = null;
+            head.next = head;
+            head.prev = head;
+            return first;
+        }
+    }
+
+    static final class Node {
+        final long id;
+        final long deadline;
+        private final long expiration;
+        private Node prev;
+        private Node next;
+
+        /**
+         * 不在时间轮中、直接到期的任务
+         */
+        Node(long id, long deadline) {
+            this(id, deadline, deadline);
+        }
+
+        private Node(long id, long deadline, long expiration) {
+            this.id = id;
+            this.deadline = deadline;
+            this.expiration = expiration;
+        }
+
+        private void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.ceramicshop.order.infrastructure.timeout;
+
+import com.ceramicshop.order.application.OrderApplicationService;
+import com.ceramicshop.order.domain.event.OrderDomainEvent;
+import com.ceramicshop.order.domain.event.OrderEventSubscriber;
+import com.ceramicshop.order.domain.event.OrderEventType;
+import com.ceramicshop.order.domain.model.Order;
+import com.ceramicshop.order.domain.model.OrderStatus;
+import com.ceramicshop.order.domain.repository.OrderRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 未支付订单超时关闭
+ * 订单创建事件把订单放入时间轮，支付或取消事件把它移出；到期的订单按批加锁、取消并用一条更新语句保存。
+ * 启动时按 (status, create_time) 索引扫描待支付订单重建时间轮，已超时的立即关闭；扫描失败时隔一段时间重试直到成功。
+ * 另外定期扫描已超时仍未关闭的订单作为兜底，覆盖事件丢失、重建失败等时间轮漏掉的订单。
+ * 时间轮只由调度线程访问，订阅者线程通过队列提交变更。订阅依赖发件箱中继，与中继在同一个实例上运行。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ceramic.order.payment-timeout", name = "enabled", havingValue = "true")
+public class UnpaidOrderTimeoutScheduler implements OrderEventSubscriber, MeterBinder {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final OrderApplicationService orderApplicationService;
+    private final OrderRepository orderRepository;
+    private final Duration timeout;
+    private final Duration tick;
+    private final int wheelSize;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration sweepInterval;
+
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService executor;
+    private TimingWheel wheel;
+
+    private final AtomicLong closedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private volatile int backlog;
+    private volatile long lastExpiryLagMillis;
+    private volatile long rebuildMillis;
+    private volatile boolean rebuilt;
+    private final AtomicLong sweptCount = new AtomicLong();
+
+    public UnpaidOrderTimeoutScheduler(OrderApplicationService orderApplicationService,
+                                       OrderRepository orderRepository,
+                                       @Value("${ceramic.order.payment-timeout.timeout:30m}") Duration timeout,
+                                       @Value("${ceramic.order.payment-timeout.tick:1s}") Duration tick,
+                                       @Value("${ceramic.order.payment-timeout.wheel-size:60}") int wheelSize,
+                                       @Value("${ceramic.order.payment-timeout.batch-size:200}") int batchSize,
+                                       @Value("${ceramic.order.payment-timeout.retry-delay:30s}") Duration retryDelay,
+                                       @Value("${ceramic.order.payment-timeout.sweep-interval:5m}") Duration sweepInterval) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("超时关闭的批量大小必须大于0");
+        }
+        if (retryDelay.isNegative() || retryDelay.isZero() || sweepInterval.isNegative() || sweepInterval.isZero()) {
+            throw new IllegalArgumentException("超时关闭的重试间隔和兜底扫描周期必须大于0");
+        }
+        this.orderApplicationService = orderApplicationService;
+        this.orderRepository = orderRepository;
+        this.timeout = timeout;
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.sweepInterval = sweepInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        wheel = new TimingWheel(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-payment-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::rebuildQuietly);
+        long tickMillis = tick.toMillis();
+        executor.scheduleAtFixedRate(this::tickQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        long sweepMillis = sweepInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::sweepQuietly, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public boolean supports(OrderEventType type) {
+        return type == OrderEventType.ORDER_CREATED
+                || type == OrderEventType.ORDER_PAID
+                || type == OrderEventType.ORDER_CANCELLED;
+    }
+
+    @Override
+    public void onEvent(OrderDomainEvent event) {
+        if (event.getType() == OrderEventType.ORDER_CREATED) {
+            commands.add(Command.schedule(event.getOrderId(), deadlineOf(event.getOccurredAt())));
+        } else {
+            commands.add(Command.remove(event.getOrderId()));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ceramic.order.payment.timeout.backlog", this, scheduler -> scheduler.backlog + scheduler.commands.size())
+                .description("等待超时关闭的未支付订单数")
+                .register(registry);
+        Gauge.builder("ceramic.order.payment.timeout.lag", this, scheduler -> scheduler.lastExpiryLagMillis)
+                .description("最近一批订单从到期到关闭的最大延迟")
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("ceramic.order.payment.timeout.closed", closedCount, AtomicLong::get)
+                .description("超时关闭的订单数")
+                .register(registry);
+        FunctionCounter.builder("ceramic.order.payment.timeout.failures", failedBatchCount, AtomicLong::get)
+                .description("关闭失败的批次数")
+                .register(registry);
+        FunctionCounter.builder("ceramic.order.payment.timeout.skipped", skippedCount, AtomicLong::get)
+                .description("到期时已支付或已取消、无需关闭的订单数")
+                .register(registry);
+        FunctionCounter.builder("ceramic.order.payment.timeout.swept", sweptCount, AtomicLong::get)
+                .description("兜底扫描发现的时间轮漏掉的超时订单数")
+                .register(registry);
+        Gauge.builder("ceramic.order.payment.timeout.rebuilt", this, scheduler -> scheduler.rebuilt ? 1 : 0)
+                .description("启动时的时间轮重建是否已完成，为0时依赖兜底扫描")
+                .register(registry);
+        Gauge.builder("ceramic.order.payment.timeout.rebuild.duration", this, scheduler -> scheduler.rebuildMillis)
+                .description("启动时重建时间轮的耗时")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void rebuildQuietly() {
+        long startTime = System.currentTimeMillis();
+        List<TimingWheel.Node> due = new ArrayList<>();
+        int[] count = new int[1];
+        try {
+            orderRepository.scanIdsByStatus(OrderStatus.PENDING_PAYMENT, null, REBUILD_BATCH_SIZE, (orderId, createTime) -> {
+                schedule(orderId, deadlineOf(createTime), due);
+                count[0]++;
+            });
+        } catch (RuntimeException e) {
+            // 保留已加入的订单并关闭其中已超时的，新订单仍通过事件加入；重试时重复扫描到的订单会覆盖原位置
+            log.error("重建未支付订单时间轮失败，{}后重试", retryDelay, e);
+            backlog = wheel.size();
+            close(due);
+            scheduleRebuildRetry();
+            return;
+        }
+        rebuilt = true;
+        rebuildMillis = System.currentTimeMillis() - startTime;
+        backlog = wheel.size();
+        log.info("未支付订单时间轮重建完成，共{}个订单，其中{}个已超时，耗时{}ms", count[0], due.size(), rebuildMillis);
+        close(due);
+    }
+
+    private void scheduleRebuildRetry() {
+        try {
+            executor.schedule(this::rebuildQuietly, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // 关闭过程中不再接受任务
+            log.warn("未支付订单时间轮重建重试未能调度: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 兜底扫描：只读取创建时间早于超时时间点的待支付订单，正常情况下结果为空
+     */
+    private void sweepQuietly() {
+        List<TimingWheel.Node> due = new ArrayList<>();
+        try {
+            orderRepository.scanIdsByStatus(OrderStatus.PENDING_PAYMENT, LocalDateTime.now().minus(timeout),
+                    REBUILD_BATCH_SIZE, (orderId, createTime) -> {
+                        wheel.remove(orderId);
+                        due.add(new TimingWheel.Node(orderId, deadlineOf(createTime)));
+                    });
+        } catch (RuntimeException e) {
+            log.error("扫描已超时的未支付订单失败，下个周期重试", e);
+        }
+        if (!due.isEmpty()) {
+            sweptCount.addAndGet(due.size());
+            log.warn("兜底扫描发现{}个已超时未关闭的订单", due.size());
+            backlog = wheel.size();
+            close(due);
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            List<TimingWheel.Node> due = new ArrayList<>();
+            Command command;
+            while ((command = commands.poll()) != null) {
+                if (command.deadline < 0) {
+                    wheel.remove(command.orderId);
+                } else {
+                    schedule(command.orderId, command.deadline, due);
+                }
+            }
+            wheel.advanceTo(System.currentTimeMillis(), due);
+            backlog = wheel.size();
+            close(due);
+        } catch (RuntimeException e) {
+            log.error("未支付订单超时处理失败", e);
+        }
+    }
+
+    private void schedule(long orderId, long deadline, List<TimingWheel.Node> due) {
+        if (!wheel.schedule(orderId, deadline)) {
+            due.add(new TimingWheel.Node(orderId, deadline));
+        }
+    }
+
+    private void close(List<TimingWheel.Node> due) {
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<TimingWheel.Node> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            List<Long> orderIds = new ArrayList<>(batch.size());
+            for (TimingWheel.Node node : batch) {
+                orderIds.add(node.id);
+            }
+            try {
+                // create_time 按秒存储可能被向上取整，放宽一秒避免刚到期的订单被跳过
+                List<Order> closed = orderApplicationService.closeUnpaidOrders(
+                        orderIds, LocalDateTime.now().minus(timeout).plusSeconds(1));
+                closedCount.addAndGet(closed.size());
+                skippedCount.addAndGet(batch.size() - closed.size());
+                recordLag(batch);
+                if (!closed.isEmpty()) {
+                    log.info("关闭超时未支付订单{}个", closed.size());
+                }
+            } catch (RuntimeException e) {
+                failedBatchCount.incrementAndGet();
+                log.warn("关闭超时未支付订单失败，{}后重试: {}", retryDelay, e.getMessage());
+                long retryAt = System.currentTimeMillis() + retryDelay.toMillis();
+                for (TimingWheel.Node node : batch) {
+                    wheel.schedule(node.id, retryAt);
+                }
+                backlog = wheel.size();
+            }
+        }
+    }
+
+    private void recordLag(List<TimingWheel.Node> batch) {
+        long now = System.currentTimeMillis();
+        long lag = 0;
+        for (TimingWheel.Node node : batch) {
+            lag = Math.max(lag, now - node.deadline);
+        }
+        lastExpiryLagMillis = lag;
+    }
+
+    private long deadlineOf(LocalDateTime createTime) {
+        return createTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + timeout.toMillis();
+    }
+
+    /**
+     * 订阅者线程提交给调度线程的变更，deadline 为负表示移除
+     */
+    private static final class Command {
+        private final long orderId;
+        private final long deadline;
+
+        private Command(long orderId, long deadline) {
+            this.orderId = orderId;
+            this.deadline = deadline;
+        }
+
+        private static Command schedule(long orderId, long deadline) {
+            return new Command(orderId, deadline);
+        }
+
+        private static Command remove(long orderId) {
+            return new Command(orderId, -1);
+        }
+    }
+}
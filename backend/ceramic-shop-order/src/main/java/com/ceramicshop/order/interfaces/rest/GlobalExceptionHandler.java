@@ -1,93 +0,0 @@
-package com.ceramicshop.order.interfaces.rest;
-
-import com.ceramicshop.order.interfaces.rest.response.ApiResponse;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
-import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
-import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
-
-import javax.validation.ConstraintViolationException;
-import java.util.HashMap;
-import java.util.Map;
-
-/**
- * 全局异常处理器
- * 统一处理API异常，返回标准格式的ApiResponse
- */
-@RestControllerAdvice
-public class GlobalExceptionHandler {
-
-    /**
-     * 处理业务逻辑异常
-     */
-    @ExceptionHandler(IllegalArgumentException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Void> handleIllegalArgumentException(IllegalArgumentException ex) {
-        return ApiResponse.error(ex.getMessage());
-    }
-
-    /**
-     * 处理业务状态异常
-     */
-    @ExceptionHandler(IllegalStateException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Void> handleIllegalStateException(IllegalStateException ex) {
-        return ApiResponse.error(ex.getMessage());
-    }
-    
-    /**
-     * 处理请求参数校验异常
-     */
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
-        return ApiResponse.error(1001, "参数校验失败", errors);
-    }
-
-    /**
-     * 处理参数类型不匹配异常
-     */
-    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Void> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
-        String message = String.format("参数'%s'的类型应该是%s", 
-                ex.getName(), ex.getRequiredType().getSimpleName());
-        return ApiResponse.error(message);
-    }
-
-    /**
-     * 处理约束违反异常
-     */
-    @ExceptionHandler(ConstraintViolationException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Map<String, String>> handleConstraintViolation(ConstraintViolationException ex) {
-        Map<String, String> errors = new HashMap<>();
-        ex.getConstraintViolations().forEach(violation -> {
-            String fieldName = violation.getPropertyPath().toString();
-            String errorMessage = violation.getMessage();
-            errors.put(fieldName, errorMessage);
-        });
-        return ApiResponse.error(1002, "参数约束违反", errors);
-    }
-
-    /**
-     * 处理所有其他未捕获的异常
-     */
-    @ExceptionHandler(Exception.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ApiResponse<Void> handleAllUncaughtException(Exception ex) {
-        // 记录异常到日志系统
-        ex.printStackTrace();
-        return ApiResponse.error(9999, "服务器内部错误，请稍后再试");
-    }
-} 
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.ceramicshop.order.interfaces.rest;
 
+import com.ceramicshop.common.dto.ApiResponse;
+import com.ceramicshop.common.security.CurrentUser;
+import com.ceramicshop.common.trace.RequestTrace;
 import com.ceramicshop.order.application.OrderApplicationService;
 import com.ceramicshop.order.application.dto.AddressDTO;
 import com.ceramicshop.order.application.dto.OrderDTO;
+import com.ceramicshop.order.application.dto.OrderPageDTO;
 import com.ceramicshop.order.domain.model.OrderStatus;
 import com.ceramicshop.order.interfaces.rest.request.CreateOrderRequest;
-import com.ceramicshop.order.interfaces.rest.response.ApiResponse;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
@@ -29,9 +32,8 @@ public class OrderController {
      * 创建订单
      */
     @PostMapping
-    public ApiResponse<OrderDTO> createOrder(@Valid @RequestBody CreateOrderRequest request, @RequestHeader("Authorization") String token) {
-        // 提取用户ID
-        Long userId = extractUserIdFromToken(token);
+    public ApiResponse<OrderDTO> createOrder(@Valid @RequestBody CreateOrderRequest request, CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
         
         // 调试日志
         System.out.println("-----创建订单请求-----");
@@ -49,18 +51,18 @@ public class OrderController {
         }
         
         // 通过地址ID创建订单
-        OrderDTO orderDTO = orderApplicationService.createOrder(userId, request.getAddressId(), request.getItems());
-        
-        return ApiResponse.success(orderDTO);
+        try (RequestTrace.Span ignored = RequestTrace.span("OrderApplicationService.createOrder")) {
+            OrderDTO orderDTO = orderApplicationService.createOrder(userId, request.getAddressId(), request.getItems());
+            return ApiResponse.success(orderDTO);
+        }
     }
     
     /**
      * 获取订单详情
      */
     @GetMapping("/{id}")
-    public ApiResponse<OrderDTO> getOrderDetail(@PathVariable Long id, @RequestHeader("Authorization") String token) {
-        // 提取用户ID
-        Long userId = extractUserIdFromToken(token);
+    public ApiResponse<OrderDTO> getOrderDetail(@PathVariable Long id, CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
         
         // 获取订单详情
         OrderDTO orderDTO = orderApplicationService.getOrderById(id, userId);
@@ -72,9 +74,8 @@ public class OrderController {
      * 获取用户所有订单
      */
     @GetMapping
-    public ApiResponse<List<OrderDTO>> getUserOrders(@RequestHeader("Authorization") String token) {
-        // 提取用户ID
-        Long userId = extractUserIdFromToken(token);
+    public ApiResponse<List<OrderDTO>> getUserOrders(CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
         
         // 获取用户所有订单
         List<OrderDTO> orders = orderApplicationService.getUserOrders(userId);
@@ -82,13 +83,31 @@ public class OrderController {
         return ApiResponse.success(orders);
     }
     
+    /**
+     * 游标分页获取用户订单
+     */
+    @GetMapping("/page")
+    public ApiResponse<OrderPageDTO> getUserOrderPage(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size,
+                                                     @RequestParam(required = false) String status,
+                                                     CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
+        
+        // 转换状态
+        OrderStatus orderStatus = status != null && !status.isEmpty() ? OrderStatus.valueOf(status) : null;
+        
+        // 获取一页订单
+        OrderPageDTO page = orderApplicationService.getUserOrderPage(userId, orderStatus, cursor, size);
+        
+        return ApiResponse.success(page);
+    }
+    
     /**
      * 获取用户特定状态的订单
      */
     @GetMapping("/status/{status}")
-    public ApiResponse<List<OrderDTO>> getUserOrdersByStatus(@PathVariable String status, @RequestHeader("Authorization") String token) {
-        // 提取用户ID
-        Long userId = extractUserIdFromToken(token);
+    public ApiResponse<List<OrderDTO>> getUserOrdersByStatus(@PathVariable String status, CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
         
         // 转换状态
         OrderStatus orderStatus = OrderStatus.valueOf(status);
@@ -103,9 +122,8 @@ public class OrderController {
      * 支付订单
      */
     @PostMapping("/{id}/pay")
-    public ApiResponse<OrderDTO> payOrder(@PathVariable Long id, @RequestHeader("Authorization") String token) {
-        // 提取用户ID
-        Long userId = extractUserIdFromToken(token);
+    public ApiResponse<OrderDTO> payOrder(@PathVariable Long id, CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
         
         // 支付订单
         OrderDTO orderDTO = orderApplicationService.payOrder(id, userId);
@@ -117,9 +135,8 @@ public class OrderController {
      * 取消订单
      */
     @PostMapping("/{id}/cancel")
-    public ApiResponse<OrderDTO> cancelOrder(@PathVariable Long id, @RequestHeader("Authorization") String token) {
-        // 提取用户ID
-        Long userId = extractUserIdFromToken(token);
+    public ApiResponse<OrderDTO> cancelOrder(@PathVariable Long id, CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
         
         // 取消订单
         OrderDTO orderDTO = orderApplicationService.cancelOrder(id, userId);
@@ -142,53 +159,12 @@ public class OrderController {
      * 完成订单
      */
     @PostMapping("/{id}/complete")
-    public ApiResponse<OrderDTO> completeOrder(@PathVariable Long id, @RequestHeader("Authorization") String token) {
-        // 提取用户ID
-        Long userId = extractUserIdFromToken(token);
+    public ApiResponse<OrderDTO> completeOrder(@PathVariable Long id, CurrentUser currentUser) {
+        Long userId = currentUser.getUserId();
         
         // 完成订单
         OrderDTO orderDTO = orderApplicationService.completeOrder(id, userId);
         
         return ApiResponse.success(orderDTO);
     }
-    
-    /**
-     * 从JWT token中提取用户ID
-     */
-    private Long extractUserIdFromToken(String token) {
-        if (token == null || token.isEmpty()) {
-            throw new IllegalArgumentException("Token不能为空");
-        }
-
-        // 调试日志
-        System.out.println("正在验证token: " + token);
-
-        // 移除Bearer前缀
-        String tokenValue = token;
-        if (token.startsWith("Bearer ")) {
-            tokenValue = token.substring(7);
-        }
-
-        // 在实际项目中，这里应该使用JWT库验证token
-        // 这里简化处理，假设token格式为"mock-token-for-user-123"
-        if (!tokenValue.startsWith("mock-token-for-user-")) {
-            throw new IllegalArgumentException("无效的token格式");
-        }
-
-        String userIdStr = tokenValue.replace("mock-token-for-user-", "");
-        Long userId;
-        try {
-            userId = Long.parseLong(userIdStr);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("无效的token格式: " + token);
-        }
-
-        // 验证用户ID是否有效
-        if (userId <= 0) {
-            throw new IllegalArgumentException("无效的用户ID");
-        }
-
-        System.out.println("成功提取用户ID: " + userId);
-        return userId;
-    }
 } 
\ No newline at end of file
@@ -1,8 +1,8 @@
 package com.ceramicshop.order.interfaces.rest;
 
+import com.ceramicshop.common.dto.ApiResponse;
 import com.ceramicshop.order.application.ShippingAddressService;
 import com.ceramicshop.order.application.dto.ShippingAddressDTO;
-import com.ceramicshop.order.interfaces.rest.response.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -0,0 +1,109 @@
+package com.ceramicshop.order.application;
+
+import com.ceramicshop.order.domain.model.Order;
+import com.ceramicshop.order.domain.model.OrderStatus;
+import com.ceramicshop.order.domain.repository.OrderRepository;
+import com.ceramicshop.order.infrastructure.persistence.OrderPersistenceTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ceramicshop.order.infrastructure.persistence.OrderFixtures.newOrder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 订单状态变更并发测试
+ * 多个线程同时对同一订单支付和取消，只能有一个成功，其余因状态错误或版本冲突失败，不会出现后写覆盖先写
+ */
+@SpringJUnitConfig(OrderPersistenceTestConfiguration.class)
+class OrderApplicationServiceConcurrencyTest {
+
+    private static final int ORDERS = 30;
+    private static final int THREADS_PER_ACTION = 8;
+
+    @Autowired
+    private OrderApplicationService orderApplicationService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void concurrentPayAndCancelLetExactlyOneTransitionWin() throws Exception {
+        long userId = 42L;
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderRepository.save(newOrder(userId, 2)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_PER_ACTION * 2);
+        AtomicInteger paid = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            for (Long orderId : orderIds) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS_PER_ACTION * 2; t++) {
+                    boolean pay = t % 2 == 0;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            if (pay) {
+                                orderApplicationService.payOrder(orderId, userId);
+                                paid.incrementAndGet();
+                            } else {
+                                orderApplicationService.cancelOrder(orderId, userId);
+                                cancelled.incrementAndGet();
+                            }
+                        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+                            rejected.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(paid.get() + cancelled.get()).isEqualTo(ORDERS);
+        assertThat(rejected.get()).isEqualTo(ORDERS * (THREADS_PER_ACTION * 2 - 1));
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        int paidInDatabase = 0;
+        for (Long orderId : orderIds) {
+            Order order = orderRepository.findById(orderId).get();
+            assertThat(order.getStatus()).isIn(OrderStatus.PAID, OrderStatus.CANCELLED);
+            if (order.getStatus() == OrderStatus.PAID) {
+                paidInDatabase++;
+            }
+            assertThat(order.getVersion()).isEqualTo(1);
+            // 创建事件加上唯一一次成功变更的事件
+            List<String> events = jdbc.queryForList(
+                    "SELECT event_type FROM order_outbox WHERE order_id = ? ORDER BY id", String.class, orderId);
+            assertThat(events).containsExactly("ORDER_CREATED",
+                    order.getStatus() == OrderStatus.PAID ? "ORDER_PAID" : "ORDER_CANCELLED");
+        }
+        // 同一内存库中还有其他测试的订单，只统计本测试创建的
+        assertThat(paidInDatabase).isEqualTo(paid.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ceramicshop.order.infrastructure.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单编号生成微基准：雪花算法的 nextId 和 nextOrderNumber 与改造前的 currentTimeMillis + UUID 截取对比，
+ * 分别测量单线程和8个线程争抢同一个生成器。
+ * 单节点每毫秒最多4096个ID，基准的调用速率远高于此，序列号会持续进位到未来的毫秒，
+ * 因此把时钟回拨上限放到一天，避免测量中途被当作时钟回拨拒绝；测到的是生成开销，不是吞吐上限。
+ * test-compile 后以测试类路径运行 main 方法，不随单元测试执行。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowflakeOrderNumberGeneratorBenchmark {
+
+    private final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1L, Duration.ofDays(1));
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long nextIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String nextOrderNumber() {
+        return generator.nextOrderNumber();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextOrderNumberContended() {
+        return generator.nextOrderNumber();
+    }
+
+    /**
+     * 改造前 OrderDomainServiceImpl 的做法
+     */
+    @Benchmark
+    public String legacyUuid() {
+        return legacyOrderNumber();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyUuidContended() {
+        return legacyOrderNumber();
+    }
+
+    private static String legacyOrderNumber() {
+        return "ORD" + System.currentTimeMillis() +
+                UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SnowflakeOrderNumberGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
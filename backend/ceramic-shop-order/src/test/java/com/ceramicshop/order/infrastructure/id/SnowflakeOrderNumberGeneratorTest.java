@@ -0,0 +1,85 @@
+package com.ceramicshop.order.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 雪花算法订单编号生成器测试
+ */
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    @Test
+    void idsAreUniqueAcrossThreadsAndIncreasingWithinEachThread() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7L, Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                if (all[i] == all[i - 1]) {
+                    throw new AssertionError("重复的ID: " + all[i]);
+                }
+            }
+            // 节点ID位于序列号之上的10位
+            assertThat((all[0] >>> 12) & 1023).isEqualTo(7);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void formatKeepsStringOrderEqualToNumericOrder() {
+        assertThat(SnowflakeOrderNumberGenerator.format(42L)).isEqualTo("ORD0000000000000000042");
+        assertThat(SnowflakeOrderNumberGenerator.format(Long.MAX_VALUE)).isEqualTo("ORD" + Long.MAX_VALUE);
+        assertThat(SnowflakeOrderNumberGenerator.format(99L)).isLessThan(SnowflakeOrderNumberGenerator.format(100L));
+    }
+
+    @Test
+    void rejectsMissingNodeId() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(null, Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(1024L, Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
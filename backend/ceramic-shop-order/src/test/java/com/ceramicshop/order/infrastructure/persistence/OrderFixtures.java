@@ -0,0 +1,43 @@
+package com.ceramicshop.order.infrastructure.persistence;
+
+import com.ceramicshop.order.domain.model.Order;
+import com.ceramicshop.order.domain.model.OrderItem;
+import com.ceramicshop.order.domain.model.ShippingAddress;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 测试订单构造
+ */
+public final class OrderFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private OrderFixtures() {
+    }
+
+    /**
+     * 新建一个待支付订单，包含指定行数的订单项和一个收货地址
+     */
+    public static Order newOrder(Long userId, int itemCount) {
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItem.create(1000L + i, "青花瓷碗" + i, null, null, new BigDecimal("59.00"), 1 + i % 3));
+        }
+        ShippingAddress address = ShippingAddress.builder()
+                .receiverName("张三")
+                .receiverPhone("13800000000")
+                .province("江西省")
+                .city("景德镇市")
+                .district("珠山区")
+                .detailAddress("陶瓷大道1号")
+                .createTime(LocalDateTime.now())
+                .updateTime(LocalDateTime.now())
+                .build();
+        return Order.create("TEST" + SEQUENCE.incrementAndGet(), userId, address, null, items);
+    }
+}
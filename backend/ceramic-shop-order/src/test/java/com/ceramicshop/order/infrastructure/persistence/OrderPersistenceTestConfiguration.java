@@ -0,0 +1,122 @@
+package com.ceramicshop.order.infrastructure.persistence;
+
+import com.ceramicshop.order.application.OrderApplicationService;
+import com.ceramicshop.order.application.ShippingAddressService;
+import com.ceramicshop.order.application.UserAddressClient;
+import com.ceramicshop.order.domain.event.OrderEventSubscriber;
+import com.ceramicshop.order.domain.repository.OrderRepository;
+import com.ceramicshop.order.domain.service.OrderDomainService;
+import com.ceramicshop.order.infrastructure.outbox.OrderOutboxRelay;
+import com.ceramicshop.order.infrastructure.outbox.OrderOutboxWriter;
+import com.ceramicshop.order.infrastructure.persistence.cache.OrderAggregateCache;
+import com.ceramicshop.order.infrastructure.persistence.mapper.OrderItemMapper;
+import com.ceramicshop.order.infrastructure.persistence.mapper.OrderMapper;
+import com.ceramicshop.order.infrastructure.persistence.mapper.OrderOutboxMapper;
+import com.ceramicshop.order.infrastructure.persistence.mapper.ShippingAddressMapper;
+import com.ceramicshop.order.infrastructure.persistence.repository.OrderRepositoryImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.annotation.MapperScan;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 订单持久化测试配置
+ * 使用 H2 的 MySQL 兼容模式加载真实的 Mapper XML、事务和仓储，地址、库存等外部依赖用 Mockito 替代；
+ * 发件箱中继不启动，事件只写入 order_outbox。每个测试上下文使用独立的内存库。
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableTransactionManagement
+@MapperScan("com.ceramicshop.order.infrastructure.persistence.mapper")
+public class OrderPersistenceTestConfiguration {
+
+    @Bean
+    public DataSource dataSource() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:order-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setDriverClassName("org.h2.Driver");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-order-h2.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource, StatementCounter statementCounter) throws Exception {
+        org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        SqlSessionFactoryBean factory = new SqlSessionFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setConfiguration(configuration);
+        factory.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath:mapper/*.xml"));
+        factory.setPlugins(statementCounter);
+        return factory.getObject();
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    @Bean
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Bean
+    public OrderAggregateCache orderAggregateCache() {
+        return new OrderAggregateCache(Duration.ofMinutes(10), 10000);
+    }
+
+    @Bean
+    public OrderOutboxRelay orderOutboxRelay(OrderOutboxMapper outboxMapper, ObjectMapper objectMapper,
+                                             ObjectProvider<OrderEventSubscriber> subscribers) {
+        return new OrderOutboxRelay(outboxMapper, objectMapper, subscribers,
+                false, Duration.ofMillis(500), 100, 10, Duration.ZERO);
+    }
+
+    @Bean
+    public OrderOutboxWriter orderOutboxWriter(OrderOutboxMapper outboxMapper, ObjectMapper objectMapper,
+                                               OrderOutboxRelay relay) {
+        return new OrderOutboxWriter(outboxMapper, objectMapper, relay);
+    }
+
+    @Bean
+    public OrderRepository orderRepository(OrderMapper orderMapper, OrderItemMapper orderItemMapper,
+                                           ShippingAddressMapper shippingAddressMapper, OrderOutboxWriter outboxWriter,
+                                           OrderAggregateCache orderCache) {
+        return new OrderRepositoryImpl(orderMapper, orderItemMapper, shippingAddressMapper, outboxWriter, orderCache);
+    }
+
+    @Bean
+    public OrderApplicationService orderApplicationService(OrderRepository orderRepository,
+                                                           TransactionTemplate transactionTemplate) {
+        return new OrderApplicationService(orderRepository, Mockito.mock(OrderDomainService.class),
+                Mockito.mock(ShippingAddressService.class), Mockito.mock(UserAddressClient.class),
+                20, 100, transactionTemplate, 3);
+    }
+}
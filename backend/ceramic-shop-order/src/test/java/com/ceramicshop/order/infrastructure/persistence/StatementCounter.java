@@ -0,0 +1,50 @@
+package com.ceramicshop.order.infrastructure.persistence;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 测试用 MyBatis 插件，按执行顺序记录语句ID（Mapper.方法），用于断言一次仓储调用发出的语句数
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class StatementCounter implements Interceptor {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        String id = ((MappedStatement) invocation.getArgs()[0]).getId();
+        int method = id.lastIndexOf('.');
+        statements.add(id.substring(id.lastIndexOf('.', method - 1) + 1));
+        return invocation.proceed();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    public List<String> statements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.ceramicshop.order.infrastructure.persistence.repository;
+
+import com.ceramicshop.order.domain.model.Order;
+import com.ceramicshop.order.domain.model.OrderItem;
+import com.ceramicshop.order.domain.model.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单聚合重建微基准：原先每行反射查找构造方法和字段逐个赋值，与现在的 rebuild 工厂方法对比
+ * 每次调用把一次列表查询得到的全部行重建成订单，行数据在 Setup 中预先生成，订单数和每单的订单项数可调。
+ * 每次调用产生上万个存活对象，固定堆大小避免堆扩容和频繁回收掩盖重建本身的差异。
+ * test-compile 后以测试类路径运行 main 方法，不随单元测试执行。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OrderRehydrationBenchmark {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    @Param({"10000"})
+    private int orders;
+
+    @Param({"1", "3", "10"})
+    private int itemsPerOrder;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private String[] orderNumbers;
+    private long[] userIds;
+    private BigDecimal[] prices;
+    private String[] productNames;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        orderNumbers = new String[orders];
+        userIds = new long[orders];
+        for (int i = 0; i < orders; i++) {
+            orderNumbers[i] = String.format("ORD%019d", 1_000_000L + i);
+            userIds[i] = 1 + random.nextInt(1000);
+        }
+        int rows = orders * itemsPerOrder;
+        prices = new BigDecimal[rows];
+        productNames = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            prices[i] = BigDecimal.valueOf(1000 + random.nextInt(100_000), 2);
+            productNames[i] = "青花瓷碗" + random.nextInt(500);
+        }
+    }
+
+    @Benchmark
+    public List<Order> rebuildFactory() {
+        List<Order> result = new ArrayList<>(orders);
+        for (int o = 0; o < orders; o++) {
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < itemsPerOrder; i++) {
+                int row = o * itemsPerOrder + i;
+                BigDecimal price = prices[row];
+                items.add(OrderItem.rebuild((long) row, (long) o, 1000L + row, productNames[row], null, null,
+                        price, 1, price, now, now));
+                total = total.add(price);
+            }
+            result.add(Order.rebuild((long) o, orderNumbers[o], userIds[o], STATUSES[o % STATUSES.length],
+                    total, total, BigDecimal.ZERO, BigDecimal.ZERO, null, null, null, null, null,
+                    "STANDARD", "ONLINE", null, now, now, 0, null, items));
+        }
+        return result;
+    }
+
+    /**
+     * 改造前 OrderRepositoryImpl.toDomain 的做法
+     */
+    @Benchmark
+    public List<Order> reflectionPerRow() throws Exception {
+        List<Order> result = new ArrayList<>(orders);
+        for (int o = 0; o < orders; o++) {
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < itemsPerOrder; i++) {
+                int row = o * itemsPerOrder + i;
+                BigDecimal price = prices[row];
+                Constructor<OrderItem> itemConstructor = OrderItem.class.getDeclaredConstructor();
+                itemConstructor.setAccessible(true);
+                OrderItem item = itemConstructor.newInstance();
+                setFieldValue(item, "id", (long) row);
+                setFieldValue(item, "orderId", (long) o);
+                setFieldValue(item, "productId", 1000L + row);
+                setFieldValue(item, "productName", productNames[row]);
+                setFieldValue(item, "productImage", null);
+                setFieldValue(item, "productSpecs", null);
+                setFieldValue(item, "price", price);
+                setFieldValue(item, "quantity", 1);
+                setFieldValue(item, "subtotal", price);
+                setFieldValue(item, "createTime", now);
+                setFieldValue(item, "updateTime", now);
+                items.add(item);
+                total = total.add(price);
+            }
+            Constructor<Order> constructor = Order.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            Order order = constructor.newInstance();
+            setFieldValue(order, "id", (long) o);
+            setFieldValue(order, "orderNumber", orderNumbers[o]);
+            setFieldValue(order, "userId", userIds[o]);
+            setFieldValue(order, "status", STATUSES[o % STATUSES.length]);
+            setFieldValue(order, "totalAmount", total);
+            setFieldValue(order, "paymentAmount", total);
+            setFieldValue(order, "shippingFee", BigDecimal.ZERO);
+            setFieldValue(order, "discountAmount", BigDecimal.ZERO);
+            setFieldValue(order, "shippingMethod", "STANDARD");
+            setFieldValue(order, "paymentMethod", "ONLINE");
+            setFieldValue(order, "remark", null);
+            setFieldValue(order, "createTime", now);
+            setFieldValue(order, "updateTime", now);
+            setFieldValue(order, "payTime", null);
+            setFieldValue(order, "shipTime", null);
+            setFieldValue(order, "deliveryTime", null);
+            setFieldValue(order, "completeTime", null);
+            setFieldValue(order, "closeTime", null);
+            setFieldValue(order, "orderItems", items);
+            result.add(order);
+        }
+        return result;
+    }
+
+    private static void setFieldValue(Object obj, String fieldName, Object value) throws Exception {
+        Field field = obj.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(obj, value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderRehydrationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.ceramicshop.order.infrastructure.persistence.repository;
+
+import com.ceramicshop.order.domain.model.Order;
+import com.ceramicshop.order.domain.model.OrderItem;
+import com.ceramicshop.order.domain.model.OrderStatus;
+import com.ceramicshop.order.domain.repository.OrderRepository;
+import com.ceramicshop.order.infrastructure.persistence.OrderPersistenceTestConfiguration;
+import com.ceramicshop.order.infrastructure.persistence.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.ceramicshop.order.infrastructure.persistence.OrderFixtures.newOrder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 订单仓储语句数回归测试
+ * 列表查询的语句数必须与订单数无关，保存订单的语句数必须与订单行数无关，防止重新引入逐条读写
+ */
+@SpringJUnitConfig(OrderPersistenceTestConfiguration.class)
+class OrderRepositoryImplTest {
+
+    private static final int ORDER_COUNT = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private long userId;
+
+    @BeforeEach
+    void createOrders() {
+        userId = System.nanoTime();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orderRepository.save(newOrder(userId, ITEMS_PER_ORDER));
+        }
+        statementCounter.reset();
+    }
+
+    @Test
+    void findByUserIdUsesThreeStatementsRegardlessOfOrderCount() {
+        List<Order> orders = orderRepository.findByUserId(userId);
+
+        assertThat(orders).hasSize(ORDER_COUNT);
+        assertThat(orders).allSatisfy(order -> {
+            assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER);
+            assertThat(order.getShippingAddress()).isNotNull();
+        });
+        assertThat(statementCounter.statements()).containsExactly(
+                "OrderMapper.selectByUserId",
+                "OrderItemMapper.selectByOrderIds",
+                "ShippingAddressMapper.selectByOrderIds");
+    }
+
+    @Test
+    void findByUserIdAndStatusUsesThreeStatementsRegardlessOfOrderCount() {
+        List<Order> orders = orderRepository.findByUserIdAndStatus(userId, OrderStatus.PENDING_PAYMENT);
+
+        assertThat(orders).hasSize(ORDER_COUNT);
+        assertThat(statementCounter.statements()).hasSize(3);
+    }
+
+    @Test
+    void saveInsertsAllItemsWithOneStatement() {
+        Order order = orderRepository.save(newOrder(userId, 50));
+
+        assertThat(statementCounter.statements()).containsExactly(
+                "OrderMapper.insert",
+                "ShippingAddressMapper.insert",
+                "OrderItemMapper.insertBatch",
+                "OrderOutboxMapper.insert");
+        assertThat(orderRepository.findById(order.getId()).get().getOrderItems())
+                .extracting(OrderItem::getProductId)
+                .containsExactlyElementsOf(order.getOrderItems().stream()
+                        .map(OrderItem::getProductId)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void saveSplitsVeryLargeOrdersIntoChunksOf500Rows() {
+        orderRepository.save(newOrder(userId, 1200));
+
+        assertThat(statementCounter.statements()).filteredOn("OrderItemMapper.insertBatch"::equals).hasSize(3);
+    }
+
+    @Test
+    void findByOrderNumberDoesNotServeAggregateCachedBeforeUpdate() {
+        Order saved = orderRepository.save(newOrder(userId, 1));
+        Order loaded = orderRepository.findByOrderNumber(saved.getOrderNumber()).get();
+
+        loaded.pay();
+        orderRepository.update(loaded);
+
+        assertThat(orderRepository.findByOrderNumber(saved.getOrderNumber()).get().getStatus())
+                .isEqualTo(OrderStatus.PAID);
+        assertThat(orderRepository.findByOrderNumber("NO-SUCH-ORDER")).isEmpty();
+    }
+}
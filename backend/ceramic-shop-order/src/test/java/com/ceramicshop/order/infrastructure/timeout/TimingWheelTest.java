@@ -0,0 +1,178 @@
+package com.ceramicshop.order.infrastructure.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 分层时间轮测试
+ * 刻度10毫秒、每层4格：第0层覆盖40毫秒，第1层每格40毫秒、覆盖160毫秒，第2层每格160毫秒
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 4;
+
+    @Test
+    void deadlineExactlyOnTickFiresAtThatTick() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 0);
+        assertThat(wheel.schedule(1, 30)).isTrue();
+
+        assertThat(advance(wheel, 29)).isEmpty();
+        assertThat(advance(wheel, 30)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineBetweenTicksFiresAtNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 0);
+        wheel.schedule(1, 31);
+
+        assertThat(advance(wheel, 39)).isEmpty();
+        assertThat(advance(wheel, 40)).containsExactly(1L);
+    }
+
+    @Test
+    void deadlineNotAfterCurrentTickIsRejected() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 25);
+
+        // 起点向下取整到20
+        assertThat(wheel.schedule(1, 20)).isFalse();
+        assertThat(wheel.schedule(2, 21)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deadlineAtLevelOneSlotStartFiresWhileCascading() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 0);
+        // 80 超出第0层，放在第1层 [80, 120) 格，推进到80时下放即到期
+        wheel.schedule(1, 80);
+
+        assertThat(advance(wheel, 79)).isEmpty();
+        assertThat(advance(wheel, 80)).containsExactly(1L);
+    }
+
+    @Test
+    void deadlineInsideLevelOneSlotIsCascadedToLevelZero() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 0);
+        wheel.schedule(1, 81);
+        wheel.schedule(2, 119);
+        wheel.schedule(3, 120);
+
+        assertThat(advance(wheel, 80)).isEmpty();
+        assertThat(advance(wheel, 89)).isEmpty();
+        assertThat(advance(wheel, 90)).containsExactly(1L);
+        assertThat(advance(wheel, 119)).isEmpty();
+        assertThat(advance(wheel, 120)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void deadlineOnHigherLevelCascadesThroughEveryLevel() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 0);
+        // 第2层 [320, 480) 格，320 时下放到第1层，再在 400 时下放到第0层
+        wheel.schedule(1, 405);
+
+        assertThat(advance(wheel, 409)).isEmpty();
+        assertThat(advance(wheel, 410)).containsExactly(1L);
+    }
+
+    @Test
+    void reschedulingReplacesThePreviousDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 0);
+        wheel.schedule(1, 30);
+        wheel.schedule(1, 200);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(advance(wheel, 190)).isEmpty();
+        assertThat(advance(wheel, 200)).containsExactly(1L);
+
+        wheel.schedule(2, 500);
+        wheel.schedule(2, 210);
+        assertThat(advance(wheel, 210)).containsExactly(2L);
+        assertThat(advance(wheel, 600)).isEmpty();
+    }
+
+    @Test
+    void removeAfterCascadeCancelsTheTask() {
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, 0);
+        wheel.schedule(1, 95);
+        wheel.schedule(2, 96);
+
+        // 80 时两个任务都从第1层下放到第0层
+        assertThat(advance(wheel, 80)).isEmpty();
+        wheel.remove(1);
+        wheel.remove(42);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(advance(wheel, 200)).containsExactly(2L);
+    }
+
+    @Test
+    void neverFiresEarlyAndAtMostOneTickLate() {
+        Random random = new Random(11);
+        long start = 1_000_003;
+        TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, start);
+        Map<Long, Long> deadlines = new HashMap<>();
+        long now = start;
+        long nextId = 0;
+        for (int round = 0; round < 2000; round++) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                long id = random.nextInt(3) == 0 && !deadlines.isEmpty() ? pickAny(deadlines, random) : nextId++;
+                long deadline = now + 1 + random.nextInt(5000);
+                if (wheel.schedule(id, deadline)) {
+                    deadlines.put(id, deadline);
+                } else {
+                    deadlines.remove(id);
+                }
+            }
+            if (random.nextInt(10) == 0 && !deadlines.isEmpty()) {
+                long id = pickAny(deadlines, random);
+                wheel.remove(id);
+                deadlines.remove(id);
+            }
+            // 逐个刻度推进，每个刻度触发的任务到期时间都落在 (上一刻度, 本刻度]
+            long target = now + random.nextInt(60);
+            for (long tick = now - now % TICK + TICK; tick <= target; tick += TICK) {
+                List<TimingWheel.Node> expired = new ArrayList<>();
+                wheel.advanceTo(tick, expired);
+                for (TimingWheel.Node node : expired) {
+                    assertThat(deadlines.remove(node.id)).isEqualTo(node.deadline);
+                    assertThat(node.deadline).isLessThanOrEqualTo(tick).isGreaterThan(tick - TICK);
+                }
+                for (long deadline : deadlines.values()) {
+                    assertThat(deadline).isGreaterThan(tick);
+                }
+            }
+            now = target;
+            assertThat(wheel.size()).isEqualTo(deadlines.size());
+        }
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new TimingWheel(0, WHEEL_SIZE, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel(TICK, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> advance(TimingWheel wheel, long time) {
+        List<TimingWheel.Node> expired = new ArrayList<>();
+        wheel.advanceTo(time, expired);
+        List<Long> ids = new ArrayList<>();
+        for (TimingWheel.Node node : expired) {
+            ids.add(node.id);
+        }
+        return ids;
+    }
+
+    private static long pickAny(Map<Long, Long> deadlines, Random random) {
+        List<Long> ids = new ArrayList<>(deadlines.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
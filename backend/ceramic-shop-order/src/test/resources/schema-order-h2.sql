@@ -0,0 +1,68 @@
+-- 订单模块测试表结构（H2 MySQL兼容模式），与 db_schema.sql 及 update_*.sql 迁移后的列一致，省略外键
+CREATE TABLE orders (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_number VARCHAR(50) NOT NULL,
+    user_id BIGINT NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    payment_amount DECIMAL(10,2) NOT NULL,
+    shipping_fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+    discount_amount DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING_PAYMENT',
+    pay_time DATETIME,
+    ship_time DATETIME,
+    delivery_time DATETIME,
+    complete_time DATETIME,
+    close_time DATETIME,
+    shipping_method VARCHAR(50) NOT NULL DEFAULT 'STANDARD',
+    payment_method VARCHAR(50) NOT NULL DEFAULT 'ONLINE',
+    remark TEXT,
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version INT NOT NULL DEFAULT 0
+);
+CREATE UNIQUE INDEX idx_orders_order_number ON orders(order_number);
+CREATE INDEX idx_orders_user_create_time_id ON orders(user_id, create_time, id);
+CREATE INDEX idx_orders_status_create_time_id ON orders(status, create_time, id);
+
+CREATE TABLE order_items (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    product_name VARCHAR(100) NOT NULL,
+    product_image VARCHAR(255),
+    product_specs VARCHAR(100),
+    quantity INT NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    subtotal DECIMAL(10,2) NOT NULL,
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_order_items_order_id ON order_items(order_id);
+
+CREATE TABLE order_shipping_address (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    receiver_name VARCHAR(50) NOT NULL,
+    receiver_phone VARCHAR(20) NOT NULL,
+    province VARCHAR(20) NOT NULL,
+    city VARCHAR(20) NOT NULL,
+    district VARCHAR(20) NOT NULL,
+    detail_address VARCHAR(200) NOT NULL,
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_shipping_address_order_id ON order_shipping_address(order_id);
+
+CREATE TABLE order_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    next_attempt_time DATETIME,
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    publish_time DATETIME
+);
+CREATE INDEX idx_order_outbox_pending ON order_outbox(publish_time, id);
+CREATE INDEX idx_order_outbox_order ON order_outbox(order_id, id);
@@ -0,0 +1,45 @@
+package com.ceramic.product.application.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 整单库存预占结果
+ */
+@Data
+public class InventoryReservationDTO {
+    
+    /**
+     * 是否预占成功，成功时所有商品行均已扣减
+     */
+    private boolean reserved;
+    
+    /**
+     * 每个商品行的检查结果
+     */
+    private List<Line> lines;
+    
+    @Data
+    public static class Line {
+        /**
+         * 产品ID
+         */
+        private Long productId;
+        
+        /**
+         * 请求数量
+         */
+        private int requestedQuantity;
+        
+        /**
+         * 预占前的可用库存
+         */
+        private int availableQuantity;
+        
+        /**
+         * 检查状态(AVAILABLE/NOT_FOUND/OFFLINE/INSUFFICIENT_STOCK)
+         */
+        private String status;
+    }
+}
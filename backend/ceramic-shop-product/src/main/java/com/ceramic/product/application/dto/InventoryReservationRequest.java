@@ -0,0 +1,30 @@
+package com.ceramic.product.application.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 整单库存预占请求
+ */
+@Data
+public class InventoryReservationRequest {
+    
+    /**
+     * 预占商品行
+     */
+    private List<Item> items;
+    
+    @Data
+    public static class Item {
+        /**
+         * 产品ID
+         */
+        private Long productId;
+        
+        /**
+         * 购买数量
+         */
+        private Integer quantity;
+    }
+}
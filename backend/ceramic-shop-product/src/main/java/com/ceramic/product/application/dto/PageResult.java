@@ -0,0 +1,42 @@
+package com.ceramic.product.application.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 分页结果
+ */
+@Data
+public class PageResult<T> {
+    
+    /**
+     * 当前页数据
+     */
+    private List<T> list;
+    
+    /**
+     * 总条数
+     */
+    private long total;
+    
+    /**
+     * 页码
+     */
+    private int pageNum;
+    
+    /**
+     * 每页条数
+     */
+    private int pageSize;
+    
+    public PageResult() {
+    }
+    
+    public PageResult(List<T> list, long total, int pageNum, int pageSize) {
+        this.list = list;
+        this.total = total;
+        this.pageNum = pageNum;
+        this.pageSize = pageSize;
+    }
+}
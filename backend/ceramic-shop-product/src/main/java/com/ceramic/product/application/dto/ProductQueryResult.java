@@ -0,0 +1,26 @@
+package com.ceramic.product.application.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 产品组合查询结果，包含分页数据和分面计数
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ProductQueryResult extends PageResult<ProductDTO> {
+    
+    /**
+     * 分面计数，键为维度(category/priceBucket/status)，值为该维度下各取值的产品数
+     */
+    private Map<String, Map<String, Long>> facets;
+    
+    public ProductQueryResult(List<ProductDTO> list, long total, int pageNum, int pageSize,
+                              Map<String, Map<String, Long>> facets) {
+        super(list, total, pageNum, pageSize);
+        this.facets = facets;
+    }
+}
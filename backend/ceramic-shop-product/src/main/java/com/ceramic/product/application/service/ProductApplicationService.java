@@ -1,15 +1,33 @@
 package com.ceramic.product.application.service;
 
+import com.ceramic.product.application.dto.InventoryReservationDTO;
+import com.ceramic.product.application.dto.InventoryReservationRequest;
+import com.ceramic.product.application.dto.PageResult;
 import com.ceramic.product.application.dto.ProductDTO;
+import com.ceramic.product.application.dto.ProductQueryParams;
+import com.ceramic.product.application.dto.ProductQueryResult;
 import com.ceramic.product.domain.model.aggregate.Product;
 import com.ceramic.product.domain.model.valueobject.*;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.repository.ProductFacetCounts;
 import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.domain.service.ProductCatalogView;
 import com.ceramic.product.domain.service.ProductDomainService;
+import com.ceramic.product.domain.service.ProductSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -18,12 +36,57 @@ import java.util.stream.Collectors;
 @Service
 public class ProductApplicationService {
     
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_PAGE_SIZE = 100;
+    
+    /**
+     * 价格分面的区间边界
+     */
+    private static final List<BigDecimal> PRICE_BUCKET_EDGES = Collections.unmodifiableList(Arrays.asList(
+            new BigDecimal("100"), new BigDecimal("300"), new BigDecimal("500"), new BigDecimal("1000")));
+    
+    /**
+     * 允许排序的字段，兼容驼峰与下划线写法
+     */
+    private static final Map<String, ProductCriteria.SortField> SORT_FIELDS = new HashMap<>();
+    
+    static {
+        SORT_FIELDS.put("id", ProductCriteria.SortField.ID);
+        SORT_FIELDS.put("name", ProductCriteria.SortField.NAME);
+        SORT_FIELDS.put("price", ProductCriteria.SortField.PRICE);
+        SORT_FIELDS.put("stock", ProductCriteria.SortField.STOCK);
+        SORT_FIELDS.put("createTime", ProductCriteria.SortField.CREATE_TIME);
+        SORT_FIELDS.put("create_time", ProductCriteria.SortField.CREATE_TIME);
+    }
+    
     private final ProductRepository productRepository;
     private final ProductDomainService productDomainService;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCatalogView catalogView;
+    private final Counter reservedCounter;
+    private final Counter rejectedCounter;
     
-    public ProductApplicationService(ProductRepository productRepository, ProductDomainService productDomainService) {
+    public ProductApplicationService(ProductRepository productRepository,
+                                     ProductDomainService productDomainService,
+                                     Optional<ProductSearchIndex> searchIndex,
+                                     Optional<ProductCatalogView> catalogView,
+                                     MeterRegistry meterRegistry) {
         this.productRepository = productRepository;
         this.productDomainService = productDomainService;
+        this.searchIndex = searchIndex.orElse(null);
+        this.catalogView = catalogView.orElse(null);
+        this.reservedCounter = inventoryCounter(meterRegistry, "reserved");
+        this.rejectedCounter = inventoryCounter(meterRegistry, "insufficient");
+    }
+    
+    /**
+     * 库存预占结果计数，insufficient 即库存不足导致的失败
+     */
+    private static Counter inventoryCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ceramic.product.inventory.reservations")
+                .description("库存预占与扣减次数")
+                .tag("result", result)
+                .register(meterRegistry);
     }
     
     /**
@@ -64,6 +127,132 @@ public class ProductApplicationService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * 全文检索产品，按相关度分页返回
+     * 索引未就绪或未启用时退回名称模糊查询
+     */
+    public PageResult<ProductDTO> searchProducts(String query, int pageNum, int pageSize) {
+        if (pageNum < 1) {
+            throw new IllegalArgumentException("页码必须大于0");
+        }
+        if (pageSize < 1 || pageSize > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页条数必须在1到" + MAX_SEARCH_PAGE_SIZE + "之间");
+        }
+        int offset = offsetOf(pageNum, pageSize);
+        
+        if (searchIndex == null || !searchIndex.isReady()) {
+            List<ProductDTO> matched = getProductsByNameLike(query);
+            List<ProductDTO> page = offset >= matched.size()
+                    ? Collections.emptyList()
+                    : matched.subList(offset, Math.min(offset + pageSize, matched.size()));
+            return new PageResult<>(page, matched.size(), pageNum, pageSize);
+        }
+        
+        ProductSearchIndex.Hits hits = searchIndex.search(query, offset, pageSize);
+        // 按相关度顺序输出
+        return new PageResult<>(findInOrder(hits.getProductIds()), hits.getTotal(), pageNum, pageSize);
+    }
+    
+    /**
+     * 页码换算为偏移量，按long计算，超出int范围时拒绝，避免溢出成负数偏移
+     */
+    private static int offsetOf(int pageNum, int pageSize) {
+        long offset = (long) (pageNum - 1) * pageSize;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("页码过大");
+        }
+        return (int) offset;
+    }
+    
+    /**
+     * 一条语句批量读取产品，按给定的ID顺序输出；索引或目录更新前已删除的产品跳过
+     */
+    private List<ProductDTO> findInOrder(List<ProductId> ids) {
+        Map<ProductId, Product> products = productRepository.findByIds(ids)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(product -> product != null)
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 组合条件分页查询产品，同时返回分类、价格区间、状态的分面计数
+     * 启用内存目录且条件支持时在内存中筛选，当前页产品按ID一次批量读取
+     */
+    public ProductQueryResult queryProducts(ProductQueryParams params) {
+        int pageNum = params.getPageNum() != null ? params.getPageNum() : 1;
+        int pageSize = params.getPageSize() != null ? params.getPageSize() : 10;
+        if (pageNum < 1) {
+            throw new IllegalArgumentException("页码必须大于0");
+        }
+        if (pageSize < 1 || pageSize > MAX_QUERY_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页条数必须在1到" + MAX_QUERY_PAGE_SIZE + "之间");
+        }
+        
+        ProductCriteria.SortField sortField = ProductCriteria.SortField.CREATE_TIME;
+        if (params.getOrderBy() != null && !params.getOrderBy().isEmpty()) {
+            sortField = SORT_FIELDS.get(params.getOrderBy());
+            if (sortField == null) {
+                throw new IllegalArgumentException("不支持的排序字段: " + params.getOrderBy());
+            }
+        }
+        boolean ascending = "asc".equalsIgnoreCase(params.getSort());
+        if (params.getSort() != null && !ascending && !"desc".equalsIgnoreCase(params.getSort())) {
+            throw new IllegalArgumentException("排序方式只能是asc或desc");
+        }
+        
+        ProductCriteria criteria = ProductCriteria.builder()
+                .name(params.getName())
+                .category(params.getCategory())
+                .minPrice(params.getMinPrice() != null ? BigDecimal.valueOf(params.getMinPrice()) : null)
+                .maxPrice(params.getMaxPrice() != null ? BigDecimal.valueOf(params.getMaxPrice()) : null)
+                .status(params.getStatus() != null ? ProductStatus.valueOf(params.getStatus()) : null)
+                .sortField(sortField)
+                .ascending(ascending)
+                .offset(offsetOf(pageNum, pageSize))
+                .limit(pageSize)
+                .priceBucketEdges(PRICE_BUCKET_EDGES)
+                .build();
+        
+        List<ProductDTO> list;
+        ProductFacetCounts counts;
+        if (catalogView != null && catalogView.supports(criteria)) {
+            ProductCatalogView.Result result = catalogView.query(criteria);
+            list = findInOrder(result.getProductIds());
+            counts = result.getFacetCounts();
+        } else {
+            list = productRepository.findByCriteria(criteria)
+                    .stream()
+                    .map(this::toDTO)
+                    .collect(Collectors.toList());
+            counts = productRepository.countFacets(criteria);
+        }
+        
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("category", counts.getByCategory());
+        Map<String, Long> byPrice = new LinkedHashMap<>();
+        for (int bucket = 0; bucket <= PRICE_BUCKET_EDGES.size(); bucket++) {
+            byPrice.put(priceBucketLabel(bucket), counts.getByPriceBucket().getOrDefault(bucket, 0L));
+        }
+        facets.put("priceBucket", byPrice);
+        facets.put("status", counts.getByStatus());
+        return new ProductQueryResult(list, counts.getTotal(), pageNum, pageSize, facets);
+    }
+    
+    /**
+     * 价格区间名称，如 100-300、1000+
+     */
+    private String priceBucketLabel(int bucket) {
+        if (bucket == PRICE_BUCKET_EDGES.size()) {
+            return PRICE_BUCKET_EDGES.get(bucket - 1).toPlainString() + "+";
+        }
+        String lower = bucket == 0 ? "0" : PRICE_BUCKET_EDGES.get(bucket - 1).toPlainString();
+        return lower + "-" + PRICE_BUCKET_EDGES.get(bucket).toPlainString();
+    }
+    
     /**
      * 创建产品
      */
@@ -169,7 +358,53 @@ public class ProductApplicationService {
      */
     @Transactional
     public boolean checkAndDecreaseInventory(Long productId, int quantity) {
-        return productDomainService.checkAndDecreaseInventory(new ProductId(productId), quantity);
+        boolean decreased = productDomainService.checkAndDecreaseInventory(new ProductId(productId), quantity);
+        (decreased ? reservedCounter : rejectedCounter).increment();
+        return decreased;
+    }
+    
+    /**
+     * 整单预占库存，任一商品行不满足时不扣减任何库存
+     */
+    @Transactional
+    public InventoryReservationDTO reserveInventory(InventoryReservationRequest request) {
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("预占商品不能为空");
+        }
+        
+        // 同一产品出现多行时合并数量
+        Map<ProductId, Integer> quantities = new LinkedHashMap<>();
+        for (InventoryReservationRequest.Item item : request.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null) {
+                throw new IllegalArgumentException("产品ID和数量不能为空");
+            }
+            quantities.merge(new ProductId(item.getProductId()), item.getQuantity(), Integer::sum);
+        }
+        
+        InventoryReservation reservation = productDomainService.reserveInventory(quantities);
+        (reservation.isReserved() ? reservedCounter : rejectedCounter).increment();
+        
+        InventoryReservationDTO dto = new InventoryReservationDTO();
+        dto.setReserved(reservation.isReserved());
+        dto.setLines(reservation.getLines()
+                .stream()
+                .map(line -> {
+                    InventoryReservationDTO.Line lineDTO = new InventoryReservationDTO.Line();
+                    lineDTO.setProductId(line.getProductId().getValue());
+                    lineDTO.setRequestedQuantity(line.getRequestedQuantity());
+                    lineDTO.setAvailableQuantity(line.getAvailableQuantity());
+                    lineDTO.setStatus(line.getStatus().name());
+                    return lineDTO;
+                })
+                .collect(Collectors.toList()));
+        return dto;
+    }
+    
+    /**
+     * 查询产品目录版本，直接读数据库，用于发现其他实例或直接在数据库中做的修改
+     */
+    public String getCatalogVersion(String category) {
+        return productRepository.findCatalogVersion(category != null ? new Category(category) : null);
     }
     
     /**
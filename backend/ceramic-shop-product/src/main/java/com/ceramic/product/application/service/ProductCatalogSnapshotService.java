@@ -0,0 +1,185 @@
+package com.ceramic.product.application.service;
+
+import com.ceramic.product.application.dto.ProductDTO;
+import com.ceramic.product.domain.event.ProductChangedEvent;
+import com.ceramicshop.common.dto.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 产品目录快照服务
+ * 为全部产品列表和每个分类列表维护预先序列化好的JSON快照（含 ApiResponse 信封）及其ETag，列表接口直接输出快照字节。
+ * 产品变更提交后只把受影响的快照标记为脏，下次请求时逐个重新读取变更的产品并修补快照，
+ * 短时间内的多次变更会合并成一次重建。
+ * 其他实例或直接在数据库中做的修改不会产生本地事件，因此每隔 version-check-interval 比对一次数据库中的目录版本
+ * （目录版本号与产品行版本之和，经仓储的每次写入都会使其增大），变化时整体重新加载；重新加载直接读数据库，不经过产品缓存。
+ * 直接在数据库中修改产品时须按 update_product_catalog_version.sql 的说明同时递增版本，否则快照不会重新加载。
+ */
+@Service
+public class ProductCatalogSnapshotService {
+
+    private final ProductApplicationService productService;
+    private final ObjectMapper objectMapper;
+    private final long versionCheckIntervalNanos;
+
+    private final CatalogView allProducts = new CatalogView(null);
+    private final Map<String, CatalogView> categoryViews = new ConcurrentHashMap<>();
+
+    public ProductCatalogSnapshotService(ProductApplicationService productService, ObjectMapper objectMapper,
+                                         @Value("${ceramic.product.catalog-snapshot.version-check-interval:5s}")
+                                         Duration versionCheckInterval) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.versionCheckIntervalNanos = versionCheckInterval.toNanos();
+    }
+
+    /**
+     * 全部产品列表快照
+     */
+    public Snapshot getAllProducts() {
+        return allProducts.snapshot();
+    }
+
+    /**
+     * 分类产品列表快照；不存在的分类不建立快照
+     */
+    public Snapshot getProductsByCategory(String category) {
+        CatalogView view = categoryViews.get(category);
+        if (view == null) {
+            if (!productService.getAllCategories().contains(category)) {
+                return serialize(Collections.emptyMap());
+            }
+            view = categoryViews.computeIfAbsent(category, CatalogView::new);
+        }
+        return view.snapshot();
+    }
+
+    /**
+     * 产品变更提交后标记受影响的快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId().getValue();
+        String category = event.getCategory() != null ? event.getCategory().getValue() : null;
+        allProducts.markDirty(productId);
+        for (CatalogView view : categoryViews.values()) {
+            if (view.category.equals(category) || view.contains(productId)) {
+                view.markDirty(productId);
+            }
+        }
+    }
+
+    private Snapshot serialize(Map<Long, ProductDTO> products) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(ApiResponse.success(new ArrayList<>(products.values())));
+            return new Snapshot(products, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("产品列表序列化失败", e);
+        }
+    }
+
+    /**
+     * 已序列化的产品列表
+     */
+    @Getter
+    public static class Snapshot {
+        private final Map<Long, ProductDTO> products;
+        private final byte[] body;
+        private final String etag;
+
+        Snapshot(Map<Long, ProductDTO> products, byte[] body, String etag) {
+            this.products = products;
+            this.body = body;
+            this.etag = etag;
+        }
+    }
+
+    /**
+     * 单个列表的快照及其待修补的产品
+     */
+    private class CatalogView {
+        /** 为空表示全部产品 */
+        private final String category;
+        private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+        private volatile Snapshot current;
+        /** 快照完整加载时的目录版本；本地修补不更新它，下次比对时会整体重新加载一次 */
+        private String version;
+        private volatile long nextVersionCheck;
+
+        CatalogView(String category) {
+            this.category = category;
+        }
+
+        boolean contains(Long productId) {
+            Snapshot snapshot = current;
+            return snapshot != null && snapshot.products.containsKey(productId);
+        }
+
+        void markDirty(Long productId) {
+            dirty.add(productId);
+        }
+
+        Snapshot snapshot() {
+            Snapshot snapshot = current;
+            if (snapshot != null && dirty.isEmpty() && System.nanoTime() - nextVersionCheck < 0) {
+                return snapshot;
+            }
+            synchronized (this) {
+                if (current != null && System.nanoTime() - nextVersionCheck >= 0) {
+                    if (!productService.getCatalogVersion(category).equals(version)) {
+                        current = null;
+                    }
+                    nextVersionCheck = System.nanoTime() + versionCheckIntervalNanos;
+                }
+                if (current == null) {
+                    // 先清空脏标记、读取版本再加载，加载期间提交的变更会在之后修补或被版本比对发现
+                    dirty.clear();
+                    version = productService.getCatalogVersion(category);
+                    current = serialize(load());
+                    nextVersionCheck = System.nanoTime() + versionCheckIntervalNanos;
+                } else if (!dirty.isEmpty()) {
+                    current = serialize(patch(current.products));
+                }
+                return current;
+            }
+        }
+
+        private Map<Long, ProductDTO> load() {
+            // 全部产品查询不经过产品缓存，分类快照也从中筛选，保证读到与版本一致的数据
+            Map<Long, ProductDTO> sorted = new TreeMap<>();
+            for (ProductDTO product : productService.getAllProducts()) {
+                if (category == null || category.equals(product.getCategory())) {
+                    sorted.put(product.getId(), product);
+                }
+            }
+            return Collections.unmodifiableMap(sorted);
+        }
+
+        private Map<Long, ProductDTO> patch(Map<Long, ProductDTO> products) {
+            Map<Long, ProductDTO> patched = new TreeMap<>(products);
+            for (Long productId : new ArrayList<>(dirty)) {
+                dirty.remove(productId);
+                ProductDTO product = productService.getProductById(productId);
+                if (product == null || (category != null && !category.equals(product.getCategory()))) {
+                    patched.remove(productId);
+                } else {
+                    patched.put(productId, product);
+                }
+            }
+            return Collections.unmodifiableMap(patched);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ceramic.product.domain.event;
+
+import com.ceramic.product.domain.model.valueobject.Category;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 产品变更事件
+ * 产品新增、修改、删除或库存变化时发布
+ */
+@Getter
+@ToString
+public class ProductChangedEvent {
+    private final ProductId productId;
+    
+    /**
+     * 变更类型，监听者据此跳过与自己无关的变更
+     */
+    private final ChangeType type;
+    
+    /**
+     * 变更后的分类；删除或仅库存变化时为空
+     */
+    private final Category category;
+    
+    public ProductChangedEvent(ProductId productId, ChangeType type, Category category) {
+        this.productId = productId;
+        this.type = type;
+        this.category = category;
+    }
+    
+    /**
+     * 变更类型
+     */
+    public enum ChangeType {
+        /** 新增产品 */
+        CREATED,
+        /** 修改产品，任何字段都可能变化 */
+        UPDATED,
+        /** 只有库存变化；库存扣减到0时状态会随之变为下架 */
+        STOCK_CHANGED,
+        /** 删除产品 */
+        REMOVED
+    }
+}
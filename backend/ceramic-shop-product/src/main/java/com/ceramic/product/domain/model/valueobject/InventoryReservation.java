@@ -0,0 +1,59 @@
+package com.ceramic.product.domain.model.valueobject;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 库存预占结果值对象
+ * 整单预占要么全部成功，要么全部不扣减；每一行都给出检查结果
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class InventoryReservation {
+    private final boolean reserved;
+    private final List<Line> lines;
+    
+    public InventoryReservation(boolean reserved, List<Line> lines) {
+        this.reserved = reserved;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+    
+    /**
+     * 单个产品行的预占结果
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class Line {
+        private final ProductId productId;
+        private final int requestedQuantity;
+        private final int availableQuantity;
+        private final LineStatus status;
+        
+        public Line(ProductId productId, int requestedQuantity, int availableQuantity, LineStatus status) {
+            this.productId = productId;
+            this.requestedQuantity = requestedQuantity;
+            this.availableQuantity = availableQuantity;
+            this.status = status;
+        }
+        
+        public boolean isAvailable() {
+            return status == LineStatus.AVAILABLE;
+        }
+    }
+    
+    /**
+     * 产品行检查状态
+     */
+    public enum LineStatus {
+        AVAILABLE,
+        NOT_FOUND,
+        OFFLINE,
+        INSUFFICIENT_STOCK
+    }
+}
@@ -0,0 +1,56 @@
+package com.ceramic.product.domain.repository;
+
+import com.ceramic.product.domain.model.valueobject.ProductStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 产品组合查询条件
+ */
+@Getter
+@Builder
+public class ProductCriteria {
+    
+    /**
+     * 名称关键字(模糊匹配)
+     */
+    private final String name;
+    
+    private final String category;
+    
+    private final BigDecimal minPrice;
+    
+    private final BigDecimal maxPrice;
+    
+    private final ProductStatus status;
+    
+    @Builder.Default
+    private final SortField sortField = SortField.CREATE_TIME;
+    
+    private final boolean ascending;
+    
+    private final int offset;
+    
+    private final int limit;
+    
+    /**
+     * 价格分桶的升序边界，n 个边界划分出 n+1 个价格区间
+     */
+    @Builder.Default
+    private final List<BigDecimal> priceBucketEdges = Collections.emptyList();
+    
+    /**
+     * 可排序字段
+     */
+    public enum SortField {
+        ID,
+        NAME,
+        PRICE,
+        STOCK,
+        CREATE_TIME
+    }
+}
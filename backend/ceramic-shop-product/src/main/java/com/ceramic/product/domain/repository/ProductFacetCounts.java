@@ -0,0 +1,31 @@
+package com.ceramic.product.domain.repository;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 满足查询条件的产品在各维度上的计数
+ */
+@Getter
+public class ProductFacetCounts {
+    
+    private final long total;
+    
+    private final Map<String, Long> byCategory;
+    
+    /**
+     * 键为价格区间序号，对应 ProductCriteria 中的价格分桶
+     */
+    private final Map<Integer, Long> byPriceBucket;
+    
+    private final Map<String, Long> byStatus;
+    
+    public ProductFacetCounts(long total, Map<String, Long> byCategory,
+                              Map<Integer, Long> byPriceBucket, Map<String, Long> byStatus) {
+        this.total = total;
+        this.byCategory = byCategory;
+        this.byPriceBucket = byPriceBucket;
+        this.byStatus = byStatus;
+    }
+}
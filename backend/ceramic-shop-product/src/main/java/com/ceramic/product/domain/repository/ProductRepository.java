@@ -4,7 +4,9 @@ import com.ceramic.product.domain.model.aggregate.Product;
 import com.ceramic.product.domain.model.valueobject.Category;
 import com.ceramic.product.domain.model.valueobject.ProductId;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -51,6 +53,23 @@ public interface ProductRepository {
      */
     boolean remove(ProductId id);
     
+    /**
+     * 按ID顺序分页读取全部产品，不缓存，用于全量构建内存数据
+     * 
+     * @param afterId 上一页最后一个产品ID，第一页传0
+     * @param limit 每页条数
+     * @return 产品列表，少于 limit 条时表示已读完
+     */
+    List<Product> findPageAfterId(long afterId, int limit);
+    
+    /**
+     * 查询产品目录的版本标记，只用于判断目录是否变化，不缓存
+     * 
+     * @param category 分类，为空时为全部产品
+     * @return 不透明的版本字符串，目录有变化时随之改变
+     */
+    String findCatalogVersion(Category category);
+    
     /**
      * 获取所有产品类别
      * 
@@ -65,4 +84,56 @@ public interface ProductRepository {
      * @return
      */
     List<Product> findByNameLike(String namePattern);
+    
+    /**
+     * 原子扣减库存
+     * 仅当产品已上架且库存不少于扣减数量时扣减，库存扣减到0时自动下架
+     * 
+     * @param id 产品ID
+     * @param quantity 扣减数量
+     * @return 是否扣减成功
+     */
+    boolean decreaseStock(ProductId id, int quantity);
+    
+    /**
+     * 根据ID列表批量查找产品
+     * 
+     * @param ids 产品ID列表
+     * @return 存在的产品，按ID升序
+     */
+    List<Product> findByIds(Collection<ProductId> ids);
+    
+    /**
+     * 按ID升序批量锁定并查找产品，需在事务中调用
+     * 
+     * @param ids 产品ID列表
+     * @return 存在的产品，按ID升序
+     */
+    List<Product> lockByIds(Collection<ProductId> ids);
+    
+    /**
+     * 用一条语句批量扣减库存，库存扣减到0时自动下架
+     * 调用方需先通过 lockByIds 锁定并校验这些产品，或是回写热点SKU已在内存中确认的扣减量
+     * 
+     * @param quantities 产品ID到扣减数量的映射
+     * @return 是否每个产品都扣减成功
+     */
+    boolean decreaseStockBatch(Map<ProductId, Integer> quantities);
+    
+    /**
+     * 组合条件分页查询
+     * 
+     * @param criteria 查询条件
+     * @return 当前页的产品
+     */
+    List<Product> findByCriteria(ProductCriteria criteria);
+    
+    /**
+     * 统计满足条件的产品总数及分类、价格区间、状态分面计数
+     * 每个维度的计数不应用该维度自身的条件（多选分面），选中某个分类后仍能看到其他分类的数量
+     * 
+     * @param criteria 查询条件，忽略排序与分页
+     * @return 分面计数
+     */
+    ProductFacetCounts countFacets(ProductCriteria criteria);
 } 
\ No newline at end of file
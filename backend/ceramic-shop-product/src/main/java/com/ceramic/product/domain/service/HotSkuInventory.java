@@ -0,0 +1,32 @@
+package com.ceramic.product.domain.service;
+
+import com.ceramic.product.domain.model.valueobject.ProductId;
+
+/**
+ * 热点SKU库存
+ * 被标记为热点的产品库存由内存计数器维护，扣减直接在内存中完成，净扣减量异步批量回写数据库
+ */
+public interface HotSkuInventory {
+    
+    /**
+     * 是否为热点SKU
+     */
+    boolean isHot(ProductId productId);
+    
+    /**
+     * 当前内存中的可用库存
+     */
+    long available(ProductId productId);
+    
+    /**
+     * 尝试扣减库存，库存不足时不扣减
+     * 
+     * @return 是否扣减成功
+     */
+    boolean tryDecrease(ProductId productId, int quantity);
+    
+    /**
+     * 归还已扣减的库存，用于整单预占失败时的补偿
+     */
+    void release(ProductId productId, int quantity);
+}
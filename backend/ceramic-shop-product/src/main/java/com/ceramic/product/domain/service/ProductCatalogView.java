@@ -0,0 +1,42 @@
+package com.ceramic.product.domain.service;
+
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.repository.ProductFacetCounts;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 内存产品目录视图
+ * 在内存中完成组合条件筛选、排序、分页与分面计数，不访问数据库
+ */
+public interface ProductCatalogView {
+    
+    /**
+     * 是否能在内存中回答该查询；视图未加载或条件不支持时返回false，调用方应走数据库查询
+     */
+    boolean supports(ProductCriteria criteria);
+    
+    /**
+     * 执行查询
+     * 
+     * @param criteria 查询条件
+     * @return 当前页产品ID及分面计数
+     */
+    Result query(ProductCriteria criteria);
+    
+    /**
+     * 查询结果
+     */
+    @Getter
+    class Result {
+        private final List<ProductId> productIds;
+        private final ProductFacetCounts facetCounts;
+        
+        public Result(List<ProductId> productIds, ProductFacetCounts facetCounts) {
+            this.productIds = productIds;
+            this.facetCounts = facetCounts;
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.ceramic.product.domain.service;
 
 import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.InventoryReservation;
 import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.model.valueobject.ProductStatus;
 import com.ceramic.product.domain.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * 产品领域服务
@@ -15,36 +23,93 @@ import java.util.Optional;
 public class ProductDomainService {
     
     private final ProductRepository productRepository;
+    private final HotSkuInventory hotSkuInventory;
     
-    public ProductDomainService(ProductRepository productRepository) {
+    public ProductDomainService(ProductRepository productRepository, Optional<HotSkuInventory> hotSkuInventory) {
         this.productRepository = productRepository;
+        this.hotSkuInventory = hotSkuInventory.orElse(null);
     }
     
     /**
      * 检查并扣减库存
+     * 通过一条条件UPDATE完成检查与扣减，并发下单不会超卖，也不需要对产品行加悲观锁；
+     * 热点SKU直接在内存计数器上扣减
      * 
      * @param productId 产品ID
      * @param quantity 数量
      * @return 是否成功
      */
     public boolean checkAndDecreaseInventory(ProductId productId, int quantity) {
-        Optional<Product> optionalProduct = productRepository.findById(productId);
-        if (!optionalProduct.isPresent()) {
+        if (quantity <= 0) {
             return false;
         }
         
-        Product product = optionalProduct.get();
-        try {
-            if (!product.isPurchasable(quantity)) {
-                return false;
+        if (isHot(productId)) {
+            return hotSkuInventory.tryDecrease(productId, quantity);
+        }
+        return productRepository.decreaseStock(productId, quantity);
+    }
+    
+    /**
+     * 整单预占库存，需在事务中调用
+     * 按产品ID升序锁定所有行并逐行校验，全部满足时用一条语句批量扣减；
+     * 任一行不满足则不扣减，并返回每一行的检查结果
+     * 
+     * @param quantities 产品ID到购买数量的映射
+     * @return 预占结果
+     */
+    public InventoryReservation reserveInventory(Map<ProductId, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("预占商品不能为空");
+        }
+        
+        // 按ID升序处理，与加锁顺序保持一致；热点SKU不锁数据库行，单独在内存中扣减
+        Map<Long, Integer> requested = new TreeMap<>();
+        Map<ProductId, Integer> coldQuantities = new HashMap<>();
+        for (Map.Entry<ProductId, Integer> entry : quantities.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("购买数量必须大于0");
+            }
+            requested.put(entry.getKey().getValue(), entry.getValue());
+            if (!isHot(entry.getKey())) {
+                coldQuantities.put(entry.getKey(), entry.getValue());
             }
-            
-            product.decreaseInventory(quantity);
-            productRepository.save(product);
-            return true;
-        } catch (Exception e) {
-            return false;
         }
+        
+        Map<Long, Product> locked = new HashMap<>();
+        for (Product product : productRepository.lockByIds(coldQuantities.keySet())) {
+            locked.put(product.getId().getValue(), product);
+        }
+        
+        List<InventoryReservation.Line> lines = new ArrayList<>(requested.size());
+        Map<ProductId, Integer> hotTaken = new HashMap<>();
+        boolean allAvailable = true;
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            ProductId productId = new ProductId(entry.getKey());
+            InventoryReservation.Line line;
+            if (coldQuantities.containsKey(productId)) {
+                line = checkLine(productId, entry.getValue(), locked.get(entry.getKey()));
+            } else {
+                line = takeHotLine(productId, entry.getValue());
+                if (line.isAvailable()) {
+                    hotTaken.put(productId, entry.getValue());
+                }
+            }
+            allAvailable &= line.isAvailable();
+            lines.add(line);
+        }
+        
+        if (!allAvailable) {
+            releaseHot(hotTaken);
+            return new InventoryReservation(false, lines);
+        }
+        
+        // 行已被锁定并校验，批量扣减理应全部命中；否则抛出异常让事务整体回滚
+        if (!coldQuantities.isEmpty() && !productRepository.decreaseStockBatch(coldQuantities)) {
+            releaseHot(hotTaken);
+            throw new IllegalStateException("批量扣减库存失败");
+        }
+        return new InventoryReservation(true, lines);
     }
     
     /**
@@ -59,13 +124,65 @@ public class ProductDomainService {
             throw new IllegalArgumentException("Product IDs and quantities must have the same length");
         }
         
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findByIds(Arrays.asList(productIds))) {
+            products.put(product.getId().getValue(), product);
+        }
+        
         for (int i = 0; i < productIds.length; i++) {
-            Optional<Product> optionalProduct = productRepository.findById(productIds[i]);
-            if (!optionalProduct.isPresent() || !optionalProduct.get().isPurchasable(quantities[i])) {
+            if (isHot(productIds[i])) {
+                if (hotSkuInventory.available(productIds[i]) < quantities[i]) {
+                    return false;
+                }
+                continue;
+            }
+            Product product = products.get(productIds[i].getValue());
+            if (product == null || !product.isPurchasable(quantities[i])) {
                 return false;
             }
         }
         
         return true;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 在内存中扣减单个热点SKU行
+     */
+    private InventoryReservation.Line takeHotLine(ProductId productId, int quantity) {
+        long available = hotSkuInventory.available(productId);
+        if (hotSkuInventory.tryDecrease(productId, quantity)) {
+            return new InventoryReservation.Line(productId, quantity, (int) Math.max(available, quantity),
+                    InventoryReservation.LineStatus.AVAILABLE);
+        }
+        return new InventoryReservation.Line(productId, quantity, (int) hotSkuInventory.available(productId),
+                InventoryReservation.LineStatus.INSUFFICIENT_STOCK);
+    }
+    
+    /**
+     * 归还已在内存中扣减的热点SKU；未启用热点库存时 hotTaken 必然为空
+     */
+    private void releaseHot(Map<ProductId, Integer> hotTaken) {
+        hotTaken.forEach((productId, quantity) -> hotSkuInventory.release(productId, quantity));
+    }
+    
+    private boolean isHot(ProductId productId) {
+        return hotSkuInventory != null && hotSkuInventory.isHot(productId);
+    }
+    
+    /**
+     * 检查单个产品行
+     */
+    private InventoryReservation.Line checkLine(ProductId productId, int quantity, Product product) {
+        if (product == null) {
+            return new InventoryReservation.Line(productId, quantity, 0, InventoryReservation.LineStatus.NOT_FOUND);
+        }
+        int available = product.getInventory().getAvailableQuantity();
+        if (product.getStatus() != ProductStatus.ONLINE) {
+            return new InventoryReservation.Line(productId, quantity, available, InventoryReservation.LineStatus.OFFLINE);
+        }
+        if (available < quantity) {
+            return new InventoryReservation.Line(productId, quantity, available, InventoryReservation.LineStatus.INSUFFICIENT_STOCK);
+        }
+        return new InventoryReservation.Line(productId, quantity, available, InventoryReservation.LineStatus.AVAILABLE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.ceramic.product.domain.service;
+
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 产品全文检索索引
+ * 对产品名称、描述和分类建立倒排索引，按相关度返回产品ID
+ */
+public interface ProductSearchIndex {
+    
+    /**
+     * 索引是否已构建完成；未完成时调用方应退回数据库模糊查询
+     */
+    boolean isReady();
+    
+    /**
+     * 检索产品
+     * 
+     * @param query 查询关键字
+     * @param offset 跳过的条数
+     * @param limit 返回的最大条数
+     * @return 命中总数及当前页的产品ID，按相关度降序
+     */
+    Hits search(String query, int offset, int limit);
+    
+    /**
+     * 检索结果
+     */
+    @Getter
+    class Hits {
+        private final int total;
+        private final List<ProductId> productIds;
+        
+        public Hits(int total, List<ProductId> productIds) {
+            this.total = total;
+            this.productIds = productIds;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.ceramic.product.infrastructure.cache;
+
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.Category;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.repository.ProductFacetCounts;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.infrastructure.persistence.repository.ProductRepositoryImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 带本地缓存的产品仓储
+ * 缓存 findById、findByCategory、findAllCategories 的结果，其余方法直接委托给数据库实现。
+ * 分类列表只缓存产品ID，产品本身统一存放在按ID的缓存中，因此库存、状态等变更只需失效单个产品；
+ * 新增、删除或修改分类时才失效相关的分类列表。写操作立即失效一次，在事务中时提交后再失效一次，
+ * 避免并发读取在提交前把旧数据重新放回缓存。
+ * 缓存的产品是共享快照，返回给调用方的都是副本，调用方修改后未保存不会污染缓存。
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(prefix = "ceramic.product.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CachingProductRepository implements ProductRepository, MeterBinder {
+    
+    private static final String ALL_CATEGORIES = "all";
+    
+    private final ProductRepository delegate;
+    private final Cache<Long, Product> productsById;
+    private final Cache<String, List<Long>> productIdsByCategory;
+    private final Cache<String, List<Category>> categories;
+    
+    public CachingProductRepository(ProductRepositoryImpl delegate,
+                                    @Value("${ceramic.product.cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${ceramic.product.cache.category-maximum-size:200}") long categoryMaximumSize,
+                                    @Value("${ceramic.product.cache.ttl:10m}") Duration ttl) {
+        this.delegate = delegate;
+        this.productsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.productIdsByCategory = Caffeine.newBuilder()
+                .maximumSize(categoryMaximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.categories = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+    
+    @Override
+    public Product save(Product product) {
+        Product saved = delegate.save(product);
+        Long id = saved.getId().getValue();
+        Product cached = productsById.getIfPresent(id);
+        // 已缓存且分类未变时，分类列表不受影响
+        boolean categoryUnchanged = product.getId() != null && cached != null
+                && cached.getCategory().equals(saved.getCategory());
+        String category = saved.getCategory().getValue();
+        invalidate(() -> {
+            productsById.invalidate(id);
+            if (!categoryUnchanged) {
+                evictCategoriesContaining(id);
+                productIdsByCategory.invalidate(category);
+                categories.invalidateAll();
+            }
+        });
+        return saved;
+    }
+    
+    @Override
+    public Optional<Product> findById(ProductId id) {
+        Product product = productsById.get(id.getValue(), key -> delegate.findById(id).orElse(null));
+        return Optional.ofNullable(product).map(this::copy);
+    }
+    
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public List<Product> findByCategory(Category category) {
+        List<Long> ids = productIdsByCategory.get(category.getValue(), key -> {
+            List<Product> products = delegate.findByCategory(category);
+            List<Long> loaded = new ArrayList<>(products.size());
+            for (Product product : products) {
+                productsById.put(product.getId().getValue(), product);
+                loaded.add(product.getId().getValue());
+            }
+            return Collections.unmodifiableList(loaded);
+        });
+        
+        Map<Long, Product> products = productsById.getAll(ids, this::loadProducts);
+        List<Product> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                result.add(copy(product));
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean remove(ProductId id) {
+        boolean removed = delegate.remove(id);
+        invalidate(() -> {
+            productsById.invalidate(id.getValue());
+            evictCategoriesContaining(id.getValue());
+            categories.invalidateAll();
+        });
+        return removed;
+    }
+    
+    @Override
+    public List<Product> findPageAfterId(long afterId, int limit) {
+        return delegate.findPageAfterId(afterId, limit);
+    }
+    
+    @Override
+    public String findCatalogVersion(Category category) {
+        return delegate.findCatalogVersion(category);
+    }
+    
+    @Override
+    public List<Category> findAllCategories() {
+        return categories.get(ALL_CATEGORIES, key -> Collections.unmodifiableList(delegate.findAllCategories()));
+    }
+    
+    @Override
+    public List<Product> findByNameLike(String namePattern) {
+        return delegate.findByNameLike(namePattern);
+    }
+    
+    @Override
+    public boolean decreaseStock(ProductId id, int quantity) {
+        boolean decreased = delegate.decreaseStock(id, quantity);
+        if (decreased) {
+            invalidate(() -> productsById.invalidate(id.getValue()));
+        }
+        return decreased;
+    }
+    
+    @Override
+    public List<Product> findByIds(Collection<ProductId> ids) {
+        return delegate.findByIds(ids);
+    }
+    
+    @Override
+    public List<Product> lockByIds(Collection<ProductId> ids) {
+        return delegate.lockByIds(ids);
+    }
+    
+    @Override
+    public boolean decreaseStockBatch(Map<ProductId, Integer> quantities) {
+        boolean decreased = delegate.decreaseStockBatch(quantities);
+        List<Long> ids = quantities.keySet().stream().map(ProductId::getValue).collect(Collectors.toList());
+        invalidate(() -> productsById.invalidateAll(ids));
+        return decreased;
+    }
+    
+    @Override
+    public List<Product> findByCriteria(ProductCriteria criteria) {
+        return delegate.findByCriteria(criteria);
+    }
+    
+    @Override
+    public ProductFacetCounts countFacets(ProductCriteria criteria) {
+        return delegate.countFacets(criteria);
+    }
+    
+    /**
+     * 导出各缓存的命中率、条目数与淘汰数指标
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, productsById, "product.productsById");
+        CaffeineCacheMetrics.monitor(registry, productIdsByCategory, "product.productIdsByCategory");
+        CaffeineCacheMetrics.monitor(registry, categories, "product.categories");
+    }
+    
+    /**
+     * 批量加载缓存中缺失的产品
+     */
+    private Map<Long, Product> loadProducts(Iterable<? extends Long> missing) {
+        List<ProductId> ids = new ArrayList<>();
+        for (Long id : missing) {
+            ids.add(new ProductId(id));
+        }
+        return delegate.findByIds(ids)
+                .stream()
+                .collect(Collectors.toMap(product -> product.getId().getValue(), Function.identity()));
+    }
+    
+    /**
+     * 失效包含指定产品的分类列表
+     */
+    private void evictCategoriesContaining(Long productId) {
+        productIdsByCategory.asMap().values().removeIf(ids -> ids.contains(productId));
+    }
+    
+    /**
+     * 立即失效，并在当前事务提交后再次失效
+     */
+    private void invalidate(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+                
+                @Override
+                public int getOrder() {
+                    // 先于提交后的事件监听器执行，保证监听器读到的是新数据
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+            });
+        }
+    }
+    
+    /**
+     * 复制缓存中的产品快照，值对象不可变可直接共享
+     */
+    private Product copy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .category(product.getCategory())
+                .image(product.getImage())
+                .inventory(product.getInventory())
+                .status(product.getStatus())
+                .createTime(product.getCreateTime())
+                .updateTime(product.getUpdateTime())
+                .build();
+    }
+}
@@ -0,0 +1,360 @@
+package com.ceramic.product.infrastructure.catalog;
+
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.repository.ProductFacetCounts;
+import com.ceramic.product.domain.service.ProductCatalogView;
+import com.ceramic.product.infrastructure.persistence.entity.ProductPO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * 产品目录的不可变列式快照
+ * 行按产品ID升序存放；价格以分为单位存为long，分类和状态做字典编码并各自建立位图，
+ * 另有一份按(价格, ID)排序的行号排列，价格区间通过二分查找定位。
+ * 名称筛选对归一化后的名称逐行做子串匹配，与 LIKE '%名称%' 在默认排序规则下忽略大小写、重音和全半角的行为近似。
+ */
+final class CatalogSnapshot {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final int size;
+    private final long[] ids;
+    private final long[] priceCents;
+    private final int[] stock;
+    private final long[] createTimes;
+    /** 归一化后的名称，见 normalizeName */
+    private final String[] names;
+
+    private final String[] categoryDictionary;
+    private final BitSet[] categoryBitmaps;
+    private final int[] categoryCodes;
+
+    private final String[] statusDictionary;
+    private final BitSet[] statusBitmaps;
+    private final int[] statusCodes;
+
+    /** 按(价格, ID)升序排列的行号 */
+    private final int[] priceOrder;
+    /** priceOrder 对应的价格，用于二分查找 */
+    private final long[] sortedPriceCents;
+
+    CatalogSnapshot(List<ProductPO> rows) {
+        List<ProductPO> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(ProductPO::getId));
+        size = sorted.size();
+        ids = new long[size];
+        priceCents = new long[size];
+        stock = new int[size];
+        createTimes = new long[size];
+        names = new String[size];
+        categoryCodes = new int[size];
+        statusCodes = new int[size];
+
+        Map<String, Integer> categories = new TreeMap<>();
+        Map<String, Integer> statuses = new TreeMap<>();
+        for (ProductPO row : sorted) {
+            categories.putIfAbsent(row.getCategory(), 0);
+            statuses.putIfAbsent(row.getStatus(), 0);
+        }
+        categoryDictionary = encode(categories);
+        statusDictionary = encode(statuses);
+        categoryBitmaps = newBitmaps(categoryDictionary.length);
+        statusBitmaps = newBitmaps(statusDictionary.length);
+
+        for (int row = 0; row < size; row++) {
+            ProductPO po = sorted.get(row);
+            ids[row] = po.getId();
+            priceCents[row] = toCents(po.getPrice(), RoundingMode.HALF_UP);
+            stock[row] = po.getStock() != null ? po.getStock() : 0;
+            createTimes[row] = po.getCreateTime() != null ? po.getCreateTime().getTime() : 0L;
+            names[row] = normalizeName(po.getName());
+            categoryCodes[row] = categories.get(po.getCategory());
+            statusCodes[row] = statuses.get(po.getStatus());
+            categoryBitmaps[categoryCodes[row]].set(row);
+            statusBitmaps[statusCodes[row]].set(row);
+        }
+
+        // 行已按ID升序，稳定排序后价格相同的行仍按ID升序
+        Integer[] order = new Integer[size];
+        for (int row = 0; row < size; row++) {
+            order[row] = row;
+        }
+        Arrays.sort(order, Comparator.comparingLong(row -> priceCents[row]));
+        priceOrder = new int[size];
+        sortedPriceCents = new long[size];
+        for (int i = 0; i < size; i++) {
+            priceOrder[i] = order[i];
+            sortedPriceCents[i] = priceCents[order[i]];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    ProductCatalogView.Result query(ProductCriteria criteria) {
+        BitSet nameMatched = nameFilter(criteria);
+        BitSet categoryMatched = categoryFilter(criteria);
+        BitSet statusMatched = statusFilter(criteria);
+        BitSet priceMatched = priceFilter(criteria);
+        BitSet matched = and(nameMatched, categoryMatched, statusMatched, priceMatched);
+        // 名称条件作用于所有维度；各维度的分面计数不应用该维度自身的条件，与SQL路径一致
+        ProductFacetCounts counts = new ProductFacetCounts(matched.cardinality(),
+                countCategories(and(nameMatched, statusMatched, priceMatched)),
+                countPriceBuckets(and(nameMatched, categoryMatched, statusMatched), criteria.getPriceBucketEdges()),
+                countStatuses(and(nameMatched, categoryMatched, priceMatched)));
+        return new ProductCatalogView.Result(page(matched, criteria), counts);
+    }
+
+    private BitSet nameFilter(ProductCriteria criteria) {
+        if (criteria.getName() == null || criteria.getName().isEmpty()) {
+            return allRows();
+        }
+        String keyword = normalizeName(criteria.getName());
+        BitSet matched = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            if (names[row].contains(keyword)) {
+                matched.set(row);
+            }
+        }
+        return matched;
+    }
+
+    private BitSet categoryFilter(ProductCriteria criteria) {
+        return criteria.getCategory() != null
+                ? bitmapOf(categoryDictionary, categoryBitmaps, criteria.getCategory()) : allRows();
+    }
+
+    private BitSet statusFilter(ProductCriteria criteria) {
+        return criteria.getStatus() != null
+                ? bitmapOf(statusDictionary, statusBitmaps, criteria.getStatus().name()) : allRows();
+    }
+
+    /**
+     * 在按价格排序的行号上二分查找价格区间
+     */
+    private BitSet priceFilter(ProductCriteria criteria) {
+        if (criteria.getMinPrice() == null && criteria.getMaxPrice() == null) {
+            return allRows();
+        }
+        int from = criteria.getMinPrice() != null
+                ? lowerBound(toCents(criteria.getMinPrice(), RoundingMode.CEILING)) : 0;
+        int to = criteria.getMaxPrice() != null
+                ? lowerBound(toCents(criteria.getMaxPrice(), RoundingMode.FLOOR) + 1) : size;
+        BitSet inRange = new BitSet(size);
+        for (int i = from; i < to; i++) {
+            inRange.set(priceOrder[i]);
+        }
+        return inRange;
+    }
+
+    private BitSet allRows() {
+        BitSet all = new BitSet(size);
+        all.set(0, size);
+        return all;
+    }
+
+    /**
+     * 位图求交，不修改参数
+     */
+    private static BitSet and(BitSet first, BitSet... others) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet other : others) {
+            result.and(other);
+        }
+        return result;
+    }
+
+    private Map<String, Long> countCategories(BitSet rows) {
+        long[] counts = new long[categoryDictionary.length];
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            counts[categoryCodes[row]]++;
+        }
+        return nonZero(categoryDictionary, counts);
+    }
+
+    private Map<String, Long> countStatuses(BitSet rows) {
+        long[] counts = new long[statusDictionary.length];
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            counts[statusCodes[row]]++;
+        }
+        return nonZero(statusDictionary, counts);
+    }
+
+    private Map<Integer, Long> countPriceBuckets(BitSet rows, List<BigDecimal> priceEdges) {
+        long[] edges = new long[priceEdges.size()];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = toCents(priceEdges.get(i), RoundingMode.HALF_UP);
+        }
+        long[] counts = new long[edges.length + 1];
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            counts[bucketOf(edges, priceCents[row])]++;
+        }
+        return nonZeroBuckets(counts);
+    }
+
+    /**
+     * 按条件排序后取出当前页，排序规则与SQL一致：排序列相同时按ID同方向排序
+     */
+    private List<ProductId> page(BitSet matched, ProductCriteria criteria) {
+        List<ProductId> page = new ArrayList<>(criteria.getLimit());
+        int skip = criteria.getOffset();
+        boolean ascending = criteria.isAscending();
+        switch (criteria.getSortField()) {
+            case ID:
+                if (ascending) {
+                    for (int row = matched.nextSetBit(0); row >= 0 && page.size() < criteria.getLimit();
+                         row = matched.nextSetBit(row + 1)) {
+                        skip = collect(page, row, skip);
+                    }
+                } else {
+                    for (int row = matched.previousSetBit(size - 1); row >= 0 && page.size() < criteria.getLimit();
+                         row = matched.previousSetBit(row - 1)) {
+                        skip = collect(page, row, skip);
+                    }
+                }
+                return page;
+            case PRICE:
+                for (int i = 0; i < size && page.size() < criteria.getLimit(); i++) {
+                    int row = priceOrder[ascending ? i : size - 1 - i];
+                    if (matched.get(row)) {
+                        skip = collect(page, row, skip);
+                    }
+                }
+                return page;
+            case STOCK:
+                return sortAndCollect(matched, criteria, row -> stock[row]);
+            case CREATE_TIME:
+                return sortAndCollect(matched, criteria, row -> createTimes[row]);
+            default:
+                throw new IllegalArgumentException("内存目录不支持的排序字段: " + criteria.getSortField());
+        }
+    }
+
+    private List<ProductId> sortAndCollect(BitSet matched, ProductCriteria criteria, RowKey key) {
+        Integer[] rows = new Integer[matched.cardinality()];
+        int n = 0;
+        for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+            rows[n++] = row;
+        }
+        // 行号即ID顺序，作为次排序键
+        Comparator<Integer> comparator = Comparator.<Integer>comparingLong(key::of).thenComparingInt(row -> row);
+        Arrays.sort(rows, criteria.isAscending() ? comparator : comparator.reversed());
+        List<ProductId> page = new ArrayList<>(criteria.getLimit());
+        for (int i = criteria.getOffset(); i < rows.length && page.size() < criteria.getLimit(); i++) {
+            page.add(new ProductId(ids[rows[i]]));
+        }
+        return page;
+    }
+
+    private int collect(List<ProductId> page, int row, int skip) {
+        if (skip > 0) {
+            return skip - 1;
+        }
+        page.add(new ProductId(ids[row]));
+        return 0;
+    }
+
+    /**
+     * sortedPriceCents 中第一个不小于 cents 的位置
+     */
+    private int lowerBound(long cents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPriceCents[mid] < cents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int bucketOf(long[] edges, long cents) {
+        for (int i = 0; i < edges.length; i++) {
+            if (cents < edges[i]) {
+                return i;
+            }
+        }
+        return edges.length;
+    }
+
+    private static BitSet bitmapOf(String[] dictionary, BitSet[] bitmaps, String value) {
+        int code = Arrays.binarySearch(dictionary, value);
+        return code >= 0 ? bitmaps[code] : new BitSet();
+    }
+
+    private static Map<String, Long> nonZero(String[] dictionary, long[] counts) {
+        Map<String, Long> result = new TreeMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(dictionary[code], counts[code]);
+            }
+        }
+        return result;
+    }
+
+    private static Map<Integer, Long> nonZeroBuckets(long[] counts) {
+        Map<Integer, Long> result = new HashMap<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] > 0) {
+                result.put(bucket, counts[bucket]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按字典序编码，编码即字典数组下标
+     */
+    private static String[] encode(Map<String, Integer> values) {
+        String[] dictionary = values.keySet().toArray(new String[0]);
+        for (int code = 0; code < dictionary.length; code++) {
+            values.put(dictionary[code], code);
+        }
+        return dictionary;
+    }
+
+    private static BitSet[] newBitmaps(int count) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new BitSet();
+        }
+        return bitmaps;
+    }
+
+    /**
+     * 兼容分解后去掉组合附加符号并转小写，全角字母数字随之变为半角
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+
+    @FunctionalInterface
+    private interface RowKey {
+        long of(int row);
+    }
+}
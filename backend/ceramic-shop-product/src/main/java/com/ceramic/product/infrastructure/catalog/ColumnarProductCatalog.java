@@ -0,0 +1,103 @@
+package com.ceramic.product.infrastructure.catalog;
+
+import com.ceramic.product.domain.event.ProductChangedEvent;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.service.ProductCatalogView;
+import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 列式内存产品目录
+ * 启动后从 ProductMapper.selectAll 加载列式快照，产品变更后在下一个刷新周期整体重建并原子替换，
+ * 查询只读当前快照、无需加锁。结果最多滞后一个刷新周期；名称筛选在快照中逐行匹配，名称排序仍走数据库。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ceramic.product.columnar-catalog", name = "enabled", havingValue = "true")
+public class ColumnarProductCatalog implements ProductCatalogView {
+
+    private final ProductMapper productMapper;
+    private final Duration refreshInterval;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile CatalogSnapshot snapshot;
+    private ScheduledExecutorService refresher;
+
+    public ColumnarProductCatalog(ProductMapper productMapper,
+                                  @Value("${ceramic.product.columnar-catalog.refresh-interval:1s}") Duration refreshInterval) {
+        this.productMapper = productMapper;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * 应用启动完成后开始定期刷新
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "columnar-catalog-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshIfDirty, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * 产品变更提交后标记快照需要重建
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Override
+    public boolean supports(ProductCriteria criteria) {
+        return snapshot != null && criteria.getSortField() != ProductCriteria.SortField.NAME;
+    }
+
+    @Override
+    public Result query(ProductCriteria criteria) {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("内存产品目录尚未加载");
+        }
+        return current.query(criteria);
+    }
+
+    void refreshIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            CatalogSnapshot rebuilt = new CatalogSnapshot(productMapper.selectAll());
+            snapshot = rebuilt;
+            log.debug("内存产品目录已刷新，共 {} 个产品，耗时 {} ms",
+                    rebuilt.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            log.error("内存产品目录刷新失败，下个周期重试", e);
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.ceramic.product.infrastructure.inventory;
+
+import com.ceramic.product.domain.event.ProductChangedEvent;
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.model.valueobject.ProductStatus;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.domain.service.HotSkuInventory;
+import com.ceramic.product.infrastructure.persistence.mapper.HotSkuLeaseMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * 分片内存热点库存
+ * 每个热点SKU的库存拆分到多个分片，扣减时优先在当前线程对应的分片上CAS，避免所有请求争抢同一行锁；
+ * 已确认的扣减量按分片累计，由后台线程定期合并成一条批量UPDATE回写 product.stock。
+ * 启动时从数据库加载库存，关闭前回写全部未落库的扣减量；进程异常退出时最多丢失一个回写周期的扣减量。
+ * 在事务中扣减时登记到当前事务，事务回滚后自动归还，调用方提交失败不会丢失库存。
+ * 产品被修改为非上架状态或被删除后停止售卖，重新上架后恢复；后台修改其库存数量需重启后生效。
+ * <p>
+ * 每个实例都会加载一份完整库存并独立售卖，因此只能在一个产品服务实例上开启：
+ * 启动时占用数据库中的热点库存租约，租约被其他实例持有时启动失败；运行中定期续期，
+ * 本地计时在数据库过期时间之前到期，续期失败或租约被抢占后立即停止售卖，已售出的扣减量照常回写。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ceramic.product.hot-sku", name = "enabled", havingValue = "true")
+public class ShardedHotSkuInventory implements HotSkuInventory {
+    
+    private final ProductRepository productRepository;
+    private final HotSkuLeaseMapper leaseMapper;
+    private final Long[] productIds;
+    private final int shards;
+    private final Duration flushInterval;
+    private final Duration leaseTtl;
+    /** 本实例的租约持有者标识，进程重启后不同 */
+    private final String leaseOwner =
+            ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    /** 租约在本地的到期时刻（System.nanoTime），从发起续期前开始计时，不会晚于数据库中的过期时间 */
+    private volatile long leaseDeadline;
+    private ScheduledExecutorService flusher;
+    
+    public ShardedHotSkuInventory(ProductRepository productRepository,
+                                  HotSkuLeaseMapper leaseMapper,
+                                  @Value("${ceramic.product.hot-sku.product-ids:}") Long[] productIds,
+                                  @Value("${ceramic.product.hot-sku.shards:8}") int shards,
+                                  @Value("${ceramic.product.hot-sku.flush-interval:200ms}") Duration flushInterval,
+                                  @Value("${ceramic.product.hot-sku.lease-ttl:30s}") Duration leaseTtl) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("热点库存分片数必须大于0");
+        }
+        if (leaseTtl.getSeconds() < 3) {
+            throw new IllegalArgumentException("热点库存租约时长不能小于3秒");
+        }
+        this.productRepository = productRepository;
+        this.leaseMapper = leaseMapper;
+        this.productIds = productIds;
+        this.shards = shards;
+        this.flushInterval = flushInterval;
+        this.leaseTtl = leaseTtl;
+    }
+    
+    /**
+     * 占用热点库存租约，从数据库加载热点SKU库存，并启动回写和续期线程
+     */
+    @PostConstruct
+    public void start() {
+        long acquiredAt = System.nanoTime();
+        if (leaseMapper.tryAcquire(leaseOwner, leaseTtl.getSeconds()) != 1) {
+            throw new IllegalStateException("热点库存租约由其他产品服务实例持有，热点库存只能在一个实例上开启");
+        }
+        leaseDeadline = acquiredAt + leaseTtl.toNanos();
+        for (Product product : productRepository.findByIds(
+                Arrays.stream(productIds).map(ProductId::new).collect(Collectors.toList()))) {
+            Counter counter = new Counter(shards, product.getInventory().getAvailableQuantity());
+            counter.offline = product.getStatus() != ProductStatus.ONLINE;
+            counters.put(product.getId().getValue(), counter);
+        }
+        log.info("热点库存已加载: {}，租约持有者: {}", counters.keySet(), leaseOwner);
+        
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hot-sku-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        long renewMillis = leaseTtl.toMillis() / 3;
+        flusher.scheduleWithFixedDelay(this::renewLease, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 停止回写线程，回写剩余的扣减量后释放租约
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        leaseDeadline = System.nanoTime();
+        flush();
+        leaseMapper.release(leaseOwner);
+    }
+    
+    @Override
+    public boolean isHot(ProductId productId) {
+        return counters.containsKey(productId.getValue());
+    }
+    
+    @Override
+    public long available(ProductId productId) {
+        Counter counter = counter(productId);
+        return leaseHeld() ? counter.available() : 0;
+    }
+    
+    @Override
+    public boolean tryDecrease(ProductId productId, int quantity) {
+        if (quantity <= 0 || !leaseHeld()) {
+            return false;
+        }
+        if (!counter(productId).tryDecrease(quantity)) {
+            return false;
+        }
+        trackInTransaction(productId.getValue(), quantity);
+        return true;
+    }
+    
+    @Override
+    public void release(ProductId productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("归还数量必须大于0");
+        }
+        counter(productId).release(quantity);
+        trackInTransaction(productId.getValue(), -quantity);
+    }
+    
+    /**
+     * 热点SKU被修改或删除后按数据库中的状态停止或恢复售卖；库存变化来自扣减本身，不需要处理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Counter counter = counters.get(event.getProductId().getValue());
+        if (counter == null || event.getType() == ProductChangedEvent.ChangeType.STOCK_CHANGED) {
+            return;
+        }
+        Optional<Product> product = event.getType() == ProductChangedEvent.ChangeType.REMOVED
+                ? Optional.empty() : productRepository.findById(event.getProductId());
+        boolean offline = !product.isPresent() || product.get().getStatus() != ProductStatus.ONLINE;
+        if (counter.offline != offline) {
+            counter.offline = offline;
+            log.info("热点SKU {} {}", event.getProductId().getValue(), offline ? "已停止售卖" : "已恢复售卖");
+        }
+    }
+    
+    /**
+     * 把扣减量记到当前事务上，事务回滚时归还净扣减量；没有事务时由调用方自行补偿
+     */
+    private void trackInTransaction(Long productId, long quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        RollbackCompensation compensation = (RollbackCompensation) TransactionSynchronizationManager.getResource(this);
+        if (compensation == null) {
+            compensation = new RollbackCompensation();
+            TransactionSynchronizationManager.bindResource(this, compensation);
+            TransactionSynchronizationManager.registerSynchronization(compensation);
+        }
+        compensation.taken.merge(productId, quantity, Long::sum);
+    }
+    
+    /**
+     * 续期租约；租约被其他实例占用时停止售卖，数据库暂时不可用时在本地到期前继续重试
+     */
+    void renewLease() {
+        long renewedAt = System.nanoTime();
+        try {
+            if (leaseMapper.renew(leaseOwner, leaseTtl.getSeconds()) == 1) {
+                leaseDeadline = renewedAt + leaseTtl.toNanos();
+            } else if (leaseHeld()) {
+                leaseDeadline = renewedAt;
+                log.error("热点库存租约已被其他实例占用，停止售卖热点SKU");
+            }
+        } catch (RuntimeException e) {
+            log.warn("热点库存租约续期失败，到期前重试", e);
+        }
+    }
+    
+    boolean leaseHeld() {
+        return System.nanoTime() - leaseDeadline < 0;
+    }
+    
+    /**
+     * 将各SKU累计的净扣减量合并为一条批量UPDATE回写数据库，失败时放回待回写量等待下次重试
+     */
+    synchronized void flush() {
+        Map<ProductId, Integer> deltas = new HashMap<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            long delta = entry.getValue().drainPending();
+            if (delta != 0) {
+                deltas.put(new ProductId(entry.getKey()), Math.toIntExact(delta));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        boolean written;
+        try {
+            written = productRepository.decreaseStockBatch(deltas);
+        } catch (RuntimeException e) {
+            log.error("热点库存回写失败，下次重试: {}", deltas, e);
+            deltas.forEach((id, delta) -> counters.get(id.getValue()).restorePending(delta));
+            return;
+        }
+        if (!written) {
+            reconcileMissing(deltas);
+        }
+    }
+    
+    /**
+     * 批量UPDATE是一条语句，仍存在的行已经扣减；未命中的只能是已删除的产品，停止售卖并丢弃其扣减量。
+     * 查询失败时保留这批扣减量已写入的假设，不再放回，避免重复扣减仍存在的行。
+     */
+    private void reconcileMissing(Map<ProductId, Integer> deltas) {
+        Set<Long> existing;
+        try {
+            existing = productRepository.findByIds(new ArrayList<>(deltas.keySet()))
+                    .stream()
+                    .map(product -> product.getId().getValue())
+                    .collect(Collectors.toSet());
+        } catch (RuntimeException e) {
+            log.error("热点库存回写未全部命中，核对已删除产品失败: {}", deltas, e);
+            return;
+        }
+        deltas.forEach((id, delta) -> {
+            if (!existing.contains(id.getValue())) {
+                counters.get(id.getValue()).offline = true;
+                log.warn("热点SKU {} 已被删除，停止售卖并丢弃未回写的扣减量 {}", id.getValue(), delta);
+            }
+        });
+    }
+    
+    private Counter counter(ProductId productId) {
+        Counter counter = counters.get(productId.getValue());
+        if (counter == null) {
+            throw new IllegalArgumentException("不是热点SKU: " + productId.getValue());
+        }
+        return counter;
+    }
+    
+    /**
+     * 当前事务内各热点SKU的净扣减量，回滚后归还
+     */
+    private class RollbackCompensation implements TransactionSynchronization {
+        private final Map<Long, Long> taken = new HashMap<>();
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ShardedHotSkuInventory.this);
+            // 结果未知时可能已经提交，不归还，宁可少卖也不超卖
+            if (status != STATUS_ROLLED_BACK) {
+                return;
+            }
+            taken.forEach((productId, quantity) -> {
+                if (quantity > 0) {
+                    counters.get(productId).release(Math.toIntExact(quantity));
+                }
+            });
+            log.info("事务未提交，已归还热点库存: {}", taken);
+        }
+    }
+    
+    /**
+     * 单个SKU的分片计数器
+     * 每个分片占用独立的缓存行，stock 为分片剩余库存，pending 为分片上尚未回写的扣减量
+     */
+    static class Counter {
+        /** 每个分片间隔8个long（64字节），避免伪共享 */
+        private static final int PADDING_SHIFT = 3;
+        
+        private final int shards;
+        private final AtomicLongArray stock;
+        private final AtomicLongArray pending;
+        /** 非上架状态或已删除时为 true，此时不再扣减 */
+        private volatile boolean offline;
+        
+        Counter(int shards, long initialStock) {
+            this.shards = shards;
+            this.stock = new AtomicLongArray(shards << PADDING_SHIFT);
+            this.pending = new AtomicLongArray(shards << PADDING_SHIFT);
+            for (int i = 0; i < shards; i++) {
+                stock.set(slot(i), initialStock / shards + (i < initialStock % shards ? 1 : 0));
+            }
+        }
+        
+        long available() {
+            if (offline) {
+                return 0;
+            }
+            long sum = 0;
+            for (int i = 0; i < shards; i++) {
+                sum += stock.get(slot(i));
+            }
+            return sum;
+        }
+        
+        boolean tryDecrease(int quantity) {
+            if (offline) {
+                return false;
+            }
+            int start = shardOfCurrentThread();
+            // 快速路径：从当前线程对应的分片开始，找到一个库存足够的分片整单扣减
+            for (int i = 0; i < shards; i++) {
+                int shard = (start + i) % shards;
+                if (take(shard, quantity)) {
+                    pending.addAndGet(slot(shard), quantity);
+                    return true;
+                }
+            }
+            // 慢速路径：单个分片都不够时跨分片凑齐，凑不齐则全部归还
+            long[] taken = new long[shards];
+            long remaining = quantity;
+            for (int i = 0; i < shards && remaining > 0; i++) {
+                int shard = (start + i) % shards;
+                taken[shard] = takeAtMost(shard, remaining);
+                remaining -= taken[shard];
+            }
+            for (int shard = 0; shard < shards; shard++) {
+                if (taken[shard] == 0) {
+                    continue;
+                }
+                if (remaining > 0) {
+                    stock.addAndGet(slot(shard), taken[shard]);
+                } else {
+                    pending.addAndGet(slot(shard), taken[shard]);
+                }
+            }
+            return remaining == 0;
+        }
+        
+        void release(int quantity) {
+            int shard = shardOfCurrentThread();
+            stock.addAndGet(slot(shard), quantity);
+            pending.addAndGet(slot(shard), -quantity);
+        }
+        
+        long drainPending() {
+            long sum = 0;
+            for (int i = 0; i < shards; i++) {
+                sum += pending.getAndSet(slot(i), 0);
+            }
+            return sum;
+        }
+        
+        void restorePending(long delta) {
+            pending.addAndGet(slot(0), delta);
+        }
+        
+        private boolean take(int shard, long quantity) {
+            int slot = slot(shard);
+            while (true) {
+                long current = stock.get(slot);
+                if (current < quantity) {
+                    return false;
+                }
+                if (stock.compareAndSet(slot, current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+        
+        private long takeAtMost(int shard, long quantity) {
+            int slot = slot(shard);
+            while (true) {
+                long current = stock.get(slot);
+                long taken = Math.min(current, quantity);
+                if (taken <= 0) {
+                    return 0;
+                }
+                if (stock.compareAndSet(slot, current, current - taken)) {
+                    return taken;
+                }
+            }
+        }
+        
+        private int shardOfCurrentThread() {
+            return (int) (Thread.currentThread().getId() % shards);
+        }
+        
+        private static int slot(int shard) {
+            return shard << PADDING_SHIFT;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ceramic.product.infrastructure.persistence.entity;
+
+import lombok.Data;
+
+/**
+ * 产品分面计数行
+ */
+@Data
+public class ProductFacetPO {
+    private String category;
+    
+    private Integer priceBucket;
+    
+    private String status;
+    
+    /**
+     * 是否满足价格范围条件，1 为满足
+     */
+    private Integer priceMatch;
+    
+    private Long count;
+}
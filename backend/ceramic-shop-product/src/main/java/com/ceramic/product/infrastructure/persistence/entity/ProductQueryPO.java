@@ -0,0 +1,41 @@
+package com.ceramic.product.infrastructure.persistence.entity;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 产品组合查询参数
+ */
+@Data
+public class ProductQueryPO {
+    private String name;
+    
+    private String category;
+    
+    private BigDecimal minPrice;
+    
+    private BigDecimal maxPrice;
+    
+    private String status;
+    
+    /**
+     * 排序列，只能取自白名单
+     */
+    private String orderColumn;
+    
+    /**
+     * 排序方向(ASC/DESC)
+     */
+    private String sortDirection;
+    
+    private int offset;
+    
+    private int limit;
+    
+    /**
+     * 价格分桶边界
+     */
+    private List<BigDecimal> priceEdges;
+}
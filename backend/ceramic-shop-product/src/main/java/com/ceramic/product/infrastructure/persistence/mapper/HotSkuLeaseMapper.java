@@ -0,0 +1,27 @@
+package com.ceramic.product.infrastructure.persistence.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 热点库存租约Mapper接口
+ * 租约只有一行，过期时间以数据库时钟为准，避免各实例时钟不一致
+ */
+@Mapper
+public interface HotSkuLeaseMapper {
+    
+    /**
+     * 租约空闲、已过期或已由 owner 持有时占用并续期，返回1表示成功
+     */
+    int tryAcquire(@Param("owner") String owner, @Param("ttlSeconds") long ttlSeconds);
+    
+    /**
+     * 仅在 owner 仍持有时续期，返回1表示成功
+     */
+    int renew(@Param("owner") String owner, @Param("ttlSeconds") long ttlSeconds);
+    
+    /**
+     * 释放 owner 持有的租约
+     */
+    int release(@Param("owner") String owner);
+}
@@ -1,10 +1,14 @@
 package com.ceramic.product.infrastructure.persistence.mapper;
 
+import com.ceramic.product.infrastructure.persistence.entity.ProductFacetPO;
 import com.ceramic.product.infrastructure.persistence.entity.ProductPO;
+import com.ceramic.product.infrastructure.persistence.entity.ProductQueryPO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 产品Mapper接口
@@ -52,6 +56,21 @@ public interface ProductMapper {
      */
     int updateStatus(@Param("id") Long id, @Param("status") String status);
     
+    /**
+     * 按ID顺序读取 afterId 之后的一页产品
+     */
+    List<ProductPO> selectPageAfterId(@Param("afterId") long afterId, @Param("limit") int limit);
+    
+    /**
+     * 递增产品目录版本号，删除或整体修改产品时在同一事务中调用
+     */
+    int incrementCatalogVersion();
+    
+    /**
+     * 查询产品目录版本，category 为空时为全部产品
+     */
+    String selectCatalogVersion(@Param("category") String category);
+    
     /**
      * 查询所有产品分类
      */
@@ -62,6 +81,42 @@ public interface ProductMapper {
      */
     int updateStock(@Param("id") Long id, @Param("stock") Integer stock);
     
+    /**
+     * 条件扣减库存，仅当产品已上架且库存充足时扣减
+     * 
+     * @return 影响行数，0表示产品不存在、未上架或库存不足
+     */
+    int decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    /**
+     * 根据ID列表批量查询产品
+     */
+    List<ProductPO> selectByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 按ID升序批量锁定并查询产品
+     */
+    List<ProductPO> selectByIdsForUpdate(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 批量扣减库存
+     * 
+     * @param quantities 产品ID到扣减数量的映射
+     * @return 影响行数
+     */
+    int decreaseStockBatch(@Param("quantities") Map<Long, Integer> quantities);
+    
+    /**
+     * 组合条件分页查询
+     */
+    List<ProductPO> selectByQuery(ProductQueryPO query);
+    
+    /**
+     * 按分类、价格区间、状态及是否满足价格条件分组计数，一条聚合得到全部分面；
+     * 应用名称条件，并只读取满足其余三个条件中至少两个的行
+     */
+    List<ProductFacetPO> countFacets(ProductQueryPO query);
+    
     /**
      * 用于悲观锁的查询
      */
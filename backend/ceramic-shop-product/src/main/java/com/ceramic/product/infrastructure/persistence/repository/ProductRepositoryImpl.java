@@ -1,14 +1,26 @@
 package com.ceramic.product.infrastructure.persistence.repository;
 
+import com.ceramic.product.domain.event.ProductChangedEvent;
 import com.ceramic.product.domain.model.aggregate.Product;
 import com.ceramic.product.domain.model.valueobject.*;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.repository.ProductFacetCounts;
 import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.infrastructure.persistence.entity.ProductFacetPO;
 import com.ceramic.product.infrastructure.persistence.entity.ProductPO;
+import com.ceramic.product.infrastructure.persistence.entity.ProductQueryPO;
 import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -17,10 +29,26 @@ import java.util.stream.Collectors;
 @Repository
 public class ProductRepositoryImpl implements ProductRepository {
     
+    /**
+     * 可排序字段到列名的白名单
+     */
+    private static final Map<ProductCriteria.SortField, String> SORT_COLUMNS =
+            new EnumMap<>(ProductCriteria.SortField.class);
+    
+    static {
+        SORT_COLUMNS.put(ProductCriteria.SortField.ID, "id");
+        SORT_COLUMNS.put(ProductCriteria.SortField.NAME, "name");
+        SORT_COLUMNS.put(ProductCriteria.SortField.PRICE, "price");
+        SORT_COLUMNS.put(ProductCriteria.SortField.STOCK, "stock");
+        SORT_COLUMNS.put(ProductCriteria.SortField.CREATE_TIME, "create_time");
+    }
+    
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public ProductRepositoryImpl(ProductMapper productMapper) {
+    public ProductRepositoryImpl(ProductMapper productMapper, ApplicationEventPublisher eventPublisher) {
         this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -29,6 +57,7 @@ public class ProductRepositoryImpl implements ProductRepository {
         if (product.getId() == null) {
             // 新增
             productMapper.insert(po);
+            eventPublisher.publishEvent(new ProductChangedEvent(new ProductId(po.getId()), ProductChangedEvent.ChangeType.CREATED, product.getCategory()));
             // 更新领域对象ID
             return Product.builder()
                     .id(new ProductId(po.getId()))
@@ -45,6 +74,9 @@ public class ProductRepositoryImpl implements ProductRepository {
         } else {
             // 更新
             productMapper.update(po);
+            // 整体修改可能改变分类，使原分类的行版本之和减少
+            productMapper.incrementCatalogVersion();
+            eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.ChangeType.UPDATED, product.getCategory()));
             return product;
         }
     }
@@ -73,7 +105,25 @@ public class ProductRepositoryImpl implements ProductRepository {
     
     @Override
     public boolean remove(ProductId id) {
-        return productMapper.deleteById(id.getValue()) > 0;
+        boolean removed = productMapper.deleteById(id.getValue()) > 0;
+        if (removed) {
+            productMapper.incrementCatalogVersion();
+            eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.REMOVED, null));
+        }
+        return removed;
+    }
+    
+    @Override
+    public List<Product> findPageAfterId(long afterId, int limit) {
+        return productMapper.selectPageAfterId(afterId, limit)
+                .stream()
+                .map(this::toProduct)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public String findCatalogVersion(Category category) {
+        return productMapper.selectCatalogVersion(category != null ? category.getValue() : null);
     }
     
     @Override
@@ -92,6 +142,119 @@ public class ProductRepositoryImpl implements ProductRepository {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public boolean decreaseStock(ProductId id, int quantity) {
+        boolean decreased = productMapper.decreaseStock(id.getValue(), quantity) > 0;
+        if (decreased) {
+            eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.STOCK_CHANGED, null));
+        }
+        return decreased;
+    }
+    
+    @Override
+    public List<Product> findByIds(Collection<ProductId> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return productMapper.selectByIds(toIdValues(ids))
+                .stream()
+                .map(this::toProduct)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Product> lockByIds(Collection<ProductId> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return productMapper.selectByIdsForUpdate(toIdValues(ids))
+                .stream()
+                .map(this::toProduct)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public boolean decreaseStockBatch(Map<ProductId, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return true;
+        }
+        // 按ID升序排列，保证加锁顺序一致
+        Map<Long, Integer> sorted = new TreeMap<>();
+        quantities.forEach((id, quantity) -> sorted.put(id.getValue(), quantity));
+        int affected = productMapper.decreaseStockBatch(sorted);
+        quantities.keySet().forEach(id -> eventPublisher.publishEvent(
+                new ProductChangedEvent(id, ProductChangedEvent.ChangeType.STOCK_CHANGED, null)));
+        return affected == sorted.size();
+    }
+    
+    @Override
+    public List<Product> findByCriteria(ProductCriteria criteria) {
+        return productMapper.selectByQuery(toQueryPO(criteria))
+                .stream()
+                .map(this::toProduct)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public ProductFacetCounts countFacets(ProductCriteria criteria) {
+        long total = 0;
+        Map<String, Long> byCategory = new TreeMap<>();
+        Map<Integer, Long> byPriceBucket = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        String status = criteria.getStatus() != null ? criteria.getStatus().name() : null;
+        for (ProductFacetPO row : productMapper.countFacets(toQueryPO(criteria))) {
+            boolean categoryMatch = criteria.getCategory() == null || criteria.getCategory().equals(row.getCategory());
+            boolean statusMatch = status == null || status.equals(row.getStatus());
+            boolean priceMatch = row.getPriceMatch() != null && row.getPriceMatch() == 1;
+            // 各维度的计数应用其他维度的条件，不应用自身的条件
+            if (categoryMatch && statusMatch && priceMatch) {
+                total += row.getCount();
+            }
+            if (statusMatch && priceMatch) {
+                byCategory.merge(row.getCategory(), row.getCount(), Long::sum);
+            }
+            if (categoryMatch && statusMatch) {
+                byPriceBucket.merge(row.getPriceBucket(), row.getCount(), Long::sum);
+            }
+            if (categoryMatch && priceMatch) {
+                byStatus.merge(row.getStatus(), row.getCount(), Long::sum);
+            }
+        }
+        return new ProductFacetCounts(total, byCategory, byPriceBucket, byStatus);
+    }
+    
+    /**
+     * 将查询条件转换为Mapper参数，排序列只从白名单中取
+     */
+    private ProductQueryPO toQueryPO(ProductCriteria criteria) {
+        ProductQueryPO query = new ProductQueryPO();
+        query.setName(criteria.getName());
+        query.setCategory(criteria.getCategory());
+        query.setMinPrice(criteria.getMinPrice());
+        query.setMaxPrice(criteria.getMaxPrice());
+        query.setStatus(criteria.getStatus() != null ? criteria.getStatus().name() : null);
+        query.setOrderColumn(SORT_COLUMNS.get(criteria.getSortField()));
+        query.setSortDirection(criteria.isAscending() ? "ASC" : "DESC");
+        query.setOffset(criteria.getOffset());
+        query.setLimit(criteria.getLimit());
+        // 复制为 ArrayList：Mapper XML 中的 OGNL 会反射调用 size()，JDK 16 起无法访问 Arrays.asList、
+        // Collections.unmodifiableList 等非公开实现类的方法
+        query.setPriceEdges(new ArrayList<>(criteria.getPriceBucketEdges()));
+        return query;
+    }
+    
+    /**
+     * 提取并排序产品ID值
+     */
+    private List<Long> toIdValues(Collection<ProductId> ids) {
+        List<Long> values = new ArrayList<>(ids.size());
+        for (ProductId id : ids) {
+            values.add(id.getValue());
+        }
+        Collections.sort(values);
+        return values;
+    }
+    
     /**
      * 将持久化对象转换为领域对象
      */
@@ -0,0 +1,354 @@
+package com.ceramic.product.infrastructure.search;
+
+import com.ceramic.product.domain.event.ProductChangedEvent;
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.domain.service.ProductSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存倒排索引
+ * 名称、分类、描述的词频分别按 3、2、1 加权，相关度为各查询词加权词频与逆文档频率之积的和；
+ * 所有查询词都必须命中，最后一个拉丁单词按前缀匹配以支持边输入边搜索。
+ * 启动后在后台线程从数据库按页全量构建，每页之间检查时限，超时或失败则隔一段时间重试，每次重试的时限加倍、最多为配置的8倍，
+ * 直到成功前由调用方退回模糊查询；构建完成后随产品变更事件增量更新，只改变库存的事件和索引词没有变化的修改不会占用写锁。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ceramic.product.search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InMemoryProductSearchIndex implements ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    /** 前缀匹配最多展开的词数 */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    /** 全量构建时每次读取的产品数 */
+    private static final int REBUILD_PAGE_SIZE = 500;
+    /** 重试时限最多翻倍的次数 */
+    private static final int MAX_TIMEOUT_DOUBLINGS = 3;
+
+    private final ProductRepository productRepository;
+    private final Duration rebuildTimeout;
+    private final Duration rebuildRetryDelay;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService executor;
+    private int failedRebuilds;
+
+    public InMemoryProductSearchIndex(ProductRepository productRepository,
+                                      @Value("${ceramic.product.search.rebuild-timeout:30s}") Duration rebuildTimeout,
+                                      @Value("${ceramic.product.search.rebuild-retry-delay:1m}") Duration rebuildRetryDelay) {
+        if (rebuildTimeout.isNegative() || rebuildTimeout.isZero()) {
+            throw new IllegalArgumentException("ceramic.product.search.rebuild-timeout 必须大于0");
+        }
+        this.productRepository = productRepository;
+        this.rebuildTimeout = rebuildTimeout;
+        this.rebuildRetryDelay = rebuildRetryDelay;
+    }
+
+    /**
+     * 应用启动完成后在后台线程构建索引，超时或失败后由同一线程稍后重试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::rebuildWithRetry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Hits search(String query, int offset, int limit) {
+        List<QueryTerm> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            return new Hits(0, Collections.emptyList());
+        }
+
+        List<Map.Entry<Long, Double>> scored;
+        lock.readLock().lock();
+        try {
+            scored = score(data, terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scored.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+        });
+        List<ProductId> page = new ArrayList<>();
+        for (int i = offset; i < scored.size() && page.size() < limit; i++) {
+            page.add(new ProductId(scored.get(i).getKey()));
+        }
+        return new Hits(scored.size(), page);
+    }
+
+    /**
+     * 产品变更提交后重新索引该产品；库存变化不影响名称、分类和描述，直接跳过
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_CHANGED) {
+            return;
+        }
+        Long productId = event.getProductId().getValue();
+        if (rebuilding) {
+            changedDuringRebuild.add(productId);
+        }
+        reindex(productId);
+    }
+
+    private void rebuildWithRetry() {
+        Duration timeout = rebuildTimeout.multipliedBy(1L << Math.min(failedRebuilds, MAX_TIMEOUT_DOUBLINGS));
+        if (rebuild(timeout)) {
+            return;
+        }
+        failedRebuilds++;
+        try {
+            executor.schedule(this::rebuildWithRetry, rebuildRetryDelay.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("产品检索索引将在{}后第{}次重试构建", rebuildRetryDelay, failedRebuilds);
+        } catch (RuntimeException e) {
+            // 关闭过程中不再接受任务
+            log.warn("产品检索索引重试构建未能调度: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库按页全量构建索引，超过时限则放弃并保持未就绪
+     *
+     * @return 是否构建完成
+     */
+    boolean rebuild(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            IndexData rebuilt = new IndexData();
+            int count = 0;
+            long afterId = 0;
+            List<Product> page;
+            do {
+                if (System.nanoTime() > deadline) {
+                    log.warn("产品检索索引构建超时({})，已读取 {} 个产品，继续使用模糊查询", timeout, count);
+                    return false;
+                }
+                page = productRepository.findPageAfterId(afterId, REBUILD_PAGE_SIZE);
+                for (Product product : page) {
+                    afterId = product.getId().getValue();
+                    rebuilt.add(afterId, weightedTerms(product));
+                }
+                count += page.size();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                data = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding = false;
+            // 构建期间提交的变更可能没有进入新索引，重新索引一次
+            for (Long productId : changedDuringRebuild) {
+                reindex(productId);
+            }
+            changedDuringRebuild.clear();
+            ready = true;
+            log.info("产品检索索引构建完成，共 {} 个产品，{} 个词", count, rebuilt.postings.size());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("产品检索索引构建失败，继续使用模糊查询", e);
+            return false;
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    private void reindex(Long productId) {
+        Map<String, Integer> terms = productRepository.findById(new ProductId(productId))
+                .map(this::weightedTerms)
+                .orElse(null);
+        // 名称、分类、描述都没变时索引词相同，不需要写锁
+        lock.readLock().lock();
+        try {
+            if (Objects.equals(data.documents.get(productId), terms)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            data.remove(productId);
+            if (terms != null) {
+                data.add(productId, terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 将查询拆成若干查询词，各词都必须命中；用户仍在输入的最后一个拉丁单词按前缀匹配
+     */
+    private List<QueryTerm> queryTerms(String query) {
+        List<String> tokens = ProductTokenizer.tokenizeForQuery(query);
+        boolean lastIsPrefix = ProductTokenizer.endsWithLatin(query);
+        List<QueryTerm> terms = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            terms.add(new QueryTerm(tokens.get(i), lastIsPrefix && i == tokens.size() - 1));
+        }
+        return terms;
+    }
+
+    private List<Map.Entry<Long, Double>> score(IndexData index, List<QueryTerm> terms) {
+        int documents = Math.max(index.documents.size(), 1);
+        Map<Long, Double> scores = null;
+        for (QueryTerm term : terms) {
+            List<String> tokens = term.prefix
+                    ? index.expandPrefix(term.token, MAX_PREFIX_EXPANSIONS)
+                    : Collections.singletonList(term.token);
+
+            // 前缀展开出的多个词取得分最高的一个
+            Map<Long, Double> termScores = new HashMap<>();
+            for (String token : tokens) {
+                Map<Long, Integer> postings = index.postings.get(token);
+                if (postings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (double) documents / postings.size());
+                for (Map.Entry<Long, Integer> posting : postings.entrySet()) {
+                    if (scores != null && !scores.containsKey(posting.getKey())) {
+                        continue;
+                    }
+                    termScores.merge(posting.getKey(), posting.getValue() * idf, Math::max);
+                }
+            }
+            if (termScores.isEmpty()) {
+                return new ArrayList<>();
+            }
+            if (scores != null) {
+                for (Map.Entry<Long, Double> entry : termScores.entrySet()) {
+                    entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                }
+            }
+            scores = termScores;
+        }
+        return new ArrayList<>(scores.entrySet());
+    }
+
+    /**
+     * 计算产品各词的加权词频
+     */
+    private Map<String, Integer> weightedTerms(Product product) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, product.getName().getValue(), NAME_WEIGHT);
+        addTerms(terms, product.getCategory().getValue(), CATEGORY_WEIGHT);
+        if (product.getDescription() != null) {
+            addTerms(terms, product.getDescription().getValue(), DESCRIPTION_WEIGHT);
+        }
+        return terms;
+    }
+
+    private void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : ProductTokenizer.tokenizeForIndex(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * 索引数据：词到产品加权词频的倒排表，以及产品到其索引词的正排表
+     */
+    private static final class IndexData {
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+        void add(Long productId, Map<String, Integer> terms) {
+            documents.put(productId, terms);
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(productId, term.getValue());
+            }
+        }
+
+        void remove(Long productId) {
+            Map<String, Integer> terms = documents.remove(productId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms.keySet()) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList != null) {
+                    postingList.remove(productId);
+                    if (postingList.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        List<String> expandPrefix(String prefix, int limit) {
+            List<String> expanded = new ArrayList<>();
+            for (String term : postings.tailMap(prefix, true).keySet()) {
+                if (!term.startsWith(prefix) || expanded.size() >= limit) {
+                    break;
+                }
+                expanded.add(term);
+            }
+            return expanded;
+        }
+    }
+
+    private static final class QueryTerm {
+        private final String token;
+        private final boolean prefix;
+
+        private QueryTerm(String token, boolean prefix) {
+            this.token = token;
+            this.prefix = prefix;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ceramic.product.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 产品文本分词器
+ * 中日韩文字按单字和相邻两字切分，拉丁字母与数字按连续片段切分为单词，统一转为小写
+ */
+final class ProductTokenizer {
+    
+    private ProductTokenizer() {
+    }
+    
+    /**
+     * 索引分词：中日韩文字同时输出单字和二元组
+     */
+    static List<String> tokenizeForIndex(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (Run run : split(text)) {
+            if (run.cjk) {
+                int[] codePoints = run.text.codePoints().toArray();
+                for (int i = 0; i < codePoints.length; i++) {
+                    tokens.add(new String(codePoints, i, 1));
+                    if (i + 1 < codePoints.length) {
+                        tokens.add(new String(codePoints, i, 2));
+                    }
+                }
+            } else {
+                tokens.add(run.text);
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * 查询分词：中日韩文字只有一个字时用单字，否则用二元组
+     */
+    static List<String> tokenizeForQuery(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (Run run : split(text)) {
+            int[] codePoints = run.text.codePoints().toArray();
+            if (run.cjk && codePoints.length > 1) {
+                for (int i = 0; i + 1 < codePoints.length; i++) {
+                    tokens.add(new String(codePoints, i, 2));
+                }
+            } else {
+                tokens.add(run.text);
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * 查询是否以拉丁字母或数字结尾，即用户可能还在输入最后一个单词
+     */
+    static boolean endsWithLatin(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        int last = text.codePointBefore(text.length());
+        return Character.isLetterOrDigit(last) && !isCjk(last);
+    }
+    
+    private static List<Run> split(String text) {
+        List<Run> runs = new ArrayList<>();
+        if (text == null) {
+            return runs;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder();
+        boolean currentCjk = false;
+        for (int i = 0; i < lower.length(); ) {
+            int codePoint = lower.codePointAt(i);
+            i += Character.charCount(codePoint);
+            boolean cjk = isCjk(codePoint);
+            if (!cjk && !Character.isLetterOrDigit(codePoint)) {
+                flush(runs, current, currentCjk);
+                continue;
+            }
+            if (current.length() > 0 && cjk != currentCjk) {
+                flush(runs, current, currentCjk);
+            }
+            currentCjk = cjk;
+            current.appendCodePoint(codePoint);
+        }
+        flush(runs, current, currentCjk);
+        return runs;
+    }
+    
+    private static void flush(List<Run> runs, StringBuilder current, boolean cjk) {
+        if (current.length() > 0) {
+            runs.add(new Run(current.toString(), cjk));
+            current.setLength(0);
+        }
+    }
+    
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+    
+    private static final class Run {
+        private final String text;
+        private final boolean cjk;
+        
+        private Run(String text, boolean cjk) {
+            this.text = text;
+            this.cjk = cjk;
+        }
+    }
+}
@@ -1,86 +1,117 @@
 package com.ceramic.product.interfaces.rest;
 
+import com.ceramic.product.application.dto.InventoryReservationDTO;
+import com.ceramic.product.application.dto.InventoryReservationRequest;
+import com.ceramic.product.application.dto.PageResult;
 import com.ceramic.product.application.dto.ProductDTO;
+import com.ceramic.product.application.dto.ProductQueryParams;
+import com.ceramic.product.application.dto.ProductQueryResult;
 import com.ceramic.product.application.service.ProductApplicationService;
+import com.ceramic.product.application.service.ProductCatalogSnapshotService;
+import com.ceramicshop.common.dto.ApiResponse;
+import com.ceramicshop.common.dto.ResultCode;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
 /**
  * 产品控制器
+ * 响应统一使用 ApiResponse 格式，参数错误和资源不存在由全局异常处理器返回。
  */
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductApplicationService productService;
+    private final ProductCatalogSnapshotService catalogSnapshotService;
 
-    public ProductController(ProductApplicationService productService) {
+    public ProductController(ProductApplicationService productService,
+                             ProductCatalogSnapshotService catalogSnapshotService) {
         this.productService = productService;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
     /**
      * 查询所有产品
+     * 直接输出预先序列化的快照，If-None-Match 命中时返回304
      */
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(WebRequest request) {
+        return toResponse(catalogSnapshotService.getAllProducts(), request);
     }
 
     /**
      * 根据ID查询产品
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ApiResponse<ProductDTO> getProductById(@PathVariable Long id) {
         ProductDTO product = productService.getProductById(id);
-        if (product != null) {
-            return ResponseEntity.ok(product);
-        } else {
-            return ResponseEntity.notFound().build();
+        if (product == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
+        return ApiResponse.success(product);
     }
 
     /**
      * 根据分类查询产品
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
-        List<ProductDTO> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getProductsByCategory(@PathVariable String category, WebRequest request) {
+        return toResponse(catalogSnapshotService.getProductsByCategory(category), request);
     }
     
     /**
      * 根据名称模糊查询产品
      */
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDTO>> searchProductsByName(@RequestParam String name) {
-        List<ProductDTO> products = productService.getProductsByNameLike(name);
-        return ResponseEntity.ok(products);
+    public ApiResponse<List<ProductDTO>> searchProductsByName(@RequestParam String name) {
+        return ApiResponse.success(productService.getProductsByNameLike(name));
+    }
+
+    /**
+     * 全文检索产品
+     * 按名称、描述和分类检索，结果按相关度分页
+     */
+    @GetMapping(value = "/search", params = "q")
+    public ApiResponse<PageResult<ProductDTO>> searchProducts(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "1") int pageNum,
+                                                              @RequestParam(defaultValue = "10") int pageSize) {
+        return ApiResponse.success(productService.searchProducts(q, pageNum, pageSize));
+    }
+
+    /**
+     * 组合条件查询产品
+     * 支持名称、分类、价格区间、状态筛选及排序分页，并返回分面计数
+     */
+    @GetMapping("/query")
+    public ApiResponse<ProductQueryResult> queryProducts(ProductQueryParams params) {
+        return ApiResponse.success(productService.queryProducts(params));
     }
 
     /**
      * 创建产品
      */
     @PostMapping
-    public ResponseEntity<ProductDTO> createProduct(@RequestBody ProductDTO product) {
+    public ResponseEntity<ApiResponse<ProductDTO>> createProduct(@RequestBody ProductDTO product) {
         ProductDTO createdProduct = productService.createProduct(product);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(createdProduct));
     }
 
     /**
      * 更新产品
      */
     @PutMapping("/{id}")
-    public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody ProductDTO product) {
+    public ApiResponse<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody ProductDTO product) {
         ProductDTO updatedProduct = productService.updateProduct(id, product);
-        if (updatedProduct != null) {
-            return ResponseEntity.ok(updatedProduct);
-        } else {
-            return ResponseEntity.notFound().build();
+        if (updatedProduct == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
+        return ApiResponse.success(updatedProduct);
     }
 
     /**
@@ -88,46 +119,65 @@ public class ProductController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        boolean deleted = productService.deleteProduct(id);
-        if (deleted) {
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
+        if (!productService.deleteProduct(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
+        return ResponseEntity.noContent().build();
     }
 
     /**
      * 上架产品
      */
     @PutMapping("/{id}/online")
-    public ResponseEntity<Void> onlineProduct(@PathVariable Long id) {
-        boolean success = productService.onlineProduct(id);
-        if (success) {
-            return ResponseEntity.ok().build();
-        } else {
-            return ResponseEntity.badRequest().build();
+    public ApiResponse<Void> onlineProduct(@PathVariable Long id) {
+        if (!productService.onlineProduct(id)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "产品不存在或无法上架");
         }
+        return ApiResponse.success();
     }
 
     /**
      * 下架产品
      */
     @PutMapping("/{id}/offline")
-    public ResponseEntity<Void> offlineProduct(@PathVariable Long id) {
-        boolean success = productService.offlineProduct(id);
-        if (success) {
-            return ResponseEntity.ok().build();
-        } else {
-            return ResponseEntity.notFound().build();
+    public ApiResponse<Void> offlineProduct(@PathVariable Long id) {
+        if (!productService.offlineProduct(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ApiResponse.success();
+    }
+    
+    /**
+     * 整单预占库存
+     * 全部商品行满足时扣减并返回200，否则不扣减并返回409及每行的检查结果
+     */
+    @PostMapping("/inventory/reservations")
+    public ResponseEntity<ApiResponse<InventoryReservationDTO>> reserveInventory(@RequestBody InventoryReservationRequest request) {
+        InventoryReservationDTO reservation = productService.reserveInventory(request);
+        if (reservation.isReserved()) {
+            return ResponseEntity.ok(ApiResponse.success(reservation));
         }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.fail(ResultCode.STOCK_NOT_ENOUGH, reservation));
     }
     
     /**
      * 获取所有产品分类
      */
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getAllCategories() {
-        List<String> categories = productService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ApiResponse<List<String>> getAllCategories() {
+        return ApiResponse.success(productService.getAllCategories());
+    }
+
+    /**
+     * 输出列表快照，客户端缓存的ETag仍然有效时返回304
+     */
+    private ResponseEntity<byte[]> toResponse(ProductCatalogSnapshotService.Snapshot snapshot, WebRequest request) {
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
     }
 } 
\ No newline at end of file
@@ -8,10 +8,30 @@ CREATE TABLE IF NOT EXISTS product (
     stock INT NOT NULL DEFAULT 0 COMMENT '库存数量',
     status VARCHAR(20) NOT NULL DEFAULT 'OFFLINE' COMMENT '产品状态：ONLINE-上架，OFFLINE-下架',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    row_version BIGINT NOT NULL DEFAULT 1 COMMENT '行版本，每次写入加1，用于判断产品目录是否变化'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='产品表';
 
+-- 产品目录版本，删除或整体修改产品时在同一事务中加1
+CREATE TABLE IF NOT EXISTS product_catalog_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '目录版本号'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='产品目录版本';
+INSERT IGNORE INTO product_catalog_version (id, version) VALUES (1, 0);
+
+-- 热点库存租约，同一时间只允许一个产品服务实例开启热点库存
+CREATE TABLE IF NOT EXISTS product_hot_sku_lease (
+    id TINYINT PRIMARY KEY,
+    owner VARCHAR(128) COMMENT '持有租约的实例，NULL表示空闲',
+    expire_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '租约过期时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='热点库存租约';
+INSERT IGNORE INTO product_hot_sku_lease (id, owner) VALUES (1, NULL);
+
 -- 创建索引
-CREATE INDEX idx_category ON product(category);
-CREATE INDEX idx_status ON product(status);
+-- 组合查询：分类+状态筛选后按价格或创建时间排序，前缀同时覆盖单独按分类筛选
+CREATE INDEX idx_category_status_price ON product(category, status, price);
+CREATE INDEX idx_category_status_create_time ON product(category, status, create_time);
+-- 组合查询：只按状态筛选时按价格或创建时间排序，前缀同时覆盖单独按状态筛选
+CREATE INDEX idx_status_price ON product(status, price);
+CREATE INDEX idx_status_create_time ON product(status, create_time);
 CREATE INDEX idx_create_time ON product(create_time); 
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.ceramic.product.application.service;
+
+import com.ceramic.product.application.dto.ProductDTO;
+import com.ceramic.product.application.dto.ProductQueryParams;
+import com.ceramic.product.application.dto.ProductQueryResult;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.domain.service.ProductDomainService;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 组合查询与分面计数测试（数据库路径）
+ * 每个维度的计数应用其他维度的条件、不应用自身的条件，总数应用全部条件；
+ * 产品名称带每个测试唯一的前缀并以它作为名称条件，与同一内存库中其他测试的数据隔离
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class ProductApplicationServiceQueryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDomainService productDomainService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private ProductApplicationService service;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProductApplicationService(productRepository, productDomainService,
+                Optional.empty(), Optional.empty(), new SimpleMeterRegistry());
+        prefix = "分面样品" + UUID.randomUUID().toString().substring(0, 8);
+        insert("青花杯", "茶具", "80.00", "ONLINE");
+        insert("粉彩壶", "茶具", "250.00", "OFFLINE");
+        insert("影青瓶", "花瓶", "120.00", "ONLINE");
+        insert("梅瓶", "花瓶", "600.00", "ONLINE");
+        insert("大盘", "餐具", "1500.00", "OFFLINE");
+    }
+
+    @Test
+    void countsEveryFacetWhenNoFilterIsSet() {
+        ProductQueryResult result = service.queryProducts(params());
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getFacets().get("category")).isEqualTo(counts("花瓶", 2, "茶具", 2, "餐具", 1));
+        assertThat(result.getFacets().get("priceBucket"))
+                .isEqualTo(counts("0-100", 1, "100-300", 2, "300-500", 0, "500-1000", 1, "1000+", 1));
+        assertThat(result.getFacets().get("status")).isEqualTo(counts("OFFLINE", 2, "ONLINE", 3));
+    }
+
+    @Test
+    void eachFacetIgnoresOnlyItsOwnFilter() {
+        ProductQueryParams params = params();
+        params.setCategory("茶具");
+        params.setStatus("ONLINE");
+        params.setMinPrice(50.0);
+        params.setMaxPrice(300.0);
+
+        ProductQueryResult result = service.queryProducts(params);
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getList()).extracting(ProductDTO::getName).containsExactly(prefix + "青花杯");
+        // 上架且价格在50到300之间：青花杯、影青瓶
+        assertThat(result.getFacets().get("category")).isEqualTo(counts("花瓶", 1, "茶具", 1));
+        // 茶具且上架：青花杯
+        assertThat(result.getFacets().get("priceBucket"))
+                .isEqualTo(counts("0-100", 1, "100-300", 0, "300-500", 0, "500-1000", 0, "1000+", 0));
+        // 茶具且价格在50到300之间：青花杯、粉彩壶
+        assertThat(result.getFacets().get("status")).isEqualTo(counts("OFFLINE", 1, "ONLINE", 1));
+    }
+
+    @Test
+    void twoFiltersCountRowsMatchingEitherOfThem() {
+        ProductQueryParams params = params();
+        params.setCategory("花瓶");
+        params.setStatus("OFFLINE");
+
+        ProductQueryResult result = service.queryProducts(params);
+
+        assertThat(result.getTotal()).isZero();
+        assertThat(result.getList()).isEmpty();
+        // 下架：粉彩壶、大盘
+        assertThat(result.getFacets().get("category")).isEqualTo(counts("茶具", 1, "餐具", 1));
+        // 花瓶：影青瓶、梅瓶
+        assertThat(result.getFacets().get("status")).isEqualTo(counts("ONLINE", 2));
+        // 花瓶且下架：没有
+        assertThat(result.getFacets().get("priceBucket"))
+                .isEqualTo(counts("0-100", 0, "100-300", 0, "300-500", 0, "500-1000", 0, "1000+", 0));
+    }
+
+    @Test
+    void rejectsPageNumberWhoseOffsetOverflows() {
+        ProductQueryParams params = params();
+        params.setPageNum(Integer.MAX_VALUE);
+        params.setPageSize(100);
+
+        assertThatThrownBy(() -> service.queryProducts(params)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchProducts(prefix, Integer.MAX_VALUE, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void returnsEmptyPageBeyondLastPage() {
+        ProductQueryParams params = params();
+        params.setPageNum(Integer.MAX_VALUE / 100);
+        params.setPageSize(100);
+
+        ProductQueryResult result = service.queryProducts(params);
+
+        assertThat(result.getList()).isEmpty();
+        assertThat(result.getTotal()).isEqualTo(5);
+    }
+
+    private ProductQueryParams params() {
+        ProductQueryParams params = new ProductQueryParams();
+        params.setName(prefix);
+        return params;
+    }
+
+    private void insert(String name, String category, String price, String status) {
+        jdbc.update("INSERT INTO product (name, price, category, stock, status) VALUES (?, ?, ?, 10, ?)",
+                prefix + name, new BigDecimal(price), category, status);
+    }
+
+    private static Map<String, Long> counts(Object... pairs) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            counts.put((String) pairs[i], ((Integer) pairs[i + 1]).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ceramic.product.domain.service;
+
+import com.ceramic.product.domain.model.valueobject.InventoryReservation;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 整单预占库存测试
+ * 全部行满足时一条批量UPDATE扣减，扣减到0的行同时下架；任一行不满足时所有行都不扣减
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class ProductDomainServiceReservationTest {
+
+    @Autowired
+    private ProductDomainService productDomainService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void reservesAllLinesAndTakesSoldOutProductsOffline() {
+        ProductId teapot = insertProduct("青花茶壶", 5, "ONLINE");
+        ProductId bowl = insertProduct("粉彩碗", 2, "ONLINE");
+
+        InventoryReservation reservation = reserve(quantities(teapot, 3, bowl, 2));
+
+        assertThat(reservation.isReserved()).isTrue();
+        assertThat(reservation.getLines()).allMatch(InventoryReservation.Line::isAvailable);
+        assertThat(stockOf(teapot)).isEqualTo(2);
+        assertThat(statusOf(teapot)).isEqualTo("ONLINE");
+        assertThat(stockOf(bowl)).isZero();
+        assertThat(statusOf(bowl)).isEqualTo("OFFLINE");
+    }
+
+    @Test
+    void leavesEveryLineUntouchedWhenAnyLineIsShort() {
+        ProductId vase = insertProduct("影青花瓶", 4, "ONLINE");
+        ProductId cup = insertProduct("玲珑杯", 1, "ONLINE");
+        ProductId plate = insertProduct("颜色釉盘", 9, "OFFLINE");
+
+        InventoryReservation reservation = reserve(quantities(vase, 4, cup, 2, plate, 1));
+
+        assertThat(reservation.isReserved()).isFalse();
+        assertThat(reservation.getLines())
+                .extracting(InventoryReservation.Line::getStatus)
+                .containsExactly(InventoryReservation.LineStatus.AVAILABLE,
+                        InventoryReservation.LineStatus.INSUFFICIENT_STOCK,
+                        InventoryReservation.LineStatus.OFFLINE);
+        assertThat(stockOf(vase)).isEqualTo(4);
+        assertThat(statusOf(vase)).isEqualTo("ONLINE");
+        assertThat(stockOf(cup)).isEqualTo(1);
+        assertThat(stockOf(plate)).isEqualTo(9);
+    }
+
+    @Test
+    void reportsMissingProducts() {
+        ProductId jar = insertProduct("茶叶罐", 3, "ONLINE");
+
+        InventoryReservation reservation = reserve(quantities(jar, 1, new ProductId(Long.MAX_VALUE), 1));
+
+        assertThat(reservation.isReserved()).isFalse();
+        assertThat(reservation.getLines().get(1).getStatus()).isEqualTo(InventoryReservation.LineStatus.NOT_FOUND);
+        assertThat(stockOf(jar)).isEqualTo(3);
+    }
+
+    private InventoryReservation reserve(Map<ProductId, Integer> quantities) {
+        return transactionTemplate.execute(status -> productDomainService.reserveInventory(quantities));
+    }
+
+    private ProductId insertProduct(String name, int stock, String status) {
+        jdbc.update("INSERT INTO product (name, price, category, stock, status) VALUES (?, 88.00, '瓷器', ?, ?)",
+                name, stock, status);
+        return new ProductId(jdbc.queryForObject("SELECT MAX(id) FROM product", Long.class));
+    }
+
+    private int stockOf(ProductId productId) {
+        return jdbc.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, productId.getValue());
+    }
+
+    private String statusOf(ProductId productId) {
+        return jdbc.queryForObject("SELECT status FROM product WHERE id = ?", String.class, productId.getValue());
+    }
+
+    private static Map<ProductId, Integer> quantities(Object... pairs) {
+        Map<ProductId, Integer> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            quantities.put((ProductId) pairs[i], (Integer) pairs[i + 1]);
+        }
+        return quantities;
+    }
+}
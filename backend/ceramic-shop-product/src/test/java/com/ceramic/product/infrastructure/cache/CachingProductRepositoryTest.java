@@ -0,0 +1,143 @@
+package com.ceramic.product.infrastructure.cache;
+
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.Category;
+import com.ceramic.product.domain.model.valueobject.Money;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import com.ceramic.product.infrastructure.persistence.repository.ProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 缓存仓储两次失效测试
+ * 写事务提交前，另一个线程的读取穿透到数据库读到旧数据并放回缓存；提交后的第二次失效必须把它清掉，
+ * 之后的读取不能再拿到旧数据。
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class CachingProductRepositoryTest {
+
+    private static final Category TEA_SET = new Category("双删茶具");
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private CachingProductRepository repository;
+    private ExecutorService reader;
+    private ProductId productId;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingProductRepository(new ProductRepositoryImpl(productMapper, event -> { }),
+                100, 10, Duration.ofMinutes(10));
+        reader = Executors.newSingleThreadExecutor();
+        jdbc.update("INSERT INTO product (name, price, category, stock, status) VALUES ('双删样品', 66.00, ?, 10, 'ONLINE')",
+                TEA_SET.getValue());
+        productId = new ProductId(jdbc.queryForObject("SELECT MAX(id) FROM product", Long.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.shutdownNow();
+    }
+
+    @Test
+    void readThroughBeforeCommitDoesNotLeaveStaleProduct() {
+        assertThat(priceOf(repository.findById(productId).get())).isEqualByComparingTo("66.00");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = repository.findById(productId).get();
+            product.updatePrice(new Money(new BigDecimal("88.00")));
+            repository.save(product);
+            // 写入后立即失效，另一个连接读不到未提交的新价格，把旧价格重新放回缓存
+            assertThat(priceOf(readConcurrently(productId))).isEqualByComparingTo("66.00");
+        });
+
+        assertThat(priceOf(repository.findById(productId).get())).isEqualByComparingTo("88.00");
+        assertThat(priceOf(readConcurrently(productId))).isEqualByComparingTo("88.00");
+    }
+
+    @Test
+    void readThroughBeforeCommitDoesNotLeaveStaleStock() {
+        assertThat(repository.findById(productId).get().getInventory().getAvailableQuantity()).isEqualTo(10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(repository.decreaseStock(productId, 3)).isTrue();
+            assertThat(readConcurrently(productId).getInventory().getAvailableQuantity()).isEqualTo(10);
+        });
+
+        assertThat(repository.findById(productId).get().getInventory().getAvailableQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void readThroughBeforeCommitDoesNotLeaveStaleCategoryList() {
+        assertThat(repository.findByCategory(TEA_SET)).extracting(Product::getId).contains(productId);
+        Category vase = new Category("双删花瓶");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = repository.findById(productId).get();
+            product.update(product.getName(), product.getDescription(), product.getPrice(), vase, product.getImage());
+            repository.save(product);
+            assertThat(findByCategoryConcurrently(TEA_SET)).extracting(Product::getId).contains(productId);
+        });
+
+        assertThat(repository.findByCategory(TEA_SET)).extracting(Product::getId).doesNotContain(productId);
+        assertThat(repository.findByCategory(vase)).extracting(Product::getId).contains(productId);
+    }
+
+    @Test
+    void rolledBackWriteLeavesCommittedProductReadable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = repository.findById(productId).get();
+            product.updatePrice(new Money(new BigDecimal("99.00")));
+            repository.save(product);
+            status.setRollbackOnly();
+        });
+
+        assertThat(priceOf(readConcurrently(productId))).isEqualByComparingTo("66.00");
+    }
+
+    /**
+     * 在不参与写事务的线程上读取，相当于并发请求
+     */
+    private Product readConcurrently(ProductId id) {
+        try {
+            return reader.submit(() -> repository.findById(id).get()).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Product> findByCategoryConcurrently(Category category) {
+        try {
+            return reader.submit(() -> repository.findByCategory(category)).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BigDecimal priceOf(Product product) {
+        return product.getPrice().getAmount();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ceramic.product.infrastructure.catalog;
+
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.model.valueobject.ProductStatus;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.repository.ProductFacetCounts;
+import com.ceramic.product.domain.service.ProductCatalogView;
+import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import com.ceramic.product.infrastructure.persistence.repository.ProductRepositoryImpl;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 产品目录组合查询微基准：列式快照与数据库路径（findByCriteria + countFacets）对比
+ * 查询带分类、状态、价格区间三个条件，按价格排序取第一页，并计算三个维度的分面。
+ * 数据库路径跑在带同样索引的内存 H2 上，没有网络往返，数值只是 MySQL 耗时的下限。
+ * 两条路径结果一致由 CatalogSnapshotTest 保证。test-compile 后以测试类路径运行 main 方法，不随单元测试执行。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final List<BigDecimal> PRICE_EDGES =
+            Arrays.asList(new BigDecimal("100"), new BigDecimal("300"), new BigDecimal("1000"));
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    private CatalogSnapshot snapshot;
+    private ProductRepositoryImpl repository;
+    private ProductCriteria criteria;
+
+    @Setup
+    public void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:product-bench-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setDriverClassName("org.h2.Driver");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-product-h2.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // 与 db/schema.sql 相同的组合查询索引
+        jdbc.execute("CREATE INDEX idx_category_status_price ON product(category, status, price)");
+        jdbc.execute("CREATE INDEX idx_category_status_create_time ON product(category, status, create_time)");
+        jdbc.execute("CREATE INDEX idx_status_price ON product(status, price)");
+        jdbc.execute("CREATE INDEX idx_status_create_time ON product(status, create_time)");
+        jdbc.execute("CREATE INDEX idx_create_time ON product(create_time)");
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            rows.add(new Object[]{
+                    "产品" + i,
+                    BigDecimal.valueOf(100 + random.nextInt(200_000), 2),
+                    "分类" + random.nextInt(CATEGORIES),
+                    random.nextInt(1000),
+                    random.nextInt(10) == 0 ? "OFFLINE" : "ONLINE",
+                    new Timestamp(1_600_000_000_000L + i * 1000L)
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO product (name, price, category, stock, status, create_time) VALUES (?, ?, ?, ?, ?, ?)",
+                rows);
+
+        org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setCacheEnabled(false);
+        SqlSessionFactoryBean factory = new SqlSessionFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setConfiguration(configuration);
+        factory.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath:mapper/*.xml"));
+        SqlSessionFactory sqlSessionFactory = factory.getObject();
+        ProductMapper productMapper = new SqlSessionTemplate(sqlSessionFactory).getMapper(ProductMapper.class);
+
+        repository = new ProductRepositoryImpl(productMapper, event -> { });
+        snapshot = new CatalogSnapshot(productMapper.selectAll());
+        criteria = ProductCriteria.builder()
+                .category("分类3")
+                .status(ProductStatus.ONLINE)
+                .minPrice(new BigDecimal("100"))
+                .maxPrice(new BigDecimal("500"))
+                .sortField(ProductCriteria.SortField.PRICE)
+                .ascending(true)
+                .offset(0)
+                .limit(20)
+                .priceBucketEdges(PRICE_EDGES)
+                .build();
+    }
+
+    @Benchmark
+    public ProductCatalogView.Result columnarSnapshot() {
+        return snapshot.query(criteria);
+    }
+
+    /**
+     * 内存目录未启用或条件不支持时走的数据库路径：一条分页查询加一条分面分组查询
+     */
+    @Benchmark
+    public ProductCatalogView.Result databaseOnH2() {
+        List<Product> page = repository.findByCriteria(criteria);
+        ProductFacetCounts counts = repository.countFacets(criteria);
+        List<ProductId> ids = new ArrayList<>(page.size());
+        for (Product product : page) {
+            ids.add(product.getId());
+        }
+        return new ProductCatalogView.Result(ids, counts);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CatalogSnapshotBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ceramic.product.infrastructure.catalog;
+
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.ProductStatus;
+import com.ceramic.product.domain.repository.ProductCriteria;
+import com.ceramic.product.domain.repository.ProductFacetCounts;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.domain.service.ProductCatalogView;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列式快照与数据库查询一致性测试
+ * 对分类、状态、价格区间、排序字段、方向和分页的各种组合，快照返回的当前页、总数和三个维度的分面计数
+ * 以及名称子串筛选，都必须与 findByCriteria、countFacets 完全相同；
+ * 数据中故意包含相同的价格、库存和创建时间，覆盖按ID排序的次序
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class CatalogSnapshotTest {
+
+    private static final List<String> CATEGORIES = Arrays.asList("茶具", "花瓶", "餐具", "摆件", "文房");
+    private static final List<BigDecimal> PRICE_EDGES =
+            Arrays.asList(new BigDecimal("100"), new BigDecimal("300"), new BigDecimal("1000"));
+    private static final BigDecimal[][] PRICE_RANGES = {
+            {null, null},
+            {new BigDecimal("100"), null},
+            {null, new BigDecimal("300")},
+            {new BigDecimal("50.5"), new BigDecimal("800")}
+    };
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void loadCatalog() {
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(new Object[]{
+                    "产品" + i,
+                    // 价格取自有限的集合，制造大量相同价格
+                    BigDecimal.valueOf(50 + random.nextInt(40) * 37, 0).add(new BigDecimal("0.50")),
+                    CATEGORIES.get(random.nextInt(CATEGORIES.size())),
+                    random.nextInt(20),
+                    random.nextInt(4) == 0 ? "OFFLINE" : "ONLINE",
+                    Timestamp.valueOf(base.plusMinutes(random.nextInt(30)))
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO product (name, price, category, stock, status, create_time) VALUES (?, ?, ?, ?, ?, ?)",
+                rows);
+        snapshot = new CatalogSnapshot(productMapper.selectAll());
+    }
+
+    @Test
+    void matchesDatabaseForEveryFilterSortAndPageCombination() {
+        int checked = 0;
+        for (String category : Arrays.asList(null, "茶具", "不存在的分类")) {
+            for (ProductStatus status : Arrays.asList(null, ProductStatus.ONLINE, ProductStatus.OFFLINE)) {
+                for (BigDecimal[] range : PRICE_RANGES) {
+                    for (ProductCriteria.SortField sortField : Arrays.asList(ProductCriteria.SortField.ID,
+                            ProductCriteria.SortField.PRICE, ProductCriteria.SortField.STOCK,
+                            ProductCriteria.SortField.CREATE_TIME)) {
+                        for (boolean ascending : new boolean[]{true, false}) {
+                            for (int offset : new int[]{0, 7}) {
+                                assertSameResult(ProductCriteria.builder()
+                                        .category(category)
+                                        .status(status)
+                                        .minPrice(range[0])
+                                        .maxPrice(range[1])
+                                        .sortField(sortField)
+                                        .ascending(ascending)
+                                        .offset(offset)
+                                        .limit(10)
+                                        .priceBucketEdges(PRICE_EDGES)
+                                        .build());
+                                checked++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(checked).isEqualTo(576);
+    }
+
+    @Test
+    void matchesDatabaseWhenFilteringByName() {
+        int checked = 0;
+        // 产品1 匹配 产品1、产品10～19、产品100～199
+        for (String name : Arrays.asList("产品1", "产品19", "品7", "不存在的名称")) {
+            for (String category : Arrays.asList(null, "茶具")) {
+                for (ProductStatus status : Arrays.asList(null, ProductStatus.ONLINE)) {
+                    for (BigDecimal[] range : PRICE_RANGES) {
+                        for (ProductCriteria.SortField sortField : Arrays.asList(ProductCriteria.SortField.ID,
+                                ProductCriteria.SortField.PRICE)) {
+                            assertSameResult(ProductCriteria.builder()
+                                    .name(name)
+                                    .category(category)
+                                    .status(status)
+                                    .minPrice(range[0])
+                                    .maxPrice(range[1])
+                                    .sortField(sortField)
+                                    .ascending(true)
+                                    .offset(3)
+                                    .limit(10)
+                                    .priceBucketEdges(PRICE_EDGES)
+                                    .build());
+                            checked++;
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(checked).isEqualTo(128);
+    }
+
+    private void assertSameResult(ProductCriteria criteria) {
+        ProductCatalogView.Result actual = snapshot.query(criteria);
+        List<Long> expectedPage = productRepository.findByCriteria(criteria)
+                .stream()
+                .map(product -> product.getId().getValue())
+                .collect(Collectors.toList());
+        ProductFacetCounts expected = productRepository.countFacets(criteria);
+
+        String description = "name=" + criteria.getName() + ", category=" + criteria.getCategory()
+                + ", status=" + criteria.getStatus() + ", price=["+ criteria.getMinPrice() + ", " + criteria.getMaxPrice() + "], sort="
+                + criteria.getSortField() + (criteria.isAscending() ? " asc" : " desc") + ", offset=" + criteria.getOffset();
+        assertThat(actual.getProductIds())
+                .as(description)
+                .extracting(id -> id.getValue())
+                .containsExactlyElementsOf(expectedPage);
+        assertThat(actual.getFacetCounts().getTotal()).as(description).isEqualTo(expected.getTotal());
+        assertThat(actual.getFacetCounts().getByCategory()).as(description).isEqualTo(expected.getByCategory());
+        assertThat(actual.getFacetCounts().getByPriceBucket()).as(description).isEqualTo(expected.getByPriceBucket());
+        assertThat(actual.getFacetCounts().getByStatus()).as(description).isEqualTo(expected.getByStatus());
+    }
+}
@@ -0,0 +1,74 @@
+package com.ceramic.product.infrastructure.inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点库存扣减微基准：8个线程争抢同一个SKU，分片计数器与所有线程CAS同一个 AtomicLong 对比
+ * shards=1 时分片计数器退化为单个计数器，可以看出分片本身的收益。
+ * 库存足够大，测量期间不会售罄。test-compile 后以测试类路径运行 main 方法，不随单元测试执行。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class HotSkuInventoryBenchmark {
+
+    private static final long STOCK = Long.MAX_VALUE / 2;
+
+    @Param({"1", "8"})
+    private int shards;
+
+    private ShardedHotSkuInventory.Counter counter;
+    private AtomicLong single;
+
+    @Setup
+    public void setUp() {
+        counter = new ShardedHotSkuInventory.Counter(shards, STOCK);
+        single = new AtomicLong(STOCK);
+    }
+
+    @Benchmark
+    public boolean shardedCounter() {
+        return counter.tryDecrease(1);
+    }
+
+    /**
+     * 所有请求CAS同一个库存值，相当于内存中的单行库存
+     */
+    @Benchmark
+    public boolean singleAtomicLong() {
+        while (true) {
+            long current = single.get();
+            if (current < 1) {
+                return false;
+            }
+            if (single.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HotSkuInventoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
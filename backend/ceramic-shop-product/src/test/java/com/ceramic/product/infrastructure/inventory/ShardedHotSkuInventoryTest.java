@@ -0,0 +1,121 @@
+package com.ceramic.product.infrastructure.inventory;
+
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import com.ceramic.product.infrastructure.persistence.mapper.HotSkuLeaseMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 分片热点库存测试
+ * 回写周期设为一小时，由测试直接调用 flush 和 renewLease
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class ShardedHotSkuInventoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private HotSkuLeaseMapper leaseMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<ShardedHotSkuInventory> started = new ArrayList<>();
+
+    @AfterEach
+    void stopInstances() throws InterruptedException {
+        for (ShardedHotSkuInventory inventory : started) {
+            inventory.stop();
+        }
+        jdbc.update("UPDATE product_hot_sku_lease SET owner = NULL WHERE id = 1");
+    }
+
+    @Test
+    void secondInstanceFailsToStartWhileLeaseIsHeld() throws InterruptedException {
+        ProductId teapot = insertProduct("青花茶壶", 10);
+        ShardedHotSkuInventory first = start(teapot);
+
+        ShardedHotSkuInventory second = inventory(teapot);
+        assertThatThrownBy(second::start).isInstanceOf(IllegalStateException.class);
+
+        first.stop();
+        started.remove(first);
+        start(teapot);
+    }
+
+    @Test
+    void flushWritesExistingRowsAndStopsSellingDeletedProduct() {
+        ProductId vase = insertProduct("影青花瓶", 10);
+        ProductId cup = insertProduct("玲珑杯", 10);
+        ShardedHotSkuInventory inventory = start(vase, cup);
+        assertThat(inventory.tryDecrease(vase, 2)).isTrue();
+        assertThat(inventory.tryDecrease(cup, 1)).isTrue();
+
+        jdbc.update("DELETE FROM product WHERE id = ?", cup.getValue());
+        inventory.flush();
+
+        assertThat(stockOf(vase)).isEqualTo(8);
+        assertThat(inventory.available(vase)).isEqualTo(8);
+        assertThat(inventory.available(cup)).isZero();
+        assertThat(inventory.tryDecrease(cup, 1)).isFalse();
+
+        // 已核对过的扣减量不会再次回写
+        inventory.flush();
+        assertThat(stockOf(vase)).isEqualTo(8);
+    }
+
+    @Test
+    void stopsSellingWhenLeaseIsTakenOverButStillFlushesSoldQuantity() {
+        ProductId plate = insertProduct("颜色釉盘", 10);
+        ShardedHotSkuInventory inventory = start(plate);
+        assertThat(inventory.tryDecrease(plate, 3)).isTrue();
+
+        jdbc.update("UPDATE product_hot_sku_lease SET owner = 'other-instance' WHERE id = 1");
+        inventory.renewLease();
+
+        assertThat(inventory.leaseHeld()).isFalse();
+        assertThat(inventory.tryDecrease(plate, 1)).isFalse();
+        assertThat(inventory.available(plate)).isZero();
+        inventory.flush();
+        assertThat(stockOf(plate)).isEqualTo(7);
+    }
+
+    private ShardedHotSkuInventory start(ProductId... productIds) {
+        ShardedHotSkuInventory inventory = inventory(productIds);
+        inventory.start();
+        started.add(inventory);
+        return inventory;
+    }
+
+    private ShardedHotSkuInventory inventory(ProductId... productIds) {
+        Long[] ids = new Long[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            ids[i] = productIds[i].getValue();
+        }
+        return new ShardedHotSkuInventory(productRepository, leaseMapper, ids, 4,
+                Duration.ofHours(1), Duration.ofSeconds(30));
+    }
+
+    private ProductId insertProduct(String name, int stock) {
+        jdbc.update("INSERT INTO product (name, price, category, stock, status) VALUES (?, 88.00, '瓷器', ?, 'ONLINE')",
+                name, stock);
+        return new ProductId(jdbc.queryForObject("SELECT MAX(id) FROM product", Long.class));
+    }
+
+    private int stockOf(ProductId productId) {
+        return jdbc.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, productId.getValue());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ceramic.product.infrastructure.persistence;
+
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.domain.service.ProductDomainService;
+import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import com.ceramic.product.infrastructure.persistence.repository.ProductRepositoryImpl;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 产品持久化测试配置
+ * 使用 H2 的 MySQL 兼容模式加载真实的 Mapper XML 和仓储，不启用热点库存，产品变更事件直接丢弃。
+ * 每个测试上下文使用独立的内存库。
+ */
+@Configuration(proxyBeanMethods = false)
+@MapperScan(basePackageClasses = ProductMapper.class)
+public class ProductPersistenceTestConfiguration {
+
+    @Bean
+    public DataSource dataSource() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:product-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setDriverClassName("org.h2.Driver");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-product-h2.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+        org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setCacheEnabled(false);
+        SqlSessionFactoryBean factory = new SqlSessionFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setConfiguration(configuration);
+        factory.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath:mapper/*.xml"));
+        return factory.getObject();
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    @Bean
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public ProductRepository productRepository(ProductMapper productMapper) {
+        return new ProductRepositoryImpl(productMapper, event -> { });
+    }
+
+    @Bean
+    public ProductDomainService productDomainService(ProductRepository productRepository) {
+        return new ProductDomainService(productRepository, Optional.empty());
+    }
+}
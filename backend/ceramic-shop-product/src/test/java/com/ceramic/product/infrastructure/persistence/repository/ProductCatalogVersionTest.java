@@ -0,0 +1,123 @@
+package com.ceramic.product.infrastructure.persistence.repository;
+
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.Category;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.model.valueobject.ProductName;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 产品目录版本测试
+ * 修改由另一个实例的仓储完成，本实例收不到变更事件，只能靠目录版本发现；
+ * 所有修改都在同一秒内完成，update_time 精度不足以区分
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class ProductCatalogVersionTest {
+
+    private static final Category TEA_SET = new Category("茶具");
+    private static final Category VASE = new Category("花瓶");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    /** 另一个产品服务实例，它发布的事件不会到达本实例 */
+    private ProductRepository otherInstance;
+
+    private ProductId older;
+    private ProductId newest;
+
+    @BeforeEach
+    void createProducts() {
+        otherInstance = new ProductRepositoryImpl(productMapper, event -> { });
+        older = insert("青花盖碗", TEA_SET);
+        newest = insert("粉彩公道杯", TEA_SET);
+    }
+
+    @Test
+    void versionIsStableWithoutChanges() {
+        assertThat(productRepository.findCatalogVersion(null)).isEqualTo(productRepository.findCatalogVersion(null));
+        assertThat(productRepository.findCatalogVersion(TEA_SET)).isEqualTo(productRepository.findCatalogVersion(TEA_SET));
+    }
+
+    @Test
+    void detectsUpdateOfRowThatIsNotTheNewest() {
+        String all = productRepository.findCatalogVersion(null);
+        String teaSet = productRepository.findCatalogVersion(TEA_SET);
+
+        Product product = productRepository.findById(older).get();
+        product.update(new ProductName("青花三才盖碗"), product.getDescription(), product.getPrice(),
+                product.getCategory(), product.getImage());
+        transactionTemplate.executeWithoutResult(status -> otherInstance.save(product));
+
+        assertThat(productRepository.findCatalogVersion(null)).isNotEqualTo(all);
+        assertThat(productRepository.findCatalogVersion(TEA_SET)).isNotEqualTo(teaSet);
+    }
+
+    @Test
+    void detectsStockDecreaseOfRowThatIsNotTheNewest() {
+        String teaSet = productRepository.findCatalogVersion(TEA_SET);
+
+        assertThat(otherInstance.decreaseStock(older, 1)).isTrue();
+
+        assertThat(productRepository.findCatalogVersion(TEA_SET)).isNotEqualTo(teaSet);
+    }
+
+    @Test
+    void detectsDeleteFollowedByInsert() {
+        String teaSet = productRepository.findCatalogVersion(TEA_SET);
+
+        transactionTemplate.executeWithoutResult(status -> otherInstance.remove(newest));
+        insert("粉彩公道杯", TEA_SET);
+
+        assertThat(productRepository.findCatalogVersion(TEA_SET)).isNotEqualTo(teaSet);
+    }
+
+    @Test
+    void detectsProductMovedOutOfCategory() {
+        String teaSet = productRepository.findCatalogVersion(TEA_SET);
+        String vase = productRepository.findCatalogVersion(VASE);
+
+        Product product = productRepository.findById(older).get();
+        product.update(product.getName(), product.getDescription(), product.getPrice(), VASE, product.getImage());
+        transactionTemplate.executeWithoutResult(status -> otherInstance.save(product));
+
+        assertThat(productRepository.findCatalogVersion(TEA_SET)).isNotEqualTo(teaSet);
+        assertThat(productRepository.findCatalogVersion(VASE)).isNotEqualTo(vase);
+    }
+
+    @Test
+    void detectsBatchDecrease() {
+        String all = productRepository.findCatalogVersion(null);
+
+        assertThat(otherInstance.decreaseStockBatch(Collections.singletonMap(older, 2))).isTrue();
+
+        assertThat(productRepository.findCatalogVersion(null)).isNotEqualTo(all);
+    }
+
+    private ProductId insert(String name, Category category) {
+        jdbc.update("INSERT INTO product (name, price, category, stock, status) VALUES (?, 66.00, ?, 10, 'ONLINE')",
+                name, category.getValue());
+        return new ProductId(jdbc.queryForObject("SELECT MAX(id) FROM product", Long.class));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ceramic.product.infrastructure.persistence.repository;
+
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 库存扣减并发测试
+ * 64个买家同时抢购同一产品，条件更新保证成功扣减的总量等于初始库存，不会超卖
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class ProductStockConcurrencyTest {
+
+    private static final int BUYERS = 64;
+    private static final int ATTEMPTS_PER_BUYER = 20;
+    private static final int INITIAL_STOCK = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO product (name, price, category, stock, status) VALUES ('青花瓷瓶', 199.00, '花瓶', ?, 'ONLINE')",
+                INITIAL_STOCK);
+        ProductId productId = new ProductId(jdbc.queryForObject("SELECT MAX(id) FROM product", Long.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int buyer = 0; buyer < BUYERS; buyer++) {
+                // 每次购买1到3件，总需求远大于库存
+                int quantity = 1 + buyer % 3;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int bought = 0;
+                    for (int i = 0; i < ATTEMPTS_PER_BUYER; i++) {
+                        if (productRepository.decreaseStock(productId, quantity)) {
+                            bought += quantity;
+                        }
+                    }
+                    return bought;
+                }));
+            }
+            start.countDown();
+            int sold = 0;
+            for (Future<Integer> future : futures) {
+                sold += future.get(60, TimeUnit.SECONDS);
+            }
+
+            int remaining = jdbc.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, productId.getValue());
+            assertThat(remaining).isBetween(0, 2);
+            assertThat(sold + remaining).isEqualTo(INITIAL_STOCK);
+            if (remaining == 0) {
+                // 扣减到0的那次更新同时下架
+                assertThat(jdbc.queryForObject("SELECT status FROM product WHERE id = ?", String.class, productId.getValue()))
+                        .isEqualTo("OFFLINE");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void decreasingToZeroTakesProductOffline() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO product (name, price, category, stock, status) VALUES ('粉彩茶杯', 39.00, '茶具', 3, 'ONLINE')");
+        ProductId productId = new ProductId(jdbc.queryForObject("SELECT MAX(id) FROM product", Long.class));
+
+        assertThat(productRepository.decreaseStock(productId, 4)).isFalse();
+        assertThat(productRepository.decreaseStock(productId, 2)).isTrue();
+        assertThat(jdbc.queryForObject("SELECT status FROM product WHERE id = ?", String.class, productId.getValue()))
+                .isEqualTo("ONLINE");
+        assertThat(productRepository.decreaseStock(productId, 1)).isTrue();
+        assertThat(jdbc.queryForObject("SELECT status FROM product WHERE id = ?", String.class, productId.getValue()))
+                .isEqualTo("OFFLINE");
+        assertThat(productRepository.decreaseStock(productId, 1)).isFalse();
+    }
+}
@@ -0,0 +1,211 @@
+package com.ceramic.product.infrastructure.search;
+
+import com.ceramic.product.domain.event.ProductChangedEvent;
+import com.ceramic.product.domain.model.aggregate.Product;
+import com.ceramic.product.domain.model.valueobject.Category;
+import com.ceramic.product.domain.model.valueobject.Inventory;
+import com.ceramic.product.domain.model.valueobject.Money;
+import com.ceramic.product.domain.model.valueobject.ProductDescription;
+import com.ceramic.product.domain.model.valueobject.ProductId;
+import com.ceramic.product.domain.model.valueobject.ProductName;
+import com.ceramic.product.domain.model.valueobject.ProductStatus;
+import com.ceramic.product.domain.repository.ProductRepository;
+import com.ceramic.product.infrastructure.persistence.ProductPersistenceTestConfiguration;
+import com.ceramic.product.infrastructure.persistence.mapper.ProductMapper;
+import com.ceramic.product.infrastructure.persistence.repository.ProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * 内存检索索引测试
+ * 产品变更经仓储发布的事件直接送到索引，与事务外的 fallbackExecution 路径相同；
+ * 检索词取自其他测试不会使用的名称，与同一内存库中的其他数据互不影响
+ */
+@SpringJUnitConfig(ProductPersistenceTestConfiguration.class)
+class InMemoryProductSearchIndexTest {
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    private InMemoryProductSearchIndex index;
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ProductRepositoryImpl(productMapper,
+                event -> index.onProductChanged((ProductChangedEvent) event));
+        index = new InMemoryProductSearchIndex(repository, Duration.ofSeconds(30), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        index.stop();
+    }
+
+    @Test
+    void indexesProductsCreatedAfterRebuild() {
+        assertThat(index.rebuild(Duration.ofSeconds(30))).isTrue();
+        ProductId id = repository.save(product("汝窑天青笔洗", "文房")).getId();
+
+        assertThat(search("天青")).containsExactly(id);
+        assertThat(search("天青笔洗")).containsExactly(id);
+        // 查询的每个二元组都必须命中，名称中不相邻的两个字不匹配
+        assertThat(search("汝窑笔洗")).isEmpty();
+    }
+
+    @Test
+    void replacesOldTermsWhenProductIsRenamed() {
+        ProductId id = repository.save(product("哥窑金丝铁线盘", "餐具")).getId();
+        assertThat(index.rebuild(Duration.ofSeconds(30))).isTrue();
+        assertThat(search("金丝铁线")).containsExactly(id);
+
+        Product product = repository.findById(id).get();
+        product.update(new ProductName("定窑刻花盘"), product.getDescription(), product.getPrice(),
+                new Category("定窑餐具"), product.getImage());
+        repository.save(product);
+
+        assertThat(search("金丝铁线")).isEmpty();
+        assertThat(search("刻花")).containsExactly(id);
+        // 分类同样参与索引
+        assertThat(search("定窑餐具")).containsExactly(id);
+    }
+
+    @Test
+    void dropsRemovedProduct() {
+        ProductId id = repository.save(product("建盏兔毫杯", "茶具")).getId();
+        assertThat(index.rebuild(Duration.ofSeconds(30))).isTrue();
+        assertThat(search("兔毫")).containsExactly(id);
+
+        repository.remove(id);
+
+        assertThat(search("兔毫")).isEmpty();
+        assertThat(index.search("建盏", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void stockChangeKeepsProductSearchable() {
+        ProductId id = repository.save(product("钧窑玫瑰紫花盆", "花器")).getId();
+        assertThat(index.rebuild(Duration.ofSeconds(30))).isTrue();
+
+        assertThat(repository.decreaseStock(id, 1)).isTrue();
+
+        assertThat(search("玫瑰紫")).containsExactly(id);
+    }
+
+    @Test
+    void changeCommittedDuringRebuildIsNotLostWhenIndexIsSwapped() {
+        ProductId id = repository.save(product("耀州窑刻花碗", "餐具")).getId();
+        AtomicInteger pages = new AtomicInteger();
+        // 第一页读完后改名，新索引用的是改名前读到的数据
+        ProductRepository racing = Mockito.spy(repository);
+        Mockito.doAnswer(invocation -> {
+            Object page = invocation.callRealMethod();
+            if (pages.getAndIncrement() == 0) {
+                Product product = repository.findById(id).get();
+                product.update(new ProductName("磁州窑白地黑花碗"), product.getDescription(), product.getPrice(),
+                        product.getCategory(), product.getImage());
+                repository.save(product);
+            }
+            return page;
+        }).when(racing).findPageAfterId(anyLong(), anyInt());
+        index = new InMemoryProductSearchIndex(racing, Duration.ofSeconds(30), Duration.ofMinutes(1));
+
+        assertThat(index.rebuild(Duration.ofSeconds(30))).isTrue();
+
+        assertThat(search("耀州")).isEmpty();
+        assertThat(search("白地黑花")).containsExactly(id);
+    }
+
+    @Test
+    void rebuildThatHitsDeadlineIsRetriedWithLongerTimeout() throws InterruptedException {
+        ProductRepository slow = Mockito.mock(ProductRepository.class);
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.when(slow.findPageAfterId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            if (calls.getAndIncrement() == 0) {
+                // 第一次读取就超过时限，读完这一页后放弃
+                Thread.sleep(300);
+            }
+            return afterId == 0 ? fullPage() : Collections.emptyList();
+        });
+        index = new InMemoryProductSearchIndex(slow, Duration.ofMillis(200), Duration.ofMillis(50));
+
+        index.rebuildOnStartup();
+
+        awaitReady();
+        // 超时的一次读了一页，重试读了一页和一个空页
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(index.search("样品", 0, 10).getTotal()).isEqualTo(500);
+    }
+
+    @Test
+    void failedRebuildIsRetried() throws InterruptedException {
+        ProductRepository flaky = Mockito.mock(ProductRepository.class);
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.when(flaky.findPageAfterId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() < 2) {
+                throw new IllegalStateException("数据库暂不可用");
+            }
+            return Collections.emptyList();
+        });
+        index = new InMemoryProductSearchIndex(flaky, Duration.ofSeconds(30), Duration.ofMillis(20));
+
+        index.rebuildOnStartup();
+
+        awaitReady();
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!index.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private List<ProductId> search(String query) {
+        return index.search(query, 0, 10).getProductIds();
+    }
+
+    private static List<Product> fullPage() {
+        List<Product> page = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            page.add(Product.builder()
+                    .id(new ProductId(id))
+                    .name(new ProductName("样品" + id))
+                    .price(new Money(new BigDecimal("10.00")))
+                    .category(new Category("样品"))
+                    .inventory(new Inventory(1))
+                    .status(ProductStatus.ONLINE)
+                    .build());
+        }
+        return page;
+    }
+
+    private static Product product(String name, String category) {
+        return Product.builder()
+                .name(new ProductName(name))
+                .description(new ProductDescription("手工拉坯，釉下彩绘"))
+                .price(new Money(new BigDecimal("199.00")))
+                .category(new Category(category))
+                .inventory(new Inventory(10))
+                .status(ProductStatus.ONLINE)
+                .build();
+    }
+}
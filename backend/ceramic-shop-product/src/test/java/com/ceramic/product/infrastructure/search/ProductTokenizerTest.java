@@ -0,0 +1,66 @@
+package com.ceramic.product.infrastructure.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 产品文本分词测试
+ */
+class ProductTokenizerTest {
+
+    @Test
+    void indexesCjkAsUnigramsAndBigrams() {
+        assertThat(ProductTokenizer.tokenizeForIndex("青花瓷"))
+                .containsExactly("青", "青花", "花", "花瓷", "瓷");
+        assertThat(ProductTokenizer.tokenizeForIndex("碗")).containsExactly("碗");
+    }
+
+    @Test
+    void queriesCjkWithBigramsOnlyUnlessSingleCharacter() {
+        assertThat(ProductTokenizer.tokenizeForQuery("青花瓷")).containsExactly("青花", "花瓷");
+        assertThat(ProductTokenizer.tokenizeForQuery("碗")).containsExactly("碗");
+    }
+
+    @Test
+    void bigramsDoNotSpanScriptBoundariesOrPunctuation() {
+        // 拉丁片段和标点把中文切成独立的段，段之间不组成二元组
+        assertThat(ProductTokenizer.tokenizeForIndex("景德镇Jingdezhen青花，茶杯"))
+                .containsExactly("景", "景德", "德", "德镇", "镇", "jingdezhen", "青", "青花", "花", "茶", "茶杯", "杯");
+        assertThat(ProductTokenizer.tokenizeForQuery("青花 茶杯")).containsExactly("青花", "茶杯");
+    }
+
+    @Test
+    void splitsLatinAndDigitsIntoLowerCaseWords() {
+        assertThat(ProductTokenizer.tokenizeForIndex("Blue-and-White Vase 30cm"))
+                .containsExactly("blue", "and", "white", "vase", "30cm");
+    }
+
+    @Test
+    void treatsKanaAndHangulAsCjk() {
+        assertThat(ProductTokenizer.tokenizeForQuery("ちゃわん")).containsExactly("ちゃ", "ゃわ", "わん");
+        assertThat(ProductTokenizer.tokenizeForQuery("도자기")).containsExactly("도자", "자기");
+    }
+
+    @Test
+    void handlesSupplementaryCharacters() {
+        // U+20BB7 在基本平面之外，按一个字处理
+        String text = "𠮷瓷";
+        assertThat(ProductTokenizer.tokenizeForIndex(text)).containsExactly("𠮷", text, "瓷");
+    }
+
+    @Test
+    void detectsTrailingLatinWord() {
+        assertThat(ProductTokenizer.endsWithLatin("青花 vas")).isTrue();
+        assertThat(ProductTokenizer.endsWithLatin("vase 青花")).isFalse();
+        assertThat(ProductTokenizer.endsWithLatin("vase ")).isFalse();
+        assertThat(ProductTokenizer.endsWithLatin("")).isFalse();
+        assertThat(ProductTokenizer.endsWithLatin(null)).isFalse();
+    }
+
+    @Test
+    void returnsNoTokensForBlankText() {
+        assertThat(ProductTokenizer.tokenizeForIndex(null)).isEmpty();
+        assertThat(ProductTokenizer.tokenizeForQuery(" ，。 ")).isEmpty();
+    }
+}
@@ -0,0 +1,27 @@
+-- 产品模块测试表结构（H2 MySQL兼容模式），与 db/schema.sql 的列一致
+CREATE TABLE product (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    description TEXT,
+    price DECIMAL(10,2) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    image VARCHAR(255),
+    stock INT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'OFFLINE',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL DEFAULT 1
+);
+
+CREATE TABLE product_catalog_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+INSERT INTO product_catalog_version (id, version) VALUES (1, 0);
+
+CREATE TABLE product_hot_sku_lease (
+    id TINYINT PRIMARY KEY,
+    owner VARCHAR(128),
+    expire_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+INSERT INTO product_hot_sku_lease (id, owner) VALUES (1, NULL);
@@ -7,6 +7,7 @@ import com.ceramic.user.domain.model.valueobject.Email;
 import com.ceramic.user.domain.model.valueobject.UserId;
 import com.ceramic.user.domain.model.valueobject.Username;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,12 @@ public interface UserRepository {
      */
     User save(User user);
     
+    /**
+     * 记录用户登录时间
+     * 只更新最后登录时间，不回写整行；写入异步合并执行，读取可能滞后几秒
+     */
+    void recordLogin(UserId userId, LocalDateTime loginTime);
+    
     /**
      * 根据ID查找用户
      */
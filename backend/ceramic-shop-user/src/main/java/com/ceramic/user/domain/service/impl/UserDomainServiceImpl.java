@@ -72,9 +72,14 @@ public class UserDomainServiceImpl implements UserDomainService {
             User user = userOpt.get();
             
             if (passwordEncoder.matches(password.getValue(), user.getPassword().getValue())) {
-                // 记录登录时间
+                // 记录登录时间，异步合并写入，不回写整行
                 user.recordLogin();
-                userRepository.save(user);
+                userRepository.recordLogin(user.getId(), user.getLastLoginTime());
+                // 存储的加密强度与当前配置不同时，借登录时的明文重新加密
+                if (passwordEncoder.needsRehash(user.getPassword().getValue())) {
+                    user.changePassword(new Password(passwordEncoder.encode(password.getValue())));
+                    userRepository.save(user);
+                }
                 return Optional.of(user);
             }
         }
@@ -142,7 +147,7 @@ public class UserDomainServiceImpl implements UserDomainService {
             throw new IllegalArgumentException("旧密码不正确");
         }
 
-        user.changePassword(newPassword);
+        user.changePassword(new Password(passwordEncoder.encode(newPassword.getValue())));
         return userRepository.save(user);
     }
 
@@ -1,10 +1,12 @@
 package com.ceramic.user.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -19,12 +21,19 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${server.port:8080}") int serverPort,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        // 管理端口只对内网开放，Prometheus 抓取不带凭据；与业务端口相同时不放行
+        RequestMatcher managementPortRequest = request ->
+                managementPort != serverPort && request.getLocalPort() == managementPort;
         http
             .cors().and()
             .csrf().disable()
             .authorizeRequests()
-                .antMatchers("/", "/health", "/api/users/login", "/api/users/register", "/api/users/refresh",
+                .requestMatchers(managementPortRequest).permitAll()
+                // 业务端口上的监控端点只公开健康检查
+                .antMatchers("/", "/health", "/actuator/health", "/api/users/login", "/api/users/register",
                              "/api/users/current", "/api/users/**", "/api/addresses/**",
                              "/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**").permitAll()
                 .anyRequest().authenticated()
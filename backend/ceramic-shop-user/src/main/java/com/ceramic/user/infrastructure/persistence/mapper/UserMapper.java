@@ -4,7 +4,9 @@ import com.ceramic.user.infrastructure.persistence.entity.UserDO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 /**
  * 用户Mapper接口
  */
@@ -21,6 +23,14 @@ public interface UserMapper {
      */
     int update(UserDO user);
     
+    /**
+     * 批量更新最后登录时间
+     *
+     * @param loginTimes 用户ID到最后登录时间的映射
+     * @return 影响行数
+     */
+    int updateLastLoginTimes(@Param("loginTimes") Map<Long, LocalDateTime> loginTimes);
+    
     /**
      * 根据ID查询用户
      */
@@ -0,0 +1,90 @@
+package com.ceramic.user.infrastructure.persistence.repository;
+
+import com.ceramic.user.infrastructure.persistence.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录时间异步合并写入
+ * 登录时只在内存中记录每个用户最新的登录时间，后台线程定期用批量 UPDATE ... CASE 写入数据库，
+ * 同一用户在一个周期内的多次登录只写一次；关闭前写入剩余记录，写入失败的记录保留到下个周期重试。
+ */
+@Slf4j
+@Component
+public class LoginTimeWriteBehind {
+
+    private final UserMapper userMapper;
+    private final Duration flushInterval;
+    private final int batchSize;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    public LoginTimeWriteBehind(UserMapper userMapper,
+                                @Value("${ceramic.user.login.flush-interval:5s}") Duration flushInterval,
+                                @Value("${ceramic.user.login.flush-batch-size:500}") int batchSize) {
+        this.userMapper = userMapper;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "login-time-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * 记录登录时间，只保留每个用户最新的一次
+     */
+    public void record(Long userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (current, latest) -> latest.isAfter(current) ? latest : current);
+    }
+
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, LocalDateTime>> entries = new ArrayList<>(pending.entrySet());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            Map<Long, LocalDateTime> batch = new HashMap<>();
+            for (Map.Entry<Long, LocalDateTime> entry : entries.subList(from, Math.min(from + batchSize, entries.size()))) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+            try {
+                userMapper.updateLastLoginTimes(batch);
+                // 只移除已写入的值，写入期间又有新登录的用户留到下个周期
+                batch.forEach(pending::remove);
+            } catch (RuntimeException e) {
+                log.error("登录时间批量写入失败，{} 条记录下个周期重试", batch.size(), e);
+                return;
+            }
+        }
+    }
+}
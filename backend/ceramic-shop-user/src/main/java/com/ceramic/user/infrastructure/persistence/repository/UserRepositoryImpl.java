@@ -16,6 +16,7 @@ import com.ceramic.user.infrastructure.persistence.mapper.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -28,11 +29,14 @@ public class UserRepositoryImpl implements UserRepository {
 
     private final UserMapper userMapper;
     private final AddressMapper addressMapper;
+    private final LoginTimeWriteBehind loginTimeWriteBehind;
 
     @Autowired
-    public UserRepositoryImpl(UserMapper userMapper, AddressMapper addressMapper) {
+    public UserRepositoryImpl(UserMapper userMapper, AddressMapper addressMapper,
+                              LoginTimeWriteBehind loginTimeWriteBehind) {
         this.userMapper = userMapper;
         this.addressMapper = addressMapper;
+        this.loginTimeWriteBehind = loginTimeWriteBehind;
     }
 
     @Override
@@ -46,6 +50,11 @@ public class UserRepositoryImpl implements UserRepository {
         return UserConverter.toDomain(userDO);
     }
 
+    @Override
+    public void recordLogin(UserId userId, LocalDateTime loginTime) {
+        loginTimeWriteBehind.record(userId.getValue(), loginTime);
+    }
+
     @Override
     public Optional<User> findById(UserId userId) {
         UserDO userDO = userMapper.selectById(userId.getValue());
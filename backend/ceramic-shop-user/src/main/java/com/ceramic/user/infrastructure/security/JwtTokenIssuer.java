@@ -0,0 +1,34 @@
+package com.ceramic.user.infrastructure.security;
+
+import com.ceramicshop.common.security.JwtCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录成功后签发访问令牌
+ */
+@Component
+public class JwtTokenIssuer {
+
+    private final JwtCodec jwtCodec;
+    private final Duration ttl;
+
+    public JwtTokenIssuer(JwtCodec jwtCodec,
+                          @Value("${ceramic.jwt.ttl:2h}") Duration ttl) {
+        this.jwtCodec = jwtCodec;
+        this.ttl = ttl;
+    }
+
+    public String issue(Long userId) {
+        return jwtCodec.issue(userId, ttl);
+    }
+
+    /**
+     * 令牌有效期，秒
+     */
+    public long getTtlSeconds() {
+        return ttl.getSeconds();
+    }
+}
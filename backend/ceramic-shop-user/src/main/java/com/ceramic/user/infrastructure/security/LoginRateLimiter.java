@@ -0,0 +1,68 @@
+package com.ceramic.user.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录限流器
+ * 按“用户名+客户端IP”维护令牌桶，桶容量为窗口内允许的最大尝试次数，令牌在窗口内匀速恢复
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final int maxAttempts;
+    private final double refillPerNano;
+    private final Cache<String, TokenBucket> buckets;
+
+    public LoginRateLimiter(@Value("${ceramic.user.login.rate-limit.max-attempts:10}") int maxAttempts,
+                            @Value("${ceramic.user.login.rate-limit.window:1m}") Duration window,
+                            @Value("${ceramic.user.login.rate-limit.maximum-keys:100000}") long maximumKeys) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("登录限流次数必须大于0");
+        }
+        this.maxAttempts = maxAttempts;
+        this.refillPerNano = (double) maxAttempts / window.toNanos();
+        // 桶在一个窗口内未被访问时已恢复满，可以直接丢弃
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(window)
+                .maximumSize(maximumKeys)
+                .build();
+    }
+
+    /**
+     * 尝试获取一次登录机会
+     *
+     * @param username 用户名
+     * @param clientIp 客户端IP
+     * @return 是否允许本次登录尝试
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        String key = username + "|" + clientIp;
+        return buckets.get(key, k -> new TokenBucket(maxAttempts)).tryAcquire(maxAttempts, refillPerNano);
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(int capacity) {
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire(int capacity, double refillPerNano) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -1,18 +1,69 @@
 package com.ceramic.user.infrastructure.util;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * 密码加密工具类
+ * BCrypt 计算在独立的有界线程池中执行，同时进行的哈希计算不超过线程数，
+ * 队列已满或等待超时时快速失败，避免登录高峰占满全部请求线程。
  */
+@Slf4j
 @Component
-public class PasswordEncoder {
+public class PasswordEncoder implements MeterBinder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
 
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public PasswordEncoder(@Value("${ceramic.user.password.bcrypt-strength:10}") int strength,
+                           @Value("${ceramic.user.password.hash-threads:0}") int threads,
+                           @Value("${ceramic.user.password.hash-queue-capacity:64}") int queueCapacity,
+                           @Value("${ceramic.user.password.hash-timeout:5s}") Duration timeout) {
+        this.bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeoutMillis = timeout.toMillis();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
 
-    public PasswordEncoder() {
-        this.bCryptPasswordEncoder = new BCryptPasswordEncoder();
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
     }
 
     /**
@@ -22,7 +73,7 @@ public class PasswordEncoder {
      * @return 加密后的密码
      */
     public String encode(String rawPassword) {
-        return bCryptPasswordEncoder.encode(rawPassword);
+        return execute(() -> bCryptPasswordEncoder.encode(rawPassword));
     }
 
     /**
@@ -33,6 +84,56 @@ public class PasswordEncoder {
      * @return 是否匹配
      */
     public boolean matches(String rawPassword, String encodedPassword) {
-        return bCryptPasswordEncoder.matches(rawPassword, encodedPassword);
+        return execute(() -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 已存储密码的计算强度与当前配置不同时需要重新加密
+     *
+     * @param encodedPassword 加密后的密码
+     * @return 是否需要重新加密
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * 导出哈希线程池的线程数、队列深度、任务耗时以及拒绝次数
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("ceramic.user.password.hash.rejected", rejectedCount, AtomicLong::get)
+                .description("队列已满或等待超时被拒绝的密码哈希请求数")
+                .register(registry);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            log.warn("密码哈希队列已满，拒绝请求，队列深度 {}", executor.getQueue().size());
+            throw new PasswordHashingRejectedException("系统繁忙，请稍后重试");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCount.incrementAndGet();
+            throw new PasswordHashingRejectedException("系统繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("请求已中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
     }
-} 
\ No newline at end of file
+}
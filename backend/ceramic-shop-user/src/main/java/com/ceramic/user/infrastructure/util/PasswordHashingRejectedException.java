@@ -0,0 +1,11 @@
+package com.ceramic.user.infrastructure.util;
+
+/**
+ * 密码哈希线程池已满或等待超时
+ */
+public class PasswordHashingRejectedException extends IllegalStateException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
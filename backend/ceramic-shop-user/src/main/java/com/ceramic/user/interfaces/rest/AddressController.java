@@ -3,6 +3,8 @@ package com.ceramic.user.interfaces.rest;
 import com.ceramic.user.application.dto.AddressDTO;
 import com.ceramic.user.application.dto.AddressRequest;
 import com.ceramic.user.application.service.AddressApplicationService;
+import com.ceramicshop.common.dto.ApiResponse;
+import com.ceramicshop.common.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,12 +32,12 @@ public class AddressController {
      * 添加收货地址
      */
     @PostMapping("")
-    public ResponseEntity<AddressDTO> addAddress(
-            @RequestHeader("X-User-Id") Long userId,
+    public ResponseEntity<ApiResponse<AddressDTO>> addAddress(
+            CurrentUser currentUser,
             @Valid @RequestBody AddressRequest request) {
         try {
-            AddressDTO addressDTO = addressApplicationService.addAddress(userId, request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(addressDTO);
+            AddressDTO addressDTO = addressApplicationService.addAddress(currentUser.getUserId(), request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(addressDTO));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -45,13 +47,13 @@ public class AddressController {
      * 更新收货地址
      */
     @PutMapping("/{addressId}")
-    public ResponseEntity<AddressDTO> updateAddress(
-            @RequestHeader("X-User-Id") Long userId,
+    public ApiResponse<AddressDTO> updateAddress(
+            CurrentUser currentUser,
             @PathVariable Long addressId,
             @Valid @RequestBody AddressRequest request) {
         try {
-            AddressDTO addressDTO = addressApplicationService.updateAddress(userId, addressId, request);
-            return ResponseEntity.ok(addressDTO);
+            AddressDTO addressDTO = addressApplicationService.updateAddress(currentUser.getUserId(), addressId, request);
+            return ApiResponse.success(addressDTO);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -61,12 +63,12 @@ public class AddressController {
      * 设置默认地址
      */
     @PostMapping("/{addressId}/default")
-    public ResponseEntity<AddressDTO> setDefaultAddress(
-            @RequestHeader("X-User-Id") Long userId,
+    public ApiResponse<AddressDTO> setDefaultAddress(
+            CurrentUser currentUser,
             @PathVariable Long addressId) {
         try {
-            AddressDTO addressDTO = addressApplicationService.setDefaultAddress(userId, addressId);
-            return ResponseEntity.ok(addressDTO);
+            AddressDTO addressDTO = addressApplicationService.setDefaultAddress(currentUser.getUserId(), addressId);
+            return ApiResponse.success(addressDTO);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -77,10 +79,10 @@ public class AddressController {
      */
     @DeleteMapping("/{addressId}")
     public ResponseEntity<Void> deleteAddress(
-            @RequestHeader("X-User-Id") Long userId,
+            CurrentUser currentUser,
             @PathVariable Long addressId) {
         try {
-            addressApplicationService.deleteAddress(userId, addressId);
+            addressApplicationService.deleteAddress(currentUser.getUserId(), addressId);
             return ResponseEntity.noContent().build();
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
@@ -91,22 +93,20 @@ public class AddressController {
      * 获取用户的所有收货地址
      */
     @GetMapping("")
-    public ResponseEntity<List<AddressDTO>> getUserAddresses(
-            @RequestHeader("X-User-Id") Long userId) {
-        List<AddressDTO> addresses = addressApplicationService.getUserAddresses(userId);
-        return ResponseEntity.ok(addresses);
+    public ApiResponse<List<AddressDTO>> getUserAddresses(CurrentUser currentUser) {
+        return ApiResponse.success(addressApplicationService.getUserAddresses(currentUser.getUserId()));
     }
 
     /**
      * 获取地址详情
      */
     @GetMapping("/{addressId}")
-    public ResponseEntity<AddressDTO> getAddressById(
-            @RequestHeader("X-User-Id") Long userId,
+    public ApiResponse<AddressDTO> getAddressById(
+            CurrentUser currentUser,
             @PathVariable Long addressId) {
         try {
-            AddressDTO addressDTO = addressApplicationService.getAddressById(userId, addressId);
-            return ResponseEntity.ok(addressDTO);
+            AddressDTO addressDTO = addressApplicationService.getAddressById(currentUser.getUserId(), addressId);
+            return ApiResponse.success(addressDTO);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -116,10 +116,9 @@ public class AddressController {
      * 获取用户的默认收货地址
      */
     @GetMapping("/default")
-    public ResponseEntity<AddressDTO> getUserDefaultAddress(
-            @RequestHeader("X-User-Id") Long userId) {
-        return addressApplicationService.getUserDefaultAddress(userId)
-                .map(ResponseEntity::ok)
+    public ApiResponse<AddressDTO> getUserDefaultAddress(CurrentUser currentUser) {
+        return addressApplicationService.getUserDefaultAddress(currentUser.getUserId())
+                .map(ApiResponse::success)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Default address not found"));
     }
 } 
\ No newline at end of file
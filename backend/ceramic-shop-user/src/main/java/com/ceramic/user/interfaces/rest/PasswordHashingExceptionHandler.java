@@ -0,0 +1,35 @@
+package com.ceramic.user.interfaces.rest;
+
+import com.ceramic.user.infrastructure.util.PasswordHashingRejectedException;
+import com.ceramicshop.common.dto.ResultCode;
+import com.ceramicshop.common.web.ApiResponseWriter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 密码哈希线程池繁忙时返回503
+ * 优先于公共模块的全局异常处理器，否则会按 IllegalStateException 处理成400。
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PasswordHashingExceptionHandler {
+
+    private final ApiResponseWriter writer;
+
+    public PasswordHashingExceptionHandler(ApiResponseWriter writer) {
+        this.writer = writer;
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<byte[]> handlePasswordHashingRejected(PasswordHashingRejectedException ex) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return writer.toResponse(HttpStatus.SERVICE_UNAVAILABLE, headers,
+                writer.body(ResultCode.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+}
@@ -2,12 +2,16 @@ package com.ceramic.user.interfaces.rest;
 
 import com.ceramic.user.application.dto.*;
 import com.ceramic.user.application.service.UserApplicationService;
+import com.ceramic.user.infrastructure.security.JwtTokenIssuer;
+import com.ceramic.user.infrastructure.security.LoginRateLimiter;
+import com.ceramicshop.common.dto.ApiResponse;
+import com.ceramicshop.common.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,20 +24,25 @@ import java.util.Map;
 public class UserController {
 
     private final UserApplicationService userApplicationService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final JwtTokenIssuer jwtTokenIssuer;
 
     @Autowired
-    public UserController(UserApplicationService userApplicationService) {
+    public UserController(UserApplicationService userApplicationService,
+                          LoginRateLimiter loginRateLimiter,
+                          JwtTokenIssuer jwtTokenIssuer) {
         this.userApplicationService = userApplicationService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.jwtTokenIssuer = jwtTokenIssuer;
     }
 
     /**
      * 用户注册
      */
     @PostMapping("/register")
-    public ResponseEntity<UserDTO> register(@Valid @RequestBody RegisterUserRequest request) {
+    public ApiResponse<UserDTO> register(@Valid @RequestBody RegisterUserRequest request) {
         try {
-            UserDTO userDTO = userApplicationService.register(request);
-            return ResponseEntity.ok(userDTO);
+            return ApiResponse.success(userApplicationService.register(request));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -43,14 +52,18 @@ public class UserController {
      * 用户登录
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@Valid @RequestBody LoginRequest request) {
+    public ApiResponse<Map<String, Object>> login(@Valid @RequestBody LoginRequest request,
+                                                  HttpServletRequest httpRequest) {
+        if (!loginRateLimiter.tryAcquire(request.getUsername(), httpRequest.getRemoteAddr())) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "登录尝试过于频繁，请稍后再试");
+        }
         return userApplicationService.login(request)
                 .map(userDTO -> {
                     Map<String, Object> response = new HashMap<>();
                     response.put("user", userDTO);
-                    // 这里可以添加JWT token等认证信息
-                    response.put("token", "mock-token-for-user-" + userDTO.getId());
-                    return ResponseEntity.ok(response);
+                    response.put("token", jwtTokenIssuer.issue(userDTO.getId()));
+                    response.put("expiresIn", jwtTokenIssuer.getTtlSeconds());
+                    return ApiResponse.success(response);
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid username or password"));
     }
@@ -59,13 +72,9 @@ public class UserController {
      * 获取当前登录用户信息
      */
     @GetMapping("/current")
-    public ResponseEntity<UserDTO> getCurrentUser() {
-        // 通过Spring Security获取当前用户名，这里简化处理
-        // 实际应该从SecurityContextHolder获取Authentication
-        String username = "cimastone"; // 临时硬编码，仅供演示
-        
-        return userApplicationService.getUserByUsername(username)
-                .map(ResponseEntity::ok)
+    public ApiResponse<UserDTO> getCurrentUser(CurrentUser currentUser) {
+        return userApplicationService.getUserById(currentUser.getUserId())
+                .map(ApiResponse::success)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     }
 
@@ -73,9 +82,9 @@ public class UserController {
      * 获取用户信息
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long userId) {
+    public ApiResponse<UserDTO> getUserById(@PathVariable Long userId) {
         return userApplicationService.getUserById(userId)
-                .map(ResponseEntity::ok)
+                .map(ApiResponse::success)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     }
 
@@ -83,10 +92,12 @@ public class UserController {
      * 更新用户资料
      */
     @PutMapping("/{userId}")
-    public ResponseEntity<UserDTO> updateProfile(@PathVariable Long userId, @RequestBody UserDTO userDTO) {
+    public ApiResponse<UserDTO> updateProfile(CurrentUser currentUser,
+                                              @PathVariable Long userId,
+                                              @RequestBody UserDTO userDTO) {
+        requireSelf(currentUser, userId);
         try {
-            UserDTO updatedUser = userApplicationService.updateProfile(userId, userDTO);
-            return ResponseEntity.ok(updatedUser);
+            return ApiResponse.success(userApplicationService.updateProfile(userId, userDTO));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -96,15 +107,26 @@ public class UserController {
      * 修改密码
      */
     @PutMapping("/{userId}/password")
-    public ResponseEntity<UserDTO> changePassword(
+    public ApiResponse<UserDTO> changePassword(
+            CurrentUser currentUser,
             @PathVariable Long userId,
             @RequestParam String oldPassword,
             @RequestParam String newPassword) {
+        requireSelf(currentUser, userId);
         try {
             UserDTO userDTO = userApplicationService.changePassword(userId, oldPassword, newPassword);
-            return ResponseEntity.ok(userDTO);
+            return ApiResponse.success(userDTO);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 只能修改自己的资料和密码
+     */
+    private static void requireSelf(CurrentUser currentUser, Long userId) {
+        if (!currentUser.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot modify another user");
+        }
+    }
+}
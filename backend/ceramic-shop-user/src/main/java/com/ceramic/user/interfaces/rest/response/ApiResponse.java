@@ -1,57 +0,0 @@
-package com.ceramic.user.interfaces.rest.response;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-/**
- * API统一响应
- */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class ApiResponse<T> {
-    
-    /**
-     * 响应码：0-成功，非0-失败
-     */
-    private int code;
-    
-    /**
-     * 响应消息
-     */
-    private String message;
-    
-    /**
-     * 响应数据
-     */
-    private T data;
-    
-    /**
-     * 成功响应（带数据）
-     */
-    public static <T> ApiResponse<T> success(T data) {
-        return new ApiResponse<>(0, "success", data);
-    }
-    
-    /**
-     * 成功响应（无数据）
-     */
-    public static <T> ApiResponse<T> success() {
-        return new ApiResponse<>(0, "success", null);
-    }
-    
-    /**
-     * 失败响应
-     */
-    public static <T> ApiResponse<T> error(String message) {
-        return new ApiResponse<>(1, message, null);
-    }
-    
-    /**
-     * 失败响应
-     */
-    public static <T> ApiResponse<T> error(int code, String message) {
-        return new ApiResponse<>(code, message, null);
-    }
-} 
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.ceramic.user.infrastructure.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密码校验微基准：不同 BCrypt 强度下单次校验的耗时，以及经有界线程池执行与直接在调用线程计算的差别
+ * 强度每加1耗时翻倍，用于选择 ceramic.user.password.bcrypt-strength。
+ * test-compile 后以测试类路径运行 main 方法，不随单元测试执行。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String RAW_PASSWORD = "ceramic-shop-P@ssw0rd";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder direct;
+    private PasswordEncoder pooled;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        direct = new BCryptPasswordEncoder(strength);
+        pooled = new PasswordEncoder(strength, 1, 64, Duration.ofMinutes(1));
+        encoded = direct.encode(RAW_PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.shutdown();
+    }
+
+    @Benchmark
+    public boolean directMatches() {
+        return direct.matches(RAW_PASSWORD, encoded);
+    }
+
+    /**
+     * 登录实际走的路径：提交到哈希线程池并等待结果
+     */
+    @Benchmark
+    public boolean pooledMatches() {
+        return pooled.matches(RAW_PASSWORD, encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PasswordEncoderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -14,12 +14,30 @@ CREATE TABLE IF NOT EXISTS product (
     stock INT NOT NULL DEFAULT 0 COMMENT '库存数量',
     status VARCHAR(20) NOT NULL DEFAULT 'OFFLINE' COMMENT '产品状态：ONLINE-上架，OFFLINE-下架',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    row_version BIGINT NOT NULL DEFAULT 1 COMMENT '行版本，每次写入加1，用于判断产品目录是否变化'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='产品表';
 
+-- 产品目录版本，删除或整体修改产品时在同一事务中加1
+CREATE TABLE IF NOT EXISTS product_catalog_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '目录版本号'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='产品目录版本';
+INSERT IGNORE INTO product_catalog_version (id, version) VALUES (1, 0);
+
+-- 热点库存租约，同一时间只允许一个产品服务实例开启热点库存
+CREATE TABLE IF NOT EXISTS product_hot_sku_lease (
+    id TINYINT PRIMARY KEY,
+    owner VARCHAR(128) COMMENT '持有租约的实例，NULL表示空闲',
+    expire_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '租约过期时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='热点库存租约';
+INSERT IGNORE INTO product_hot_sku_lease (id, owner) VALUES (1, NULL);
+
 -- 产品模块索引
-CREATE INDEX idx_product_category ON product(category);
-CREATE INDEX idx_product_status ON product(status);
+CREATE INDEX idx_product_category_status_price ON product(category, status, price);
+CREATE INDEX idx_product_category_status_create_time ON product(category, status, create_time);
+CREATE INDEX idx_product_status_price ON product(status, price);
+CREATE INDEX idx_product_status_create_time ON product(status, create_time);
 CREATE INDEX idx_product_create_time ON product(create_time);
 
 -- 用户模块表
@@ -83,12 +101,16 @@ CREATE TABLE IF NOT EXISTS `orders` (
     remark TEXT COMMENT '订单备注',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    version INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
     FOREIGN KEY (user_id) REFERENCES `t_user`(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单表';
 
 CREATE UNIQUE INDEX idx_orders_order_number ON `orders`(order_number);
-CREATE INDEX idx_orders_user_id ON `orders`(user_id);
-CREATE INDEX idx_orders_status ON `orders`(status);
+-- 用户订单游标分页：(user_id, create_time, id) 支持按用户倒序的keyset分页，同时覆盖按user_id的查询
+CREATE INDEX idx_orders_user_create_time_id ON `orders`(user_id, create_time, id);
+CREATE INDEX idx_orders_user_status_create_time_id ON `orders`(user_id, status, create_time, id);
+-- 按状态、创建时间顺序扫描，用于未支付订单超时关闭的启动重建
+CREATE INDEX idx_orders_status_create_time_id ON `orders`(status, create_time, id);
 CREATE INDEX idx_orders_create_time ON `orders`(create_time);
 
 CREATE TABLE IF NOT EXISTS order_item (
@@ -109,6 +131,24 @@ CREATE TABLE IF NOT EXISTS order_item (
 CREATE INDEX idx_order_item_order_id ON order_item(order_id);
 CREATE INDEX idx_order_item_product_id ON order_item(product_id);
 
+-- 订单事件发件箱：与订单在同一事务内写入，由中继按ID顺序投递
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_id BIGINT NOT NULL COMMENT '订单ID',
+    event_type VARCHAR(30) NOT NULL COMMENT '事件类型：ORDER_CREATED、ORDER_PAID、ORDER_SHIPPED、ORDER_COMPLETED、ORDER_CANCELLED',
+    payload TEXT NOT NULL COMMENT '事件内容（JSON）',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '失败次数',
+    last_error VARCHAR(500) COMMENT '最近一次失败原因',
+    next_attempt_time DATETIME COMMENT '失败后的下次投递时间，为空表示立即投递',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '写入时间',
+    publish_time DATETIME COMMENT '投递完成时间，为空表示待投递'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单事件发件箱';
+
+-- 待投递事件按ID顺序扫描，已投递记录按投递时间清理
+CREATE INDEX idx_order_outbox_pending ON order_outbox(publish_time, id);
+-- 查询同一订单更早的待投递事件，保证按订单顺序投递
+CREATE INDEX idx_order_outbox_order ON order_outbox(order_id, id);
+
 -- 支付模块表
 CREATE TABLE IF NOT EXISTS payment (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -0,0 +1,13 @@
+-- 订单事件发件箱
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_id BIGINT NOT NULL COMMENT '订单ID',
+    event_type VARCHAR(30) NOT NULL COMMENT '事件类型：ORDER_CREATED、ORDER_PAID、ORDER_SHIPPED、ORDER_COMPLETED、ORDER_CANCELLED',
+    payload TEXT NOT NULL COMMENT '事件内容（JSON）',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '失败次数',
+    last_error VARCHAR(500) COMMENT '最近一次失败原因',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '写入时间',
+    publish_time DATETIME COMMENT '投递完成时间，为空表示待投递'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单事件发件箱';
+
+CREATE INDEX idx_order_outbox_pending ON order_outbox(publish_time, id);
@@ -0,0 +1,5 @@
+-- 订单事件发件箱：记录失败事件的下次投递时间，退避从最近一次失败算起
+ALTER TABLE order_outbox ADD COLUMN next_attempt_time DATETIME COMMENT '失败后的下次投递时间，为空表示立即投递' AFTER last_error;
+
+-- 查询同一订单更早的待投递事件，保证按订单顺序投递
+CREATE INDEX idx_order_outbox_order ON order_outbox(order_id, id);
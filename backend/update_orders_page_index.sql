@@ -0,0 +1,5 @@
+-- 用户订单游标分页索引
+CREATE INDEX idx_orders_user_create_time_id ON `orders`(user_id, create_time, id);
+CREATE INDEX idx_orders_user_status_create_time_id ON `orders`(user_id, status, create_time, id);
+-- 已被上面的复合索引前缀覆盖
+DROP INDEX idx_orders_user_id ON `orders`;
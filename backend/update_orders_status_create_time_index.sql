@@ -0,0 +1,4 @@
+-- 未支付订单超时关闭：启动时按 (status, create_time, id) 顺序扫描待支付订单
+CREATE INDEX idx_orders_status_create_time_id ON `orders`(status, create_time, id);
+-- 已被上面的复合索引前缀覆盖
+DROP INDEX idx_orders_status ON `orders`;
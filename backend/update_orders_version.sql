@@ -0,0 +1,2 @@
+-- 订单状态变更的乐观锁版本号
+ALTER TABLE `orders` ADD COLUMN version INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号' AFTER update_time;
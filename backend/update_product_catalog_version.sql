@@ -0,0 +1,9 @@
+-- 产品目录版本：每行的写入次数，以及删除、整体修改产品的次数
+-- 直接在数据库中修改产品时需同时执行 row_version = row_version + 1，删除产品或修改分类时还需递增 product_catalog_version
+ALTER TABLE product ADD COLUMN row_version BIGINT NOT NULL DEFAULT 1 COMMENT '行版本，每次写入加1，用于判断产品目录是否变化' AFTER update_time;
+
+CREATE TABLE IF NOT EXISTS product_catalog_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '目录版本号'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='产品目录版本';
+INSERT IGNORE INTO product_catalog_version (id, version) VALUES (1, 0);
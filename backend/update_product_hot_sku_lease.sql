@@ -0,0 +1,7 @@
+-- 热点库存租约，同一时间只允许一个产品服务实例开启热点库存
+CREATE TABLE IF NOT EXISTS product_hot_sku_lease (
+    id TINYINT PRIMARY KEY,
+    owner VARCHAR(128) COMMENT '持有租约的实例，NULL表示空闲',
+    expire_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '租约过期时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='热点库存租约';
+INSERT IGNORE INTO product_hot_sku_lease (id, owner) VALUES (1, NULL);
@@ -0,0 +1,8 @@
+-- 产品组合查询索引
+CREATE INDEX idx_product_category_status_price ON `product`(category, status, price);
+CREATE INDEX idx_product_category_status_create_time ON `product`(category, status, create_time);
+CREATE INDEX idx_product_status_price ON `product`(status, price);
+CREATE INDEX idx_product_status_create_time ON `product`(status, create_time);
+-- 已被上面的复合索引前缀覆盖
+DROP INDEX idx_product_category ON `product`;
+DROP INDEX idx_product_status ON `product`;